@@ -0,0 +1,59 @@
+package com.calculosjuridicos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSources da aplicação.
+ *
+ * Transações {@code readOnly} são encaminhadas para o pool da réplica quando
+ * {@code spring.datasource.replica.jdbc-url} está configurada; sem réplica, tudo vai
+ * para o pool principal. A conexão física só é obtida no primeiro comando da transação,
+ * quando o gerenciador de transações já marcou a conexão como somente leitura.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrincipal(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource dataSourceReplica() {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrincipal") DataSource principal,
+                                 @Qualifier("dataSourceReplica") ObjectProvider<DataSource> replica) {
+        LazyConnectionDataSourceProxy roteador = new LazyConnectionDataSourceProxy(principal);
+        DataSource somenteLeitura = replica.getIfAvailable();
+        if (somenteLeitura != null) {
+            roteador.setReadOnlyDataSource(somenteLeitura);
+            log.info("Transações somente leitura serão atendidas pela réplica");
+        }
+        return roteador;
+    }
+}
@@ -1,20 +1,32 @@
 package com.calculosjuridicos.controller;
 
 import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.request.CenariosRequest;
+import com.calculosjuridicos.dto.request.FiltroCalculoRequest;
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+import com.calculosjuridicos.dto.response.CenariosResponse;
+import com.calculosjuridicos.dto.response.PaginaCursorResponse;
 import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
 import com.calculosjuridicos.entity.Calculo;
 import com.calculosjuridicos.entity.ResultadoCalculo;
 import com.calculosjuridicos.service.CalculoService;
+import com.calculosjuridicos.service.DetalhamentoService;
+import com.calculosjuridicos.service.PreviewLoteService;
+import com.calculosjuridicos.service.ResultadoPreviewCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +37,9 @@ import java.util.List;
 public class CalculoController {
 
     private final CalculoService calculoService;
+    private final ResultadoPreviewCache resultadoPreviewCache;
+    private final PreviewLoteService previewLoteService;
+    private final DetalhamentoService detalhamentoService;
 
     @PostMapping("/calculos/preview")
     @Operation(summary = "Preview de cálculo sem persistir")
@@ -33,6 +48,29 @@ public class CalculoController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/calculos/preview/lote",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Preview em lote: array JSON ou NDJSON de cálculos, um resultado NDJSON por item")
+    public ResponseEntity<StreamingResponseBody> previewLote(HttpServletRequest httpRequest) {
+        StreamingResponseBody corpo = saida -> previewLoteService.processar(httpRequest.getInputStream(), saida);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(corpo);
+    }
+
+    @PostMapping("/calculos/cenarios")
+    @Operation(summary = "Totais de uma grade de cenários (datas finais, taxas e tipos de juros) sobre um cálculo base")
+    public ResponseEntity<CenariosResponse> cenarios(@Valid @RequestBody CenariosRequest request) {
+        return ResponseEntity.ok(calculoService.calcularCenarios(request));
+    }
+
+    @GetMapping("/calculos/preview/cache")
+    @Operation(summary = "Estatísticas do cache de preview (acertos, falhas e remoções)")
+    public ResponseEntity<ResultadoPreviewCache.Estatisticas> estatisticasCachePreview() {
+        return ResponseEntity.ok(resultadoPreviewCache.estatisticas());
+    }
+
     @PostMapping("/calculos")
     @Operation(summary = "Criar novo cálculo")
     public ResponseEntity<CalculoResponse> criar(@Valid @RequestBody CalculoRequest request) {
@@ -41,11 +79,19 @@ public class CalculoController {
     }
 
     @GetMapping("/calculos")
-    @Operation(summary = "Listar todos os cálculos")
-    public ResponseEntity<Page<CalculoResponse>> listar(
+    @Operation(summary = "Listar cálculos (resumo; parcelas e detalhamento apenas em GET /calculos/{id})")
+    public ResponseEntity<Page<CalculoResumoResponse>> listar(
             @PageableDefault(size = 10) Pageable pageable) {
-        Page<Calculo> calculos = calculoService.listar(pageable);
-        return ResponseEntity.ok(calculos.map(this::toResponse));
+        return ResponseEntity.ok(calculoService.listar(pageable));
+    }
+
+    @GetMapping("/calculos/cursor")
+    @Operation(summary = "Listar cálculos por cursor, filtrando por status, tipo, prefixo do título e período de criação")
+    public ResponseEntity<PaginaCursorResponse<CalculoResumoResponse>> listarPorCursor(
+            @ParameterObject FiltroCalculoRequest filtro,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(calculoService.listarPorCursor(filtro, after, size));
     }
 
     @GetMapping("/calculos/{id}")
@@ -55,6 +101,24 @@ public class CalculoController {
         return ResponseEntity.ok(toResponse(calculo));
     }
 
+    @GetMapping("/calculos/{id}/resultados/historico")
+    @Operation(summary = "Versões anteriores do resultado do cálculo (auditoria)")
+    public ResponseEntity<List<VersaoResultadoResponse>> historicoResultados(@PathVariable Long id) {
+        List<VersaoResultadoResponse> versoes = calculoService.listarHistoricoResultados(id).stream()
+            .map(h -> VersaoResultadoResponse.builder()
+                .versao(h.getVersao())
+                .valorCorrigido(h.getValorCorrigido())
+                .valorJuros(h.getValorJuros())
+                .valorMulta(h.getValorMulta())
+                .valorHonorarios(h.getValorHonorarios())
+                .valorTotal(h.getValorTotal())
+                .dataCalculo(h.getDataCalculo())
+                .dataArquivamento(h.getDataArquivamento())
+                .build())
+            .toList();
+        return ResponseEntity.ok(versoes);
+    }
+
     @PostMapping("/calculos/{id}/executar")
     @Operation(summary = "Executar cálculo e persistir resultado")
     public ResponseEntity<ResultadoCalculoResponse> executar(@PathVariable Long id) {
@@ -88,13 +152,14 @@ public class CalculoController {
         ResultadoCalculo resultado = calculo.getResultado();
         if (resultado != null) {
             resultadoResponse = CalculoResponse.ResultadoResponse.builder()
+                .versao(resultado.getVersao())
                 .valorCorrigido(resultado.getValorCorrigido())
                 .valorJuros(resultado.getValorJuros())
                 .valorMulta(resultado.getValorMulta())
                 .valorHonorarios(resultado.getValorHonorarios())
                 .valorTotal(resultado.getValorTotal())
                 .dataCalculo(resultado.getDataCalculo())
-                .detalhamento(resultado.getDetalhamentoJson())
+                .detalhamento(detalhamentoService.comoJson(resultado))
                 .build();
         }
 
@@ -164,6 +229,7 @@ public class CalculoController {
         @lombok.NoArgsConstructor
         @lombok.AllArgsConstructor
         public static class ResultadoResponse {
+            private Integer versao;
             private java.math.BigDecimal valorCorrigido;
             private java.math.BigDecimal valorJuros;
             private java.math.BigDecimal valorMulta;
@@ -173,4 +239,19 @@ public class CalculoController {
             private String detalhamento;
         }
     }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class VersaoResultadoResponse {
+        private Integer versao;
+        private java.math.BigDecimal valorCorrigido;
+        private java.math.BigDecimal valorJuros;
+        private java.math.BigDecimal valorMulta;
+        private java.math.BigDecimal valorHonorarios;
+        private java.math.BigDecimal valorTotal;
+        private java.time.LocalDateTime dataCalculo;
+        private java.time.LocalDateTime dataArquivamento;
+    }
 }
@@ -1,9 +1,13 @@
 package com.calculosjuridicos.controller;
 
+import com.calculosjuridicos.dto.response.EstatisticasCacheResponse;
 import com.calculosjuridicos.entity.TabelaIndice;
 import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.service.IndiceCacheService;
 import com.calculosjuridicos.service.IndiceService;
 import com.calculosjuridicos.service.IndicesSyncService;
+import com.calculosjuridicos.service.ResultadoPreviewCache;
+import com.calculosjuridicos.service.TabelaIndiceRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +30,9 @@ public class IndiceController {
 
     private final IndiceService indiceService;
     private final IndicesSyncService syncService;
+    private final TabelaIndiceRegistry tabelaIndiceRegistry;
+    private final ResultadoPreviewCache resultadoPreviewCache;
+    private final IndiceCacheService indiceCacheService;
 
     @GetMapping
     @Operation(summary = "Listar tabelas de índices disponíveis")
@@ -132,6 +139,21 @@ public class IndiceController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/registro/recarregar")
+    @Operation(summary = "Recarregar o registro em memória das tabelas de índices")
+    public ResponseEntity<Void> recarregarRegistro() {
+        indiceCacheService.invalidar();
+        tabelaIndiceRegistry.recarregar();
+        resultadoPreviewCache.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/cache/estatisticas")
+    @Operation(summary = "Estatísticas do cache de segundo nível de tabelas e valores de índices")
+    public ResponseEntity<EstatisticasCacheResponse> estatisticasCache() {
+        return ResponseEntity.ok(indiceCacheService.estatisticas());
+    }
+
     private TabelaIndiceResponse toTabelaResponse(TabelaIndice tabela) {
         return TabelaIndiceResponse.builder()
             .id(tabela.getId())
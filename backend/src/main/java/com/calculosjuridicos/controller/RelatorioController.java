@@ -1,9 +1,14 @@
 package com.calculosjuridicos.controller;
 
 import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.request.RelatorioZipRequest;
 import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
 import com.calculosjuridicos.service.CalculoService;
+import com.calculosjuridicos.service.FormatoRelatorio;
+import com.calculosjuridicos.service.RelatorioCache;
+import com.calculosjuridicos.service.RelatorioJobService;
 import com.calculosjuridicos.service.RelatorioService;
+import com.calculosjuridicos.service.RelatorioZipService;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +17,11 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/calculos")
@@ -21,67 +31,115 @@ public class RelatorioController {
 
     private final RelatorioService relatorioService;
     private final CalculoService calculoService;
+    private final RelatorioCache relatorioCache;
+    private final RelatorioJobService relatorioJobService;
+    private final RelatorioZipService relatorioZipService;
 
     @PostMapping("/preview/relatorio")
     @Operation(summary = "Gerar relatório a partir de um preview (sem salvar)")
-    public ResponseEntity<byte[]> gerarRelatorioPreview(
+    public ResponseEntity<StreamingResponseBody> gerarRelatorioPreview(
             @Valid @RequestBody CalculoRequest request,
             @RequestParam(defaultValue = "pdf") String formato) {
 
         ResultadoCalculoResponse resultado = calculoService.preview(request);
+        FormatoRelatorio formatoRelatorio = FormatoRelatorio.de(formato);
+
+        StreamingResponseBody corpo = switch (formatoRelatorio) {
+            case XLSX -> saida -> relatorioService.gerarExcelPreview(request, resultado, saida);
+            case DOCX -> {
+                byte[] conteudo = relatorioService.gerarWordPreview(request, resultado);
+                yield saida -> saida.write(conteudo);
+            }
+            default -> saida -> relatorioService.gerarPdfPreview(request, resultado, saida);
+        };
+        return resposta(formatoRelatorio, "memorial_calculo").body(corpo);
+    }
+
+    @GetMapping("/{id}/relatorio")
+    @Operation(summary = "Gerar relatório do cálculo em PDF, Excel ou Word",
+        description = "Relatórios já gerados para a versão atual do resultado são servidos do cache, "
+            + "com ETag e suporte a If-None-Match")
+    public ResponseEntity<StreamingResponseBody> gerarRelatorio(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "pdf") String formato,
+            @RequestParam(defaultValue = "completo") String nivel,
+            WebRequest webRequest) {
 
-        byte[] conteudo;
-        String contentType;
-        String filename;
-
-        if ("xlsx".equalsIgnoreCase(formato) || "excel".equalsIgnoreCase(formato)) {
-            conteudo = relatorioService.gerarExcelPreview(request, resultado);
-            contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            filename = "memorial_calculo.xlsx";
-        } else if ("docx".equalsIgnoreCase(formato) || "word".equalsIgnoreCase(formato)) {
-            conteudo = relatorioService.gerarWordPreview(request, resultado);
-            contentType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
-            filename = "memorial_calculo.docx";
-        } else {
-            conteudo = relatorioService.gerarPdfPreview(request, resultado);
-            contentType = MediaType.APPLICATION_PDF_VALUE;
-            filename = "memorial_calculo.pdf";
+        // O relatório é escrito após o início da resposta: erros de cálculo inexistente vêm antes
+        int versao = relatorioService.versaoRelatorio(id);
+        FormatoRelatorio formatoRelatorio = FormatoRelatorio.de(formato);
+        RelatorioCache.Chave chave = RelatorioCache.Chave.de(id, formatoRelatorio, nivel, versao);
+
+        if (webRequest.checkNotModified(chave.etag())) {
+            return null;
         }
 
-        return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(contentType))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-            .body(conteudo);
+        StreamingResponseBody corpo = saida -> relatorioCache.escrever(chave,
+            arquivo -> relatorioService.gerar(id, formatoRelatorio, nivel, arquivo), saida);
+        return resposta(formatoRelatorio, "calculo_" + id)
+            .eTag(chave.etag())
+            .body(corpo);
     }
 
-    @GetMapping("/{id}/relatorio")
-    @Operation(summary = "Gerar relatório do cálculo em PDF ou Excel")
-    public ResponseEntity<byte[]> gerarRelatorio(
+    @PostMapping("/{id}/relatorio/jobs")
+    @Operation(summary = "Enfileirar a geração do relatório do cálculo",
+        description = "Retorna o job criado; a situação é consultada em /jobs/{jobId} e o arquivo "
+            + "baixado em /jobs/{jobId}/arquivo")
+    public ResponseEntity<RelatorioJobService.Situacao> criarJobRelatorio(
             @PathVariable Long id,
             @RequestParam(defaultValue = "pdf") String formato,
             @RequestParam(defaultValue = "completo") String nivel) {
 
-        byte[] conteudo;
-        String contentType;
-        String filename;
-
-        if ("xlsx".equalsIgnoreCase(formato) || "excel".equalsIgnoreCase(formato)) {
-            conteudo = relatorioService.gerarExcel(id, nivel);
-            contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            filename = "calculo_" + id + ".xlsx";
-        } else if ("docx".equalsIgnoreCase(formato) || "word".equalsIgnoreCase(formato)) {
-            conteudo = relatorioService.gerarWord(id, nivel);
-            contentType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
-            filename = "calculo_" + id + ".docx";
-        } else {
-            conteudo = relatorioService.gerarPdf(id, nivel);
-            contentType = MediaType.APPLICATION_PDF_VALUE;
-            filename = "calculo_" + id + ".pdf";
-        }
+        RelatorioJobService.Situacao situacao = relatorioJobService.submeter(id, FormatoRelatorio.de(formato), nivel);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/calculos/" + id + "/relatorio/jobs/" + situacao.jobId()))
+            .body(situacao);
+    }
+
+    @GetMapping("/{id}/relatorio/jobs/{jobId}")
+    @Operation(summary = "Situação de um job de relatório")
+    public ResponseEntity<RelatorioJobService.Situacao> situacaoJobRelatorio(
+            @PathVariable Long id,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(relatorioJobService.situacao(id, jobId));
+    }
+
+    @GetMapping("/{id}/relatorio/jobs/{jobId}/arquivo")
+    @Operation(summary = "Baixar o relatório de um job concluído")
+    public ResponseEntity<StreamingResponseBody> baixarJobRelatorio(
+            @PathVariable Long id,
+            @PathVariable String jobId) {
+
+        RelatorioJobService.Situacao situacao = relatorioJobService.concluido(id, jobId);
+        StreamingResponseBody corpo = saida -> relatorioJobService.escrever(id, jobId, saida);
+        return resposta(situacao.formato(), "calculo_" + id).body(corpo);
+    }
+
+    @PostMapping("/relatorios/zip")
+    @Operation(summary = "Exportar em um ZIP os relatórios de vários cálculos",
+        description = "Os cálculos são indicados por ids ou por filtro; os relatórios são gerados em paralelo "
+            + "e enviados no ZIP à medida que ficam prontos. Falhas individuais são listadas em erros.txt")
+    public ResponseEntity<StreamingResponseBody> exportarRelatoriosZip(@Valid @RequestBody RelatorioZipRequest request) {
+        FormatoRelatorio formato = FormatoRelatorio.de(request.getFormato());
+        List<Long> ids = relatorioZipService.resolverIds(request);
+
+        StreamingResponseBody corpo = saida -> relatorioZipService.escrever(ids, formato, request.getNivel(), saida);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"relatorios_calculos.zip\"")
+            .body(corpo);
+    }
+
+    @GetMapping("/relatorios/cache")
+    @Operation(summary = "Estatísticas do cache de relatórios (acertos, falhas e espaço em disco)")
+    public ResponseEntity<RelatorioCache.Estatisticas> estatisticasCacheRelatorios() {
+        return ResponseEntity.ok(relatorioCache.estatisticas());
+    }
 
+    private ResponseEntity.BodyBuilder resposta(FormatoRelatorio formato, String nomeArquivo) {
         return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(contentType))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-            .body(conteudo);
+            .contentType(MediaType.parseMediaType(formato.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + nomeArquivo + "." + formato.getExtensao() + "\"");
     }
 }
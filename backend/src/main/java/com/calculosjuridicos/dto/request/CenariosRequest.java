@@ -0,0 +1,38 @@
+package com.calculosjuridicos.dto.request;
+
+import com.calculosjuridicos.entity.TipoJuros;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Grade de cenários sobre um cálculo base: cada combinação de data final, taxa e tipo de
+ * juros é um cenário. Listas vazias ou ausentes mantêm o valor do cálculo base.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CenariosRequest {
+
+    @Valid
+    @NotNull(message = "Cálculo base é obrigatório")
+    private CalculoRequest calculo;
+
+    private List<@NotNull(message = "Data final do cenário é obrigatória") LocalDate> datasFinais;
+
+    private List<@NotNull(message = "Taxa de juros do cenário é obrigatória")
+        @DecimalMin(value = "0", message = "Taxa de juros não pode ser negativa")
+        @DecimalMax(value = "100", message = "Taxa de juros não pode ser maior que 100%") BigDecimal> taxasJuros;
+
+    private List<@NotNull(message = "Tipo de juros do cenário é obrigatório") TipoJuros> tiposJuros;
+}
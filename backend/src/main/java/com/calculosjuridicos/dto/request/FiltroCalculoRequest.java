@@ -0,0 +1,37 @@
+package com.calculosjuridicos.dto.request;
+
+import com.calculosjuridicos.entity.StatusCalculo;
+import com.calculosjuridicos.entity.TipoCalculo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros da listagem de cálculos; campos nulos não filtram.
+ * O período ({@code de}/{@code ate}, inclusivos) refere-se à data de criação.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroCalculoRequest {
+
+    private StatusCalculo status;
+
+    private TipoCalculo tipoCalculo;
+
+    /**
+     * Prefixo do título.
+     */
+    private String titulo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate de;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate ate;
+}
@@ -0,0 +1,32 @@
+package com.calculosjuridicos.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Exportação em lote de relatórios: os cálculos são indicados pelos ids ou, na ausência
+ * deles, pelo filtro da listagem.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioZipRequest {
+
+    private List<@NotNull(message = "Id do cálculo é obrigatório") Long> ids;
+
+    @Valid
+    private FiltroCalculoRequest filtro;
+
+    @Builder.Default
+    private String formato = "pdf";
+
+    @Builder.Default
+    private String nivel = "completo";
+}
@@ -0,0 +1,41 @@
+package com.calculosjuridicos.dto.response;
+
+import com.calculosjuridicos.entity.StatusCalculo;
+import com.calculosjuridicos.entity.TipoCalculo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumo de um cálculo para listagens: sem parcelas nem detalhamento.
+ *
+ * Preenchido diretamente pela consulta de {@code CalculoRepository.findResumos}; a ordem
+ * dos campos corresponde à do construtor usado na consulta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalculoResumoResponse {
+
+    private Long id;
+    private String titulo;
+    private TipoCalculo tipoCalculo;
+    private BigDecimal valorPrincipal;
+    private LocalDate dataInicial;
+    private LocalDate dataFinal;
+    private Long tabelaIndiceId;
+    private String tabelaIndiceNome;
+    private StatusCalculo status;
+    private LocalDateTime dataCriacao;
+    private LocalDateTime dataAtualizacao;
+    private BigDecimal valorCorrigido;
+    private BigDecimal valorJuros;
+    private BigDecimal valorTotal;
+    private LocalDateTime dataCalculo;
+}
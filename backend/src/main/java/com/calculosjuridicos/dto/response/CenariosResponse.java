@@ -0,0 +1,40 @@
+package com.calculosjuridicos.dto.response;
+
+import com.calculosjuridicos.entity.TipoJuros;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Totais de cada cenário da grade, na ordem data final → tipo de juros → taxa de juros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CenariosResponse {
+
+    private BigDecimal valorOriginal;
+    private List<CenarioResponse> cenarios;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CenarioResponse {
+        private LocalDate dataFinal;
+        private BigDecimal taxaJuros;
+        private TipoJuros tipoJuros;
+        private BigDecimal valorCorrigido;
+        private BigDecimal valorJuros;
+        private BigDecimal valorMulta;
+        private BigDecimal valorHonorarios;
+        private BigDecimal valorTotal;
+        private BigDecimal fatorCorrecao;
+    }
+}
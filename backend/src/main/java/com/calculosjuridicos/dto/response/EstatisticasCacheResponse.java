@@ -0,0 +1,40 @@
+package com.calculosjuridicos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Estatísticas do cache de segundo nível e do cache de consultas do Hibernate,
+ * acumuladas desde a inicialização.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasCacheResponse {
+
+    private boolean estatisticasHabilitadas;
+    private long acertos;
+    private long falhas;
+    private long inclusoes;
+    private long consultasAcertos;
+    private long consultasFalhas;
+    private long consultasInclusoes;
+    private List<RegiaoCache> regioes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegiaoCache {
+        private String nome;
+        private Long acertos;
+        private Long falhas;
+        private Long inclusoes;
+        private Long elementosEmMemoria;
+    }
+}
@@ -0,0 +1,36 @@
+package com.calculosjuridicos.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Uma linha da resposta NDJSON do preview em lote: o resultado ou o erro de um item,
+ * identificado pela sua posição (a partir de 0) na entrada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemLoteResponse {
+
+    private int indice;
+    private ResultadoCalculoResponse resultado;
+    private ErroItem erro;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ErroItem {
+        private int status;
+        private String message;
+        private Map<String, String> validationErrors;
+    }
+}
@@ -0,0 +1,23 @@
+package com.calculosjuridicos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor. {@code proximoCursor} é enviado como {@code after}
+ * para obter a página seguinte e é nulo na última página.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorResponse<T> {
+
+    private List<T> itens;
+    private String proximoCursor;
+    private boolean temMais;
+}
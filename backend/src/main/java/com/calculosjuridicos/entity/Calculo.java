@@ -11,7 +11,10 @@ import java.util.List;
 
 @Entity
 @Table(name = "calculo", indexes = {
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_calculo_criacao", columnList = "data_criacao, id"),
+    @Index(name = "idx_calculo_status_criacao", columnList = "status, data_criacao, id"),
+    @Index(name = "idx_calculo_tipo_criacao", columnList = "tipo_calculo, data_criacao, id"),
+    @Index(name = "idx_calculo_titulo", columnList = "titulo")
 })
 @Getter
 @Setter
@@ -23,6 +23,10 @@ public class ResultadoCalculo {
     @JoinColumn(name = "calculo_id", nullable = false, unique = true)
     private Calculo calculo;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer versao = 1;
+
     @Column(name = "valor_corrigido", nullable = false, precision = 18, scale = 2)
     private BigDecimal valorCorrigido;
 
@@ -44,4 +48,7 @@ public class ResultadoCalculo {
 
     @Column(name = "detalhamento_json", columnDefinition = "LONGTEXT")
     private String detalhamentoJson;
+
+    @Column(name = "detalhamento_compacto", columnDefinition = "MEDIUMBLOB")
+    private byte[] detalhamentoCompacto;
 }
@@ -0,0 +1,54 @@
+package com.calculosjuridicos.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Versão anterior de um resultado, arquivada quando o cálculo é executado novamente.
+ * Gravada apenas por {@code ResultadoCalculoRepository.arquivarVersao}; o detalhamento
+ * arquivado não é mapeado.
+ */
+@Entity
+@Immutable
+@Table(name = "resultado_calculo_historico")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoCalculoHistorico {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "calculo_id", nullable = false)
+    private Long calculoId;
+
+    @Column(nullable = false)
+    private Integer versao;
+
+    @Column(name = "valor_corrigido", nullable = false, precision = 18, scale = 2)
+    private BigDecimal valorCorrigido;
+
+    @Column(name = "valor_juros", nullable = false, precision = 18, scale = 2)
+    private BigDecimal valorJuros;
+
+    @Column(name = "valor_multa", nullable = false, precision = 18, scale = 2)
+    private BigDecimal valorMulta;
+
+    @Column(name = "valor_honorarios", nullable = false, precision = 18, scale = 2)
+    private BigDecimal valorHonorarios;
+
+    @Column(name = "valor_total", nullable = false, precision = 18, scale = 2)
+    private BigDecimal valorTotal;
+
+    @Column(name = "data_calculo")
+    private LocalDateTime dataCalculo;
+
+    @Column(name = "data_arquivamento", nullable = false)
+    private LocalDateTime dataArquivamento;
+}
@@ -2,12 +2,16 @@ package com.calculosjuridicos.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "tabela_indice")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TabelaIndice.REGIAO_CACHE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -48,4 +52,7 @@ public class TabelaIndice {
     public static final String IGPM = "IGPM";
     public static final String TR = "TR";
     public static final String SELIC = "SELIC";
+
+    public static final String REGIAO_CACHE = "tabela-indice";
+    public static final String REGIAO_CACHE_CONSULTAS = "tabela-indice-consultas";
 }
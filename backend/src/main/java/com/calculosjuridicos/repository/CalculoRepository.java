@@ -1,17 +1,40 @@
 package com.calculosjuridicos.repository;
 
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
 import com.calculosjuridicos.entity.Calculo;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CalculoRepository extends JpaRepository<Calculo, Long> {
+public interface CalculoRepository extends JpaRepository<Calculo, Long>, CalculoRepositoryCustom {
 
     @Query("SELECT c FROM Calculo c ORDER BY c.dataCriacao DESC")
     List<Calculo> findRecent(Pageable pageable);
+
+    /**
+     * Carrega o cálculo bloqueando a linha (SELECT ... FOR UPDATE) até o fim da transação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Calculo c WHERE c.id = :id")
+    Optional<Calculo> findByIdParaAtualizacao(@Param("id") Long id);
+
+    /**
+     * Página de resumos em uma única consulta, sem carregar parcelas nem o detalhamento.
+     */
+    @Query(value = "SELECT new com.calculosjuridicos.dto.response.CalculoResumoResponse(" +
+            "c.id, c.titulo, c.tipoCalculo, c.valorPrincipal, c.dataInicial, c.dataFinal, " +
+            "t.id, t.nome, c.status, c.dataCriacao, c.dataAtualizacao, " +
+            "r.valorCorrigido, r.valorJuros, r.valorTotal, r.dataCalculo) " +
+            "FROM Calculo c LEFT JOIN c.tabelaIndice t LEFT JOIN c.resultado r",
+        countQuery = "SELECT COUNT(c) FROM Calculo c")
+    Page<CalculoResumoResponse> findResumos(Pageable pageable);
 }
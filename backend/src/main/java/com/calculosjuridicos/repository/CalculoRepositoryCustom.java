@@ -0,0 +1,20 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.dto.request.FiltroCalculoRequest;
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CalculoRepositoryCustom {
+
+    /**
+     * Resumos ordenados por data de criação e ID, ambos decrescentes, a partir da posição
+     * informada (exclusiva; nula para a primeira página), aplicando apenas os filtros
+     * preenchidos.
+     */
+    List<CalculoResumoResponse> buscarResumos(FiltroCalculoRequest filtro,
+                                              LocalDateTime aposDataCriacao,
+                                              Long aposId,
+                                              int limite);
+}
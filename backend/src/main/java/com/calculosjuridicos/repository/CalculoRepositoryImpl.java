@@ -0,0 +1,85 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.dto.request.FiltroCalculoRequest;
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+import com.calculosjuridicos.entity.Calculo;
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.calculosjuridicos.entity.TabelaIndice;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consulta por keyset: apenas os filtros informados entram no WHERE, de modo que cada
+ * combinação usa o índice composto correspondente (V9) e o custo de uma página não depende
+ * da sua posição na listagem.
+ */
+class CalculoRepositoryImpl implements CalculoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CalculoResumoResponse> buscarResumos(FiltroCalculoRequest filtro,
+                                                     LocalDateTime aposDataCriacao,
+                                                     Long aposId,
+                                                     int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CalculoResumoResponse> query = cb.createQuery(CalculoResumoResponse.class);
+        Root<Calculo> c = query.from(Calculo.class);
+        Join<Calculo, TabelaIndice> t = c.join("tabelaIndice", JoinType.LEFT);
+        Join<Calculo, ResultadoCalculo> r = c.join("resultado", JoinType.LEFT);
+
+        query.select(cb.construct(CalculoResumoResponse.class,
+            c.get("id"), c.get("titulo"), c.get("tipoCalculo"), c.get("valorPrincipal"),
+            c.get("dataInicial"), c.get("dataFinal"),
+            t.get("id"), t.get("nome"), c.get("status"), c.get("dataCriacao"), c.get("dataAtualizacao"),
+            r.get("valorCorrigido"), r.get("valorJuros"), r.get("valorTotal"), r.get("dataCalculo")));
+
+        Path<LocalDateTime> dataCriacao = c.get("dataCriacao");
+        Path<Long> id = c.get("id");
+
+        List<Predicate> predicados = new ArrayList<>();
+        if (filtro.getStatus() != null) {
+            predicados.add(cb.equal(c.get("status"), filtro.getStatus()));
+        }
+        if (filtro.getTipoCalculo() != null) {
+            predicados.add(cb.equal(c.get("tipoCalculo"), filtro.getTipoCalculo()));
+        }
+        if (filtro.getTitulo() != null && !filtro.getTitulo().isBlank()) {
+            predicados.add(cb.like(c.get("titulo"), escaparLike(filtro.getTitulo().trim()) + "%", '\\'));
+        }
+        if (filtro.getDe() != null) {
+            predicados.add(cb.greaterThanOrEqualTo(dataCriacao, filtro.getDe().atStartOfDay()));
+        }
+        if (filtro.getAte() != null) {
+            predicados.add(cb.lessThan(dataCriacao, filtro.getAte().plusDays(1).atStartOfDay()));
+        }
+        if (aposDataCriacao != null && aposId != null) {
+            predicados.add(cb.or(
+                cb.lessThan(dataCriacao, aposDataCriacao),
+                cb.and(cb.equal(dataCriacao, aposDataCriacao), cb.lessThan(id, aposId))));
+        }
+
+        query.where(predicados.toArray(Predicate[]::new))
+            .orderBy(cb.desc(dataCriacao), cb.desc(id));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limite)
+            .getResultList();
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,13 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.entity.ResultadoCalculoHistorico;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ResultadoCalculoHistoricoRepository extends JpaRepository<ResultadoCalculoHistorico, Long> {
+
+    List<ResultadoCalculoHistorico> findByCalculoIdOrderByVersaoDesc(Long calculoId);
+}
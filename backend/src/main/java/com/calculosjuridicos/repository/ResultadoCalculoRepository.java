@@ -1,9 +1,14 @@
 package com.calculosjuridicos.repository;
 
 import com.calculosjuridicos.entity.ResultadoCalculo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +16,33 @@ public interface ResultadoCalculoRepository extends JpaRepository<ResultadoCalcu
 
     Optional<ResultadoCalculo> findByCalculoId(Long calculoId);
 
+    @Query("SELECT r.versao FROM ResultadoCalculo r WHERE r.calculo.id = :calculoId")
+    Optional<Integer> findVersaoByCalculoId(@Param("calculoId") Long calculoId);
+
     void deleteByCalculoId(Long calculoId);
+
+    /**
+     * Copia a versão atual do resultado para o histórico, sem trazer os dados para a aplicação.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO resultado_calculo_historico (calculo_id, versao, valor_corrigido, valor_juros, " +
+                   "valor_multa, valor_honorarios, valor_total, data_calculo, detalhamento_json, detalhamento_compacto) " +
+                   "SELECT calculo_id, versao, valor_corrigido, valor_juros, valor_multa, valor_honorarios, " +
+                   "valor_total, data_calculo, detalhamento_json, detalhamento_compacto " +
+                   "FROM resultado_calculo WHERE id = :id", nativeQuery = true)
+    int arquivarVersao(@Param("id") Long resultadoId);
+
+    /**
+     * Troca o detalhamento JSON legado pelo compacto somente se o resultado ainda estiver na
+     * versão lida e em JSON, para não sobrescrever uma execução concorrente do cálculo.
+     */
+    @Modifying
+    @Query("UPDATE ResultadoCalculo r SET r.detalhamentoCompacto = :compacto, r.detalhamentoJson = NULL " +
+           "WHERE r.id = :id AND r.versao = :versao AND r.detalhamentoJson IS NOT NULL")
+    int converterDetalhamentoLegado(@Param("id") Long resultadoId, @Param("versao") Integer versao,
+                                    @Param("compacto") byte[] detalhamentoCompacto);
+
+    @Query("SELECT r.id FROM ResultadoCalculo r WHERE r.detalhamentoJson IS NOT NULL " +
+           "AND r.detalhamentoCompacto IS NULL AND r.id > :aPartirDe ORDER BY r.id")
+    List<Long> findIdsComDetalhamentoLegado(@Param("aPartirDe") Long aPartirDe, Pageable pageable);
 }
@@ -1,15 +1,40 @@
 package com.calculosjuridicos.repository;
 
 import com.calculosjuridicos.entity.TabelaIndice;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface TabelaIndiceRepository extends JpaRepository<TabelaIndice, Long> {
 
+    @Override
+    @QueryHints({
+        @QueryHint(name = HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HINT_CACHE_REGION, value = TabelaIndice.REGIAO_CACHE_CONSULTAS)
+    })
+    List<TabelaIndice> findAll();
+
     Optional<TabelaIndice> findByNome(String nome);
 
     boolean existsByNome(String nome);
+
+    /**
+     * Carrega a tabela bloqueando a linha (SELECT ... FOR UPDATE) até o fim da transação.
+     * Serializa as gravações de valores de uma mesma série, inclusive entre instâncias.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TabelaIndice t WHERE t.id = :id")
+    Optional<TabelaIndice> findByIdParaAtualizacao(@Param("id") Long id);
 }
@@ -2,6 +2,7 @@ package com.calculosjuridicos.repository;
 
 import com.calculosjuridicos.entity.ValorIndice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,8 +12,12 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ValorIndiceRepository extends JpaRepository<ValorIndice, Long> {
+public interface ValorIndiceRepository extends JpaRepository<ValorIndice, Long>, ValorIndiceRepositoryCustom {
 
+    /**
+     * Lê a série do período ordenada por competência. A série completa fica em memória no
+     * {@code IndiceSeriesStore}, que a recarrega quando os valores são gravados.
+     */
     @Query("SELECT v FROM ValorIndice v WHERE v.tabelaIndice.id = :tabelaIndiceId " +
            "AND v.competencia >= :dataInicial AND v.competencia <= :dataFinal " +
            "ORDER BY v.competencia ASC")
@@ -37,7 +42,22 @@ public interface ValorIndiceRepository extends JpaRepository<ValorIndice, Long>
     @Query("SELECT MIN(v.competencia) FROM ValorIndice v WHERE v.tabelaIndice.id = :tabelaIndiceId")
     Optional<LocalDate> findMinCompetenciaByTabelaIndiceId(@Param("tabelaIndiceId") Long tabelaIndiceId);
 
+    @Query("SELECT v.competencia FROM ValorIndice v WHERE v.tabelaIndice.id = :tabelaIndiceId " +
+           "AND v.competencia >= :dataInicial AND v.competencia <= :dataFinal")
+    List<LocalDate> findCompetenciasByTabelaIndiceIdAndPeriodo(
+        @Param("tabelaIndiceId") Long tabelaIndiceId,
+        @Param("dataInicial") LocalDate dataInicial,
+        @Param("dataFinal") LocalDate dataFinal
+    );
+
     long countByTabelaIndiceId(Long tabelaIndiceId);
 
-    void deleteByTabelaIndiceIdAndCompetenciaBetween(Long tabelaIndiceId, LocalDate inicio, LocalDate fim);
+    @Modifying
+    @Query("DELETE FROM ValorIndice v WHERE v.tabelaIndice.id = :tabelaIndiceId " +
+           "AND v.competencia >= :inicio AND v.competencia <= :fim")
+    int deleteByTabelaIndiceIdAndCompetenciaBetween(
+        @Param("tabelaIndiceId") Long tabelaIndiceId,
+        @Param("inicio") LocalDate inicio,
+        @Param("fim") LocalDate fim
+    );
 }
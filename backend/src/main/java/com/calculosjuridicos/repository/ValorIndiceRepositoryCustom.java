@@ -0,0 +1,39 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.entity.ValorIndice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ValorIndiceRepositoryCustom {
+
+    /**
+     * Insere ou atualiza os valores da tabela por competência com INSERTs de várias linhas
+     * ({@code ON DUPLICATE KEY UPDATE}), em lotes de tamanho configurável.
+     *
+     * Grava diretamente via JDBC: as alterações pendentes da sessão são descarregadas antes,
+     * mas entidades {@link ValorIndice} já carregadas não são atualizadas, e as séries em
+     * memória devem ser recarregadas pelo chamador (via {@code IndicesAtualizadosEvent}).
+     */
+    void gravarEmLote(Long tabelaIndiceId, Map<LocalDate, BigDecimal> valoresPorCompetencia,
+                      ValorIndice.FonteValor fonte);
+
+    /**
+     * Substitui o conteúdo da área de preparação da tabela pelos valores informados.
+     */
+    void prepararReconstrucao(Long tabelaIndiceId, Map<LocalDate, BigDecimal> valoresPorCompetencia,
+                              ValorIndice.FonteValor fonte);
+
+    /**
+     * Troca todos os valores da tabela pelos da área de preparação, que é esvaziada. Deve
+     * ser chamado em uma transação própria para que a troca seja atômica e curta.
+     *
+     * @param esperados quantidade de valores preparados para a tabela
+     * @return quantidade de valores promovidos
+     * @throws org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException se a
+     *         área de preparação não tiver exatamente {@code esperados} valores da tabela; a
+     *         transação deve ser desfeita para manter a série atual
+     */
+    int promoverReconstrucao(Long tabelaIndiceId, int esperados);
+}
@@ -0,0 +1,155 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.entity.ValorIndice;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gravação em lote dos valores de índices. A chave IDENTITY de {@link ValorIndice} impede o
+ * batching do Hibernate, então cada lote vira um único INSERT de várias linhas sobre a chave
+ * única (tabela, competência). Reconstruções completas passam pela área de preparação
+ * {@code valor_indice_reconstrucao} (V11).
+ *
+ * No MySQL 8.0.19+ o upsert referencia a linha nova pelo alias {@code novo}; a forma
+ * {@code VALUES(coluna)}, obsoleta a partir do 8.0.20, fica para os demais bancos
+ * (versões anteriores do MySQL, MariaDB e o H2 dos testes).
+ */
+class ValorIndiceRepositoryImpl implements ValorIndiceRepositoryCustom {
+
+    private static final String INSERT =
+        "INSERT INTO valor_indice (tabela_indice_id, competencia, valor, fonte) VALUES ";
+    private static final String INSERT_RECONSTRUCAO =
+        "INSERT INTO valor_indice_reconstrucao (tabela_indice_id, competencia, valor, fonte) VALUES ";
+    private static final String LINHA = "(?, ?, ?, ?)";
+    private static final String ATUALIZACAO =
+        " AS novo ON DUPLICATE KEY UPDATE valor = novo.valor, fonte = novo.fonte";
+    private static final String ATUALIZACAO_LEGADA =
+        " ON DUPLICATE KEY UPDATE valor = VALUES(valor), fonte = VALUES(fonte)";
+    private static final String PROMOVER_RECONSTRUCAO =
+        "INSERT INTO valor_indice (tabela_indice_id, competencia, valor, fonte) " +
+        "SELECT tabela_indice_id, competencia, valor, fonte FROM valor_indice_reconstrucao " +
+        "WHERE tabela_indice_id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLote;
+    private volatile String atualizacao;
+
+    ValorIndiceRepositoryImpl(JdbcTemplate jdbcTemplate,
+                              @Value("${indices.sync.tamanho-lote:500}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+    }
+
+    @Override
+    public void gravarEmLote(Long tabelaIndiceId, Map<LocalDate, BigDecimal> valoresPorCompetencia,
+                             ValorIndice.FonteValor fonte) {
+        if (valoresPorCompetencia.isEmpty()) {
+            return;
+        }
+        // Exclusões e alterações pendentes precisam chegar ao banco antes dos INSERTs
+        entityManager.flush();
+        inserirEmLotes(INSERT, atualizacao(), tabelaIndiceId, valoresPorCompetencia, fonte);
+    }
+
+    @Override
+    public void prepararReconstrucao(Long tabelaIndiceId, Map<LocalDate, BigDecimal> valoresPorCompetencia,
+                                     ValorIndice.FonteValor fonte) {
+        jdbcTemplate.update("DELETE FROM valor_indice_reconstrucao WHERE tabela_indice_id = ?", tabelaIndiceId);
+        inserirEmLotes(INSERT_RECONSTRUCAO, "", tabelaIndiceId, valoresPorCompetencia, fonte);
+    }
+
+    @Override
+    public int promoverReconstrucao(Long tabelaIndiceId, int esperados) {
+        entityManager.flush();
+        jdbcTemplate.update("DELETE FROM valor_indice WHERE tabela_indice_id = ?", tabelaIndiceId);
+        int promovidos = jdbcTemplate.update(PROMOVER_RECONSTRUCAO, tabelaIndiceId);
+        if (promovidos == 0 || promovidos != esperados) {
+            // Área de preparação esvaziada ou substituída por outra reconstrução
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(PROMOVER_RECONSTRUCAO, esperados, promovidos);
+        }
+        jdbcTemplate.update("DELETE FROM valor_indice_reconstrucao WHERE tabela_indice_id = ?", tabelaIndiceId);
+        return promovidos;
+    }
+
+    /**
+     * Cláusula de upsert conforme o banco, verificada na primeira gravação.
+     */
+    private String atualizacao() {
+        String sufixo = atualizacao;
+        if (sufixo == null) {
+            Boolean alias = jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) conexao -> suportaAliasDeLinha(conexao.getMetaData()));
+            sufixo = Boolean.TRUE.equals(alias) ? ATUALIZACAO : ATUALIZACAO_LEGADA;
+            atualizacao = sufixo;
+        }
+        return sufixo;
+    }
+
+    static boolean suportaAliasDeLinha(DatabaseMetaData metaData) throws SQLException {
+        if (!"MySQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+            return false;
+        }
+        // A versão do produto traz o patch (8.0.35); MariaDB se apresenta como 5.5.5-10.x
+        String[] partes = metaData.getDatabaseProductVersion().split("[^0-9]", 4);
+        if (partes.length < 3) {
+            return false;
+        }
+        try {
+            int maior = Integer.parseInt(partes[0]);
+            int menor = Integer.parseInt(partes[1]);
+            int patch = Integer.parseInt(partes[2]);
+            return maior > 8 || (maior == 8 && (menor > 0 || patch >= 19));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void inserirEmLotes(String insert, String sufixo, Long tabelaIndiceId,
+                                Map<LocalDate, BigDecimal> valoresPorCompetencia, ValorIndice.FonteValor fonte) {
+        List<Object> parametros = new ArrayList<>(Math.min(valoresPorCompetencia.size(), tamanhoLote) * 4);
+        int linhas = 0;
+        for (Map.Entry<LocalDate, BigDecimal> entry : valoresPorCompetencia.entrySet()) {
+            parametros.add(tabelaIndiceId);
+            parametros.add(Date.valueOf(entry.getKey()));
+            parametros.add(entry.getValue());
+            parametros.add(fonte.name());
+            if (++linhas == tamanhoLote) {
+                executar(insert, sufixo, linhas, parametros);
+                parametros.clear();
+                linhas = 0;
+            }
+        }
+        if (linhas > 0) {
+            executar(insert, sufixo, linhas, parametros);
+        }
+    }
+
+    private void executar(String insert, String sufixo, int linhas, List<Object> parametros) {
+        StringBuilder sql = new StringBuilder(insert.length() + linhas * (LINHA.length() + 2) + sufixo.length());
+        sql.append(insert);
+        for (int i = 0; i < linhas; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(LINHA);
+        }
+        sql.append(sufixo);
+        jdbcTemplate.update(sql.toString(), parametros.toArray());
+    }
+}
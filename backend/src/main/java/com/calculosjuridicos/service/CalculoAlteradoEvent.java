@@ -0,0 +1,7 @@
+package com.calculosjuridicos.service;
+
+/**
+ * Publicado quando o resultado de um cálculo é substituído (nova execução) ou quando o
+ * cálculo é excluído.
+ */
+public record CalculoAlteradoEvent(Long calculoId) {}
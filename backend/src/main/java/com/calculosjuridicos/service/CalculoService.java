@@ -1,18 +1,25 @@
 package com.calculosjuridicos.service;
 
 import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.request.CenariosRequest;
+import com.calculosjuridicos.dto.request.FiltroCalculoRequest;
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+import com.calculosjuridicos.dto.response.CenariosResponse;
+import com.calculosjuridicos.dto.response.PaginaCursorResponse;
 import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
 import com.calculosjuridicos.dto.response.ResultadoCalculoResponse.*;
 import com.calculosjuridicos.entity.*;
 import com.calculosjuridicos.exception.BusinessException;
 import com.calculosjuridicos.exception.ResourceNotFoundException;
 import com.calculosjuridicos.repository.CalculoRepository;
+import com.calculosjuridicos.repository.ResultadoCalculoHistoricoRepository;
 import com.calculosjuridicos.repository.ResultadoCalculoRepository;
 import com.calculosjuridicos.repository.TabelaIndiceRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +32,14 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 @Slf4j
 @Service
@@ -37,20 +49,170 @@ public class CalculoService {
     private final CalculoRepository calculoRepository;
     private final TabelaIndiceRepository tabelaIndiceRepository;
     private final ResultadoCalculoRepository resultadoCalculoRepository;
+    private final ResultadoCalculoHistoricoRepository resultadoCalculoHistoricoRepository;
     private final CorrecaoMonetariaService correcaoService;
+    private final IndiceSeriesStore indiceSeriesStore;
     private final JurosService jurosService;
     private final FazendaPublicaCalculoService fazendaPublicaService;
-    private final ObjectMapper objectMapper;
+    private final TabelaIndiceRegistry tabelaIndiceRegistry;
+    private final ResultadoPreviewCache resultadoPreviewCache;
+    private final DetalhamentoService detalhamentoService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${calculo.paralelo.habilitado:false}")
+    private boolean paraleloHabilitado;
+
+    @Value("${calculo.paralelo.limite-parcelas:1000}")
+    private int paraleloLimiteParcelas;
+
+    @Value("${calculo.paralelo.tamanho-lote:250}")
+    private int paraleloTamanhoLote;
+
+    @Value("${calculo.paralelo.threads:0}")
+    private int paraleloThreads;
+
+    @Value("${calculo.cenarios.max-cenarios:500}")
+    private int maxCenarios;
+
+    private volatile ForkJoinPool poolParcelas;
 
     private static final BigDecimal CEM = new BigDecimal("100");
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
     private static final DateTimeFormatter COMPETENCIA_FORMAT = DateTimeFormatter.ofPattern("MM - yyyy");
 
     /**
      * Executa um preview do cálculo sem persistir.
+     *
+     * Requisições equivalentes são atendidas pelo {@link ResultadoPreviewCache} enquanto
+     * os dados de índices não mudarem.
      */
     public ResultadoCalculoResponse preview(CalculoRequest request) {
         validarRequest(request);
 
+        return resultadoPreviewCache.obter(request, () -> calcularSemCache(request));
+    }
+
+    /**
+     * Executa um preview do cálculo sem persistir e sem passar pelo cache de preview.
+     */
+    public ResultadoCalculoResponse previewSemCache(CalculoRequest request) {
+        validarRequest(request);
+
+        return calcularSemCache(request);
+    }
+
+    /**
+     * Calcula os totais de cada cenário da grade (datas finais × tipos × taxas de juros).
+     *
+     * Os índices de todas as parcelas e datas finais são resolvidos em uma única passada por
+     * série, e a correção de cada parcela é feita uma vez por data final; cada cenário apenas
+     * recalcula juros e encargos. Os totais são idênticos aos de {@link #preview} para o
+     * cálculo base com a data final, a taxa e o tipo de juros do cenário.
+     *
+     * No cálculo da Fazenda Pública os juros decorrem do regime legal, então apenas a data
+     * final pode variar. O memorial mensal do preview é percorrido uma única vez, até a maior
+     * data final, e cada cenário usa os totais da competência da sua data.
+     */
+    public CenariosResponse calcularCenarios(CenariosRequest cenariosRequest) {
+        CalculoRequest base = cenariosRequest.getCalculo();
+        List<LocalDate> datasFinais = valoresOuPadrao(cenariosRequest.getDatasFinais(), base.getDataFinal());
+        List<BigDecimal> taxasJuros = valoresOuPadrao(cenariosRequest.getTaxasJuros(), base.getTaxaJuros());
+        List<TipoJuros> tiposJuros = valoresOuPadrao(cenariosRequest.getTiposJuros(), base.getTipoJuros());
+
+        long totalCenarios = (long) datasFinais.size() * taxasJuros.size() * tiposJuros.size();
+        if (totalCenarios > maxCenarios) {
+            throw new BusinessException("A grade possui " + totalCenarios + " cenários; o máximo permitido é " + maxCenarios);
+        }
+
+        List<CalculoRequest> requests = new ArrayList<>(datasFinais.size());
+        for (LocalDate dataFinal : datasFinais) {
+            CalculoRequest request = base.toBuilder().dataFinal(dataFinal).build();
+            validarRequest(request);
+            requests.add(request);
+        }
+
+        List<CenariosResponse.CenarioResponse> cenarios = new ArrayList<>((int) totalCenarios);
+
+        if (base.getTipoCalculo() == TipoCalculo.FAZENDA_PUBLICA) {
+            if (taxasJuros.size() > 1 || tiposJuros.size() > 1
+                    || !Objects.equals(taxasJuros.get(0), base.getTaxaJuros())
+                    || tiposJuros.get(0) != base.getTipoJuros()) {
+                throw new BusinessException("No cálculo da Fazenda Pública os juros seguem o regime legal; apenas a data final pode variar");
+            }
+            List<ResultadoCalculoResponse> resultados = indiceSeriesStore.executarComSnapshot(
+                indiceSeriesStore.novoSnapshot(), () -> fazendaPublicaService.calcularPorDatasFinais(base, datasFinais));
+            for (int i = 0; i < datasFinais.size(); i++) {
+                ResultadoCalculoResponse resultado = resultados.get(i);
+                cenarios.add(CenariosResponse.CenarioResponse.builder()
+                    .dataFinal(datasFinais.get(i))
+                    .valorCorrigido(resultado.getValorCorrigido())
+                    .valorJuros(resultado.getValorJuros())
+                    .valorMulta(resultado.getValorMulta())
+                    .valorHonorarios(resultado.getValorHonorarios())
+                    .valorTotal(resultado.getValorTotal())
+                    .fatorCorrecao(resultado.getFatorCorrecao())
+                    .build());
+            }
+            return CenariosResponse.builder()
+                .valorOriginal(base.getValorPrincipal())
+                .cenarios(cenarios)
+                .build();
+        }
+
+        List<CalculoRequest.ParcelaRequest> parcelas = parcelasOuPrincipal(base);
+        Map<Long, Map<LocalDate, CorrecaoMonetariaService.LoteCorrecao>> lotesPorIndice =
+            prepararLotesCenarios(base, parcelas, datasFinais);
+
+        BigDecimal[] valoresCorrigidos = new BigDecimal[parcelas.size()];
+        for (CalculoRequest request : requests) {
+            BigDecimal totalCorrigido = BigDecimal.ZERO;
+            for (int i = 0; i < parcelas.size(); i++) {
+                CalculoRequest.ParcelaRequest parcela = parcelas.get(i);
+                Long effectiveIndiceId = parcela.getTabelaIndiceId() != null
+                    ? parcela.getTabelaIndiceId()
+                    : base.getTabelaIndiceId();
+                valoresCorrigidos[i] = effectiveIndiceId != null
+                    ? lotesPorIndice.get(effectiveIndiceId).get(request.getDataFinal())
+                        .corrigir(parcela.getValorOriginal(), parcela.getDataVencimento())
+                    : parcela.getValorOriginal();
+                totalCorrigido = totalCorrigido.add(valoresCorrigidos[i]);
+            }
+            BigDecimal fatorCorrecaoGeral = calcularFatorGeral(request, totalCorrigido);
+
+            for (TipoJuros tipoJuros : tiposJuros) {
+                for (BigDecimal taxaJuros : taxasJuros) {
+                    BigDecimal totalJuros = BigDecimal.ZERO;
+                    for (int i = 0; i < parcelas.size(); i++) {
+                        totalJuros = totalJuros.add(
+                            calcularJurosParcela(request, taxaJuros, tipoJuros, parcelas.get(i), valoresCorrigidos[i]));
+                    }
+                    Encargos encargos = calcularEncargos(request, totalCorrigido.add(totalJuros));
+                    cenarios.add(CenariosResponse.CenarioResponse.builder()
+                        .dataFinal(request.getDataFinal())
+                        .taxaJuros(taxaJuros)
+                        .tipoJuros(tipoJuros)
+                        .valorCorrigido(totalCorrigido)
+                        .valorJuros(totalJuros)
+                        .valorMulta(encargos.multa())
+                        .valorHonorarios(encargos.honorarios())
+                        .valorTotal(encargos.total())
+                        .fatorCorrecao(fatorCorrecaoGeral)
+                        .build());
+                }
+            }
+        }
+
+        return CenariosResponse.builder()
+            .valorOriginal(base.getValorPrincipal())
+            .cenarios(cenarios)
+            .build();
+    }
+
+    private static <T> List<T> valoresOuPadrao(List<T> valores, T padrao) {
+        return valores == null || valores.isEmpty() ? Collections.singletonList(padrao) : valores;
+    }
+
+    private ResultadoCalculoResponse calcularSemCache(CalculoRequest request) {
         if (request.getTipoCalculo() == TipoCalculo.FAZENDA_PUBLICA) {
             return fazendaPublicaService.calcular(request);
         }
@@ -111,10 +273,13 @@ public class CalculoService {
 
     /**
      * Executa o cálculo e persiste o resultado.
+     *
+     * O cálculo é bloqueado até o commit: execuções simultâneas do mesmo cálculo são
+     * serializadas, e cada uma arquiva a versão gravada pela anterior.
      */
     @Transactional
     public ResultadoCalculoResponse executar(Long calculoId) {
-        Calculo calculo = calculoRepository.findById(calculoId)
+        Calculo calculo = calculoRepository.findByIdParaAtualizacao(calculoId)
             .orElseThrow(() -> new ResourceNotFoundException("Calculo", "id", calculoId));
 
         CalculoRequest request = toRequest(calculo);
@@ -127,32 +292,43 @@ public class CalculoService {
         }
         response.setCalculoId(calculoId);
 
-        ResultadoCalculo resultado = ResultadoCalculo.builder()
-            .calculo(calculo)
-            .valorCorrigido(response.getValorCorrigido())
-            .valorJuros(response.getValorJuros())
-            .valorMulta(response.getValorMulta())
-            .valorHonorarios(response.getValorHonorarios())
-            .valorTotal(response.getValorTotal())
-            .build();
-
-        try {
-            resultado.setDetalhamentoJson(objectMapper.writeValueAsString(response.getDetalhamento()));
-        } catch (JsonProcessingException e) {
-            log.warn("Erro ao serializar detalhamento: {}", e.getMessage());
+        // O resultado atual é atualizado no lugar; a versão anterior vai para o histórico
+        ResultadoCalculo resultado = calculo.getResultado();
+        if (resultado == null) {
+            resultado = ResultadoCalculo.builder()
+                .calculo(calculo)
+                .build();
+            calculo.setResultado(resultado);
+        } else {
+            resultadoCalculoRepository.arquivarVersao(resultado.getId());
+            resultado.setVersao(resultado.getVersao() + 1);
+            resultado.setDataCalculo(LocalDateTime.now());
         }
 
-        resultadoCalculoRepository.findByCalculoId(calculoId)
-            .ifPresent(r -> resultadoCalculoRepository.delete(r));
-
-        resultadoCalculoRepository.save(resultado);
+        resultado.setValorCorrigido(response.getValorCorrigido());
+        resultado.setValorJuros(response.getValorJuros());
+        resultado.setValorMulta(response.getValorMulta());
+        resultado.setValorHonorarios(response.getValorHonorarios());
+        resultado.setValorTotal(response.getValorTotal());
+        detalhamentoService.gravar(resultado, response.getDetalhamento());
 
         calculo.setStatus(StatusCalculo.CALCULADO);
-        calculoRepository.save(calculo);
+        eventPublisher.publishEvent(new CalculoAlteradoEvent(calculoId));
 
         return response;
     }
 
+    /**
+     * Versões anteriores do resultado de um cálculo, da mais recente para a mais antiga.
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoCalculoHistorico> listarHistoricoResultados(Long calculoId) {
+        if (!calculoRepository.existsById(calculoId)) {
+            throw new ResourceNotFoundException("Calculo", "id", calculoId);
+        }
+        return resultadoCalculoHistoricoRepository.findByCalculoIdOrderByVersaoDesc(calculoId);
+    }
+
     /**
      * Busca um cálculo por ID.
      */
@@ -163,11 +339,51 @@ public class CalculoService {
     }
 
     /**
-     * Lista todos os cálculos.
+     * Lista os cálculos em forma de resumo (sem parcelas nem detalhamento).
      */
     @Transactional(readOnly = true)
-    public Page<Calculo> listar(Pageable pageable) {
-        return calculoRepository.findAll(pageable);
+    public Page<CalculoResumoResponse> listar(Pageable pageable) {
+        return calculoRepository.findResumos(pageable);
+    }
+
+    /**
+     * Lista os cálculos por cursor (mais recentes primeiro), com filtros opcionais.
+     *
+     * @param after cursor retornado pela página anterior, ou nulo para a primeira página
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<CalculoResumoResponse> listarPorCursor(FiltroCalculoRequest filtro,
+                                                                       String after,
+                                                                       int tamanho) {
+        if (filtro.getDe() != null && filtro.getAte() != null && filtro.getDe().isAfter(filtro.getAte())) {
+            throw new BusinessException("Data inicial do filtro não pode ser posterior à data final");
+        }
+
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_MAXIMO_PAGINA);
+        CursorCalculo cursor = after != null && !after.isBlank() ? CursorCalculo.decodificar(after) : null;
+
+        // Um item a mais indica se existe próxima página
+        List<CalculoResumoResponse> itens = calculoRepository.buscarResumos(filtro,
+            cursor != null ? cursor.dataCriacao() : null,
+            cursor != null ? cursor.id() : null,
+            limite + 1);
+
+        boolean temMais = itens.size() > limite;
+        if (temMais) {
+            itens = new ArrayList<>(itens.subList(0, limite));
+        }
+
+        String proximoCursor = null;
+        if (temMais) {
+            CalculoResumoResponse ultimo = itens.get(itens.size() - 1);
+            proximoCursor = new CursorCalculo(ultimo.getDataCriacao(), ultimo.getId()).codificar();
+        }
+
+        return PaginaCursorResponse.<CalculoResumoResponse>builder()
+            .itens(itens)
+            .proximoCursor(proximoCursor)
+            .temMais(temMais)
+            .build();
     }
 
     /**
@@ -178,6 +394,7 @@ public class CalculoService {
         Calculo calculo = calculoRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Calculo", "id", id));
         calculoRepository.delete(calculo);
+        eventPublisher.publishEvent(new CalculoAlteradoEvent(id));
     }
 
     // ============================================
@@ -185,89 +402,166 @@ public class CalculoService {
     // ============================================
 
     private ResultadoCalculoResponse executarCalculo(CalculoRequest request) {
-        List<ResultadoParcelaResponse> resultadosParcelas = new ArrayList<>();
         BigDecimal totalCorrigido = BigDecimal.ZERO;
         BigDecimal totalJuros = BigDecimal.ZERO;
 
-        List<CalculoRequest.ParcelaRequest> parcelas = request.getParcelas();
-        if (parcelas == null || parcelas.isEmpty()) {
-            parcelas = List.of(CalculoRequest.ParcelaRequest.builder()
-                .descricao("Valor principal")
-                .valorOriginal(request.getValorPrincipal())
-                .dataVencimento(request.getDataInicial())
-                .build());
-        }
+        List<CalculoRequest.ParcelaRequest> parcelas = parcelasOuPrincipal(request);
 
-        Map<Long, TabelaIndice> indiceCache = new HashMap<>();
+        Map<Long, CorrecaoMonetariaService.LoteCorrecao> lotes = prepararLotesCorrecao(request, parcelas);
 
-        for (CalculoRequest.ParcelaRequest parcela : parcelas) {
-            BigDecimal valorCorrigido;
-            BigDecimal fatorCorrecao = BigDecimal.ONE;
+        List<ResultadoParcelaResponse> resultadosParcelas = avaliarParcelas(request, parcelas, lotes);
 
-            Long effectiveIndiceId = parcela.getTabelaIndiceId() != null
-                ? parcela.getTabelaIndiceId()
-                : request.getTabelaIndiceId();
+        // Redução sempre na ordem de entrada: os totais não dependem do modo de avaliação
+        for (ResultadoParcelaResponse resultadoParcela : resultadosParcelas) {
+            totalCorrigido = totalCorrigido.add(resultadoParcela.getValorCorrigido());
+            totalJuros = totalJuros.add(resultadoParcela.getValorJuros());
+        }
 
-            String indiceNome = null;
-            if (effectiveIndiceId != null) {
-                TabelaIndice tabela = indiceCache.computeIfAbsent(effectiveIndiceId,
-                    id -> tabelaIndiceRepository.findById(id).orElse(null));
-                if (tabela != null) {
-                    indiceNome = tabela.getNome();
-                }
+        Encargos encargos = calcularEncargos(request, totalCorrigido.add(totalJuros));
+        BigDecimal fatorCorrecaoGeral = calcularFatorGeral(request, totalCorrigido);
+
+        List<DetalhamentoMensalResponse> detalhamento = gerarDetalhamentoMensal(request);
+
+        BigDecimal variacaoTotalPeriodo = null;
+        if (!detalhamento.isEmpty()) {
+            BigDecimal primeiroIndice = detalhamento.get(0).getIndice();
+            BigDecimal ultimoIndice = detalhamento.get(detalhamento.size() - 1).getIndice();
+            if (primeiroIndice != null && ultimoIndice != null && primeiroIndice.compareTo(BigDecimal.ZERO) > 0) {
+                variacaoTotalPeriodo = ultimoIndice.subtract(primeiroIndice)
+                    .divide(primeiroIndice, 6, RoundingMode.HALF_UP)
+                    .multiply(CEM)
+                    .setScale(4, RoundingMode.HALF_UP);
             }
+        }
 
-            if (effectiveIndiceId != null) {
-                valorCorrigido = correcaoService.calcular(
-                    parcela.getValorOriginal(),
-                    parcela.getDataVencimento(),
-                    request.getDataFinal(),
-                    effectiveIndiceId
-                );
-                fatorCorrecao = correcaoService.calcularFatorCorrecao(
-                    parcela.getDataVencimento(),
-                    request.getDataFinal(),
-                    effectiveIndiceId
-                );
-            } else {
-                valorCorrigido = parcela.getValorOriginal();
+        return ResultadoCalculoResponse.builder()
+            .valorOriginal(request.getValorPrincipal())
+            .valorCorrigido(totalCorrigido)
+            .valorJuros(totalJuros)
+            .valorMulta(encargos.multa())
+            .valorHonorarios(encargos.honorarios())
+            .valorTotal(encargos.total())
+            .fatorCorrecao(fatorCorrecaoGeral)
+            .variacaoTotalPeriodo(variacaoTotalPeriodo)
+            .dataCalculo(LocalDateTime.now())
+            .parcelas(resultadosParcelas)
+            .detalhamento(detalhamento)
+            .build();
+    }
+
+    /**
+     * Avalia as parcelas, em paralelo quando habilitado e acima do limite configurado.
+     *
+     * No modo paralelo as parcelas são divididas em lotes de tamanho fixo, cada lote é
+     * avaliado sequencialmente no pool dedicado e os resultados são reunidos na ordem de
+     * entrada; a primeira falha (na ordem das parcelas) é propagada como no modo sequencial.
+     */
+    private List<ResultadoParcelaResponse> avaliarParcelas(CalculoRequest request,
+                                                           List<CalculoRequest.ParcelaRequest> parcelas,
+                                                           Map<Long, CorrecaoMonetariaService.LoteCorrecao> lotes) {
+        if (!paraleloHabilitado || parcelas.size() < paraleloLimiteParcelas) {
+            List<ResultadoParcelaResponse> resultados = new ArrayList<>(parcelas.size());
+            for (CalculoRequest.ParcelaRequest parcela : parcelas) {
+                resultados.add(calcularParcela(request, parcela, lotes));
             }
+            return resultados;
+        }
+
+        int tamanhoLote = Math.max(1, paraleloTamanhoLote);
+        List<ForkJoinTask<List<ResultadoParcelaResponse>>> tarefas = new ArrayList<>();
+        for (int inicio = 0; inicio < parcelas.size(); inicio += tamanhoLote) {
+            List<CalculoRequest.ParcelaRequest> lote = parcelas.subList(inicio, Math.min(inicio + tamanhoLote, parcelas.size()));
+            tarefas.add(obterPoolParcelas().submit(() -> {
+                List<ResultadoParcelaResponse> resultadosLote = new ArrayList<>(lote.size());
+                for (CalculoRequest.ParcelaRequest parcela : lote) {
+                    resultadosLote.add(calcularParcela(request, parcela, lotes));
+                }
+                return resultadosLote;
+            }));
+        }
 
-            BigDecimal baseJuros = Boolean.TRUE.equals(request.getJurosSobreCorrigido())
-                ? valorCorrigido
-                : parcela.getValorOriginal();
-
-            BigDecimal valorJuros = BigDecimal.ZERO;
-            int mesesJuros = 0;
-            if (request.getTaxaJuros() != null && request.getTaxaJuros().compareTo(BigDecimal.ZERO) > 0) {
-                valorJuros = jurosService.calcular(
-                    baseJuros,
-                    request.getTaxaJuros(),
-                    request.getTipoJuros(),
-                    parcela.getDataVencimento(),
-                    request.getDataFinal(),
-                    request.getPeriodicidadeJuros()
-                );
-                mesesJuros = (int) ChronoUnit.MONTHS.between(parcela.getDataVencimento(), request.getDataFinal());
+        List<ResultadoParcelaResponse> resultados = new ArrayList<>(parcelas.size());
+        try {
+            for (ForkJoinTask<List<ResultadoParcelaResponse>> tarefa : tarefas) {
+                resultados.addAll(tarefa.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            throw new IllegalStateException("Falha ao calcular parcelas", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de parcelas interrompido", e);
+        } finally {
+            tarefas.forEach(tarefa -> tarefa.cancel(false));
+        }
+        return resultados;
+    }
 
-            totalCorrigido = totalCorrigido.add(valorCorrigido);
-            totalJuros = totalJuros.add(valorJuros);
-
-            resultadosParcelas.add(ResultadoParcelaResponse.builder()
-                .descricao(parcela.getDescricao())
-                .valorOriginal(parcela.getValorOriginal())
-                .dataVencimento(parcela.getDataVencimento())
-                .valorCorrigido(valorCorrigido)
-                .valorJuros(valorJuros)
-                .subtotal(valorCorrigido.add(valorJuros))
-                .mesesJuros(mesesJuros)
-                .indiceNome(indiceNome)
-                .build());
+    private ResultadoParcelaResponse calcularParcela(CalculoRequest request,
+                                                     CalculoRequest.ParcelaRequest parcela,
+                                                     Map<Long, CorrecaoMonetariaService.LoteCorrecao> lotes) {
+        BigDecimal valorCorrigido;
+
+        Long effectiveIndiceId = parcela.getTabelaIndiceId() != null
+            ? parcela.getTabelaIndiceId()
+            : request.getTabelaIndiceId();
+
+        String indiceNome = effectiveIndiceId != null
+            ? tabelaIndiceRegistry.obterNome(effectiveIndiceId)
+            : null;
+
+        if (effectiveIndiceId != null) {
+            CorrecaoMonetariaService.LoteCorrecao lote = lotes.get(effectiveIndiceId);
+            valorCorrigido = lote.corrigir(parcela.getValorOriginal(), parcela.getDataVencimento());
+        } else {
+            valorCorrigido = parcela.getValorOriginal();
+        }
+
+        BigDecimal valorJuros = calcularJurosParcela(request, request.getTaxaJuros(), request.getTipoJuros(),
+            parcela, valorCorrigido);
+        int mesesJuros = 0;
+        if (request.getTaxaJuros() != null && request.getTaxaJuros().compareTo(BigDecimal.ZERO) > 0) {
+            mesesJuros = (int) ChronoUnit.MONTHS.between(parcela.getDataVencimento(), request.getDataFinal());
         }
 
-        BigDecimal subtotal = totalCorrigido.add(totalJuros);
+        return ResultadoParcelaResponse.builder()
+            .descricao(parcela.getDescricao())
+            .valorOriginal(parcela.getValorOriginal())
+            .dataVencimento(parcela.getDataVencimento())
+            .valorCorrigido(valorCorrigido)
+            .valorJuros(valorJuros)
+            .subtotal(valorCorrigido.add(valorJuros))
+            .mesesJuros(mesesJuros)
+            .indiceNome(indiceNome)
+            .build();
+    }
+
+    private BigDecimal calcularJurosParcela(CalculoRequest request, BigDecimal taxaJuros, TipoJuros tipoJuros,
+                                            CalculoRequest.ParcelaRequest parcela, BigDecimal valorCorrigido) {
+        if (taxaJuros == null || taxaJuros.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal baseJuros = Boolean.TRUE.equals(request.getJurosSobreCorrigido())
+            ? valorCorrigido
+            : parcela.getValorOriginal();
+
+        return jurosService.calcular(
+            baseJuros,
+            taxaJuros,
+            tipoJuros,
+            parcela.getDataVencimento(),
+            request.getDataFinal(),
+            request.getPeriodicidadeJuros()
+        );
+    }
+
+    private record Encargos(BigDecimal multa, BigDecimal honorarios, BigDecimal total) {
+    }
 
+    private Encargos calcularEncargos(CalculoRequest request, BigDecimal subtotal) {
         BigDecimal valorMulta = BigDecimal.ZERO;
         if (request.getMultaPercentual() != null && request.getMultaPercentual().compareTo(BigDecimal.ZERO) > 0) {
             valorMulta = subtotal.multiply(request.getMultaPercentual())
@@ -281,40 +575,88 @@ public class CalculoService {
                 .divide(CEM, 2, RoundingMode.HALF_UP);
         }
 
-        BigDecimal valorTotal = subtotal.add(valorMulta).add(valorHonorarios);
+        return new Encargos(valorMulta, valorHonorarios, subtotal.add(valorMulta).add(valorHonorarios));
+    }
 
-        BigDecimal fatorCorrecaoGeral = BigDecimal.ONE;
+    private BigDecimal calcularFatorGeral(CalculoRequest request, BigDecimal totalCorrigido) {
         if (request.getTabelaIndiceId() != null && request.getValorPrincipal().compareTo(BigDecimal.ZERO) > 0) {
-            fatorCorrecaoGeral = totalCorrigido.divide(request.getValorPrincipal(), 6, RoundingMode.HALF_UP);
+            return totalCorrigido.divide(request.getValorPrincipal(), 6, RoundingMode.HALF_UP);
         }
+        return BigDecimal.ONE;
+    }
 
-        List<DetalhamentoMensalResponse> detalhamento = gerarDetalhamentoMensal(request);
+    /**
+     * Parcelas informadas ou, na ausência delas, o valor principal como parcela única.
+     */
+    private List<CalculoRequest.ParcelaRequest> parcelasOuPrincipal(CalculoRequest request) {
+        List<CalculoRequest.ParcelaRequest> parcelas = request.getParcelas();
+        if (parcelas == null || parcelas.isEmpty()) {
+            parcelas = List.of(CalculoRequest.ParcelaRequest.builder()
+                .descricao("Valor principal")
+                .valorOriginal(request.getValorPrincipal())
+                .dataVencimento(request.getDataInicial())
+                .build());
+        }
+        return parcelas;
+    }
 
-        BigDecimal variacaoTotalPeriodo = null;
-        if (!detalhamento.isEmpty()) {
-            BigDecimal primeiroIndice = detalhamento.get(0).getIndice();
-            BigDecimal ultimoIndice = detalhamento.get(detalhamento.size() - 1).getIndice();
-            if (primeiroIndice != null && ultimoIndice != null && primeiroIndice.compareTo(BigDecimal.ZERO) > 0) {
-                variacaoTotalPeriodo = ultimoIndice.subtract(primeiroIndice)
-                    .divide(primeiroIndice, 6, RoundingMode.HALF_UP)
-                    .multiply(CEM)
-                    .setScale(4, RoundingMode.HALF_UP);
+    private ForkJoinPool obterPoolParcelas() {
+        ForkJoinPool pool = poolParcelas;
+        if (pool == null) {
+            synchronized (this) {
+                if (poolParcelas == null) {
+                    int threads = paraleloThreads > 0 ? paraleloThreads : Runtime.getRuntime().availableProcessors();
+                    poolParcelas = new ForkJoinPool(threads);
+                }
+                pool = poolParcelas;
             }
         }
+        return pool;
+    }
 
-        return ResultadoCalculoResponse.builder()
-            .valorOriginal(request.getValorPrincipal())
-            .valorCorrigido(totalCorrigido)
-            .valorJuros(totalJuros)
-            .valorMulta(valorMulta)
-            .valorHonorarios(valorHonorarios)
-            .valorTotal(valorTotal)
-            .fatorCorrecao(fatorCorrecaoGeral)
-            .variacaoTotalPeriodo(variacaoTotalPeriodo)
-            .dataCalculo(LocalDateTime.now())
-            .parcelas(resultadosParcelas)
-            .detalhamento(detalhamento)
-            .build();
+    @PreDestroy
+    void encerrarPoolParcelas() {
+        if (poolParcelas != null) {
+            poolParcelas.shutdown();
+        }
+    }
+
+    /**
+     * Agrupa as parcelas pelo índice efetivo e resolve, por grupo, todos os índices
+     * necessários de uma só vez (o índice final é comum a todas as parcelas).
+     */
+    private Map<Long, CorrecaoMonetariaService.LoteCorrecao> prepararLotesCorrecao(
+            CalculoRequest request, List<CalculoRequest.ParcelaRequest> parcelas) {
+        Map<Long, CorrecaoMonetariaService.LoteCorrecao> lotes = new HashMap<>();
+        agruparVencimentosPorIndice(request, parcelas).forEach((indiceId, vencimentos) ->
+            lotes.put(indiceId, correcaoService.prepararLote(indiceId, vencimentos, request.getDataFinal())));
+        return lotes;
+    }
+
+    /**
+     * Como {@link #prepararLotesCorrecao}, mas para todas as datas finais da grade de cenários.
+     */
+    private Map<Long, Map<LocalDate, CorrecaoMonetariaService.LoteCorrecao>> prepararLotesCenarios(
+            CalculoRequest request, List<CalculoRequest.ParcelaRequest> parcelas, List<LocalDate> datasFinais) {
+        Map<Long, Map<LocalDate, CorrecaoMonetariaService.LoteCorrecao>> lotes = new HashMap<>();
+        agruparVencimentosPorIndice(request, parcelas).forEach((indiceId, vencimentos) ->
+            lotes.put(indiceId, correcaoService.prepararLotes(indiceId, vencimentos, datasFinais)));
+        return lotes;
+    }
+
+    private Map<Long, List<LocalDate>> agruparVencimentosPorIndice(CalculoRequest request,
+                                                                   List<CalculoRequest.ParcelaRequest> parcelas) {
+        Map<Long, List<LocalDate>> vencimentosPorIndice = new HashMap<>();
+        for (CalculoRequest.ParcelaRequest parcela : parcelas) {
+            Long effectiveIndiceId = parcela.getTabelaIndiceId() != null
+                ? parcela.getTabelaIndiceId()
+                : request.getTabelaIndiceId();
+            if (effectiveIndiceId != null) {
+                vencimentosPorIndice.computeIfAbsent(effectiveIndiceId, id -> new ArrayList<>())
+                    .add(parcela.getDataVencimento());
+            }
+        }
+        return vencimentosPorIndice;
     }
 
     private List<DetalhamentoMensalResponse> gerarDetalhamentoMensal(CalculoRequest request) {
@@ -324,11 +666,7 @@ public class CalculoService {
             return detalhamento;
         }
 
-        String nomeIndice = null;
-        TabelaIndice tabela = tabelaIndiceRepository.findById(request.getTabelaIndiceId()).orElse(null);
-        if (tabela != null) {
-            nomeIndice = tabela.getNome();
-        }
+        String nomeIndice = tabelaIndiceRegistry.obterNome(request.getTabelaIndiceId());
 
         List<ValorIndice> indices = correcaoService.obterIndicesNoPeriodo(
             request.getTabelaIndiceId(),
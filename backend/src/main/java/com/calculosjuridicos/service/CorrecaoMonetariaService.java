@@ -2,7 +2,6 @@ package com.calculosjuridicos.service;
 
 import com.calculosjuridicos.entity.ValorIndice;
 import com.calculosjuridicos.exception.BusinessException;
-import com.calculosjuridicos.repository.ValorIndiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,14 +10,20 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CorrecaoMonetariaService {
 
-    private final ValorIndiceRepository valorIndiceRepository;
+    private final IndiceSeriesStore indiceSeriesStore;
 
     private static final int PRECISION = 10;
     private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
@@ -47,21 +52,21 @@ public class CorrecaoMonetariaService {
 
         // Buscar índice do mês anterior à data inicial
         LocalDate competenciaInicial = dataInicial.withDayOfMonth(1).minusMonths(1);
-        ValorIndice indiceInicial = valorIndiceRepository
-            .findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(tabelaIndiceId, competenciaInicial)
+        BigDecimal indiceInicial = indiceSeriesStore
+            .buscarValorAte(tabelaIndiceId, competenciaInicial)
             .orElseThrow(() -> new BusinessException(
                 "Índice não encontrado para a competência: " + competenciaInicial
             ));
 
         // Buscar índice do mês da data final
         LocalDate competenciaFinal = dataFinal.withDayOfMonth(1);
-        ValorIndice indiceFinal = valorIndiceRepository
-            .findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(tabelaIndiceId, competenciaFinal)
+        BigDecimal indiceFinal = indiceSeriesStore
+            .buscarValorAte(tabelaIndiceId, competenciaFinal)
             .orElseThrow(() -> new BusinessException(
                 "Índice não encontrado para a competência: " + competenciaFinal
             ));
 
-        return calcularComIndices(valorOriginal, indiceInicial.getValor(), indiceFinal.getValor());
+        return calcularComIndices(valorOriginal, indiceInicial, indiceFinal);
     }
 
     /**
@@ -90,20 +95,73 @@ public class CorrecaoMonetariaService {
                                             Long tabelaIndiceId) {
 
         LocalDate competenciaInicial = dataInicial.withDayOfMonth(1).minusMonths(1);
-        ValorIndice indiceInicial = valorIndiceRepository
-            .findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(tabelaIndiceId, competenciaInicial)
+        BigDecimal indiceInicial = indiceSeriesStore
+            .buscarValorAte(tabelaIndiceId, competenciaInicial)
             .orElseThrow(() -> new BusinessException(
                 "Índice não encontrado para a competência: " + competenciaInicial
             ));
 
         LocalDate competenciaFinal = dataFinal.withDayOfMonth(1);
-        ValorIndice indiceFinal = valorIndiceRepository
-            .findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(tabelaIndiceId, competenciaFinal)
+        BigDecimal indiceFinal = indiceSeriesStore
+            .buscarValorAte(tabelaIndiceId, competenciaFinal)
             .orElseThrow(() -> new BusinessException(
                 "Índice não encontrado para a competência: " + competenciaFinal
             ));
 
-        return indiceFinal.getValor().divide(indiceInicial.getValor(), PRECISION, ROUNDING);
+        return indiceFinal.divide(indiceInicial, PRECISION, ROUNDING);
+    }
+
+    /**
+     * Prepara a correção em lote de várias parcelas com o mesmo índice e a mesma data final.
+     *
+     * O índice final é resolvido uma única vez e os índices iniciais de todas as datas
+     * são resolvidos em uma só passada pela série. Os valores obtidos são idênticos aos
+     * de {@link #calcular} e {@link #calcularFatorCorrecao} chamados parcela a parcela.
+     */
+    public LoteCorrecao prepararLote(Long tabelaIndiceId,
+                                     Collection<LocalDate> datasIniciais,
+                                     LocalDate dataFinal) {
+        SortedSet<LocalDate> competencias = new TreeSet<>();
+        for (LocalDate dataInicial : datasIniciais) {
+            competencias.add(dataInicial.withDayOfMonth(1).minusMonths(1));
+        }
+        LocalDate competenciaFinal = dataFinal.withDayOfMonth(1);
+        competencias.add(competenciaFinal);
+
+        Map<LocalDate, BigDecimal> indices = indiceSeriesStore.buscarValoresAte(tabelaIndiceId, competencias);
+        return new LoteCorrecao(indices, dataFinal, competenciaFinal);
+    }
+
+    /**
+     * Prepara lotes de correção para várias datas finais de uma só vez.
+     *
+     * Todos os índices (iniciais e finais) são resolvidos em uma única passada pela série e
+     * compartilhados pelos lotes retornados, indexados pela data final.
+     */
+    public Map<LocalDate, LoteCorrecao> prepararLotes(Long tabelaIndiceId,
+                                                      Collection<LocalDate> datasIniciais,
+                                                      Collection<LocalDate> datasFinais) {
+        SortedSet<LocalDate> competencias = new TreeSet<>();
+        for (LocalDate dataInicial : datasIniciais) {
+            competencias.add(dataInicial.withDayOfMonth(1).minusMonths(1));
+        }
+        for (LocalDate dataFinal : datasFinais) {
+            competencias.add(dataFinal.withDayOfMonth(1));
+        }
+
+        Map<LocalDate, BigDecimal> indices = indiceSeriesStore.buscarValoresAte(tabelaIndiceId, competencias);
+        Map<LocalDate, LoteCorrecao> lotes = new LinkedHashMap<>();
+        for (LocalDate dataFinal : datasFinais) {
+            lotes.put(dataFinal, new LoteCorrecao(indices, dataFinal, dataFinal.withDayOfMonth(1)));
+        }
+        return lotes;
+    }
+
+    /**
+     * Obtém o último valor do índice com competência menor ou igual à data informada.
+     */
+    public Optional<BigDecimal> obterIndiceAte(Long tabelaIndiceId, LocalDate competencia) {
+        return indiceSeriesStore.buscarValorAte(tabelaIndiceId, competencia);
     }
 
     /**
@@ -115,8 +173,57 @@ public class CorrecaoMonetariaService {
         LocalDate competenciaInicial = dataInicial.withDayOfMonth(1);
         LocalDate competenciaFinal = dataFinal.withDayOfMonth(1);
 
-        return valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(
-            tabelaIndiceId, competenciaInicial, competenciaFinal
-        );
+        return indiceSeriesStore.buscarPeriodo(tabelaIndiceId, competenciaInicial, competenciaFinal);
+    }
+
+    /**
+     * Índices já resolvidos para a correção em lote de parcelas até uma mesma data final.
+     */
+    public static final class LoteCorrecao {
+
+        private final Map<LocalDate, BigDecimal> indices;
+        private final LocalDate dataFinal;
+        private final LocalDate competenciaFinal;
+
+        private LoteCorrecao(Map<LocalDate, BigDecimal> indices, LocalDate dataFinal, LocalDate competenciaFinal) {
+            this.indices = indices;
+            this.dataFinal = dataFinal;
+            this.competenciaFinal = competenciaFinal;
+        }
+
+        /**
+         * Equivale a {@link CorrecaoMonetariaService#calcular} para a data inicial informada.
+         */
+        public BigDecimal corrigir(BigDecimal valorOriginal, LocalDate dataInicial) {
+            if (valorOriginal == null || valorOriginal.compareTo(BigDecimal.ZERO) <= 0) {
+                return BigDecimal.ZERO;
+            }
+
+            if (dataInicial.isAfter(dataFinal)) {
+                throw new BusinessException("Data inicial não pode ser posterior à data final");
+            }
+
+            return valorOriginal.multiply(fator(dataInicial)).setScale(2, ROUNDING);
+        }
+
+        /**
+         * Equivale a {@link CorrecaoMonetariaService#calcularFatorCorrecao} para a data inicial informada.
+         */
+        public BigDecimal fator(LocalDate dataInicial) {
+            BigDecimal indiceInicial = indice(dataInicial.withDayOfMonth(1).minusMonths(1));
+            BigDecimal indiceFinal = indice(competenciaFinal);
+            if (indiceInicial.compareTo(BigDecimal.ZERO) == 0) {
+                throw new BusinessException("Índice inicial não pode ser zero");
+            }
+            return indiceFinal.divide(indiceInicial, PRECISION, ROUNDING);
+        }
+
+        private BigDecimal indice(LocalDate competencia) {
+            BigDecimal indice = indices.get(competencia);
+            if (indice == null) {
+                throw new BusinessException("Índice não encontrado para a competência: " + competencia);
+            }
+            return indice;
+        }
     }
 }
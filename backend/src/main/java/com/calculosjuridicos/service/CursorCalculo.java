@@ -0,0 +1,34 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de cálculos: data de criação e ID do último item entregue.
+ * Trafega como texto Base64 URL-safe opaco para o cliente.
+ */
+public record CursorCalculo(LocalDateTime dataCriacao, Long id) {
+
+    public String codificar() {
+        String texto = dataCriacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorCalculo decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.indexOf('|');
+            if (separador < 0) {
+                throw new BusinessException("Cursor inválido");
+            }
+            return new CursorCalculo(LocalDateTime.parse(texto.substring(0, separador)),
+                Long.valueOf(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor inválido");
+        }
+    }
+}
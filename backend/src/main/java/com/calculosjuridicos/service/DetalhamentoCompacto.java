@@ -0,0 +1,539 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse.DetalhamentoMensalResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Detalhamento mensal em formato colunar compacto.
+ *
+ * Formato (versão 1): cabeçalho {@code 'D' 'T' 'L' versão} seguido de um fluxo deflate com
+ * <ul>
+ *   <li>quantidade de linhas;</li>
+ *   <li>competências: mês inicial (ano × 12 + mês − 1) quando consecutivas, um mês por linha
+ *       quando houver lacunas, ou o texto original quando fora do padrão {@code MM - yyyy};</li>
+ *   <li>nomes de índice: dicionário de nomes distintos e um código por linha;</li>
+ *   <li>uma coluna por campo numérico, com os valores não escalados em {@code long} e a escala
+ *       única da coluna (ou uma por linha, quando variar), mais um mapa de nulos quando houver.
+ *       Valores que não cabem em {@code long} fazem a coluna ser gravada como texto.</li>
+ * </ul>
+ *
+ * A forma decodificada mantém apenas os arrays das colunas; os valores de cada linha são
+ * obtidos pelos acessores sem materializar um objeto por linha.
+ */
+public final class DetalhamentoCompacto {
+
+    public static final int VERSAO = 1;
+
+    private static final byte[] ASSINATURA = {'D', 'T', 'L'};
+
+    private static final int COMPETENCIA_CONSECUTIVA = 0;
+    private static final int COMPETENCIA_POR_LINHA = 1;
+    private static final int COMPETENCIA_TEXTO = 2;
+
+    private static final int COLUNA_NULA = 0;
+    private static final int COLUNA_ESCALA_UNICA = 1;
+    private static final int COLUNA_ESCALA_POR_LINHA = 2;
+    private static final int COLUNA_TEXTO = 3;
+
+    private static final int INDICE = 0;
+    private static final int FATOR_ACUMULADO = 1;
+    private static final int VARIACAO_PERCENTUAL = 2;
+    private static final int VALOR_CORRIGIDO_PARCIAL = 3;
+    private static final int JUROS_PARCIAL = 4;
+    private static final int SUBTOTAL_PARCIAL = 5;
+
+    private static final List<Function<DetalhamentoMensalResponse, BigDecimal>> CAMPOS = List.of(
+        DetalhamentoMensalResponse::getIndice,
+        DetalhamentoMensalResponse::getFatorAcumulado,
+        DetalhamentoMensalResponse::getVariacaoPercentual,
+        DetalhamentoMensalResponse::getValorCorrigidoParcial,
+        DetalhamentoMensalResponse::getJurosParcial,
+        DetalhamentoMensalResponse::getSubtotalParcial
+    );
+
+    private final int tamanho;
+    private final int modoCompetencia;
+    private final int mesInicial;
+    private final int[] meses;
+    private final String[] competenciasTexto;
+    private final String[] dicionario;
+    private final short[] nomes;
+    private final Coluna[] colunas;
+
+    private DetalhamentoCompacto(int tamanho, int modoCompetencia, int mesInicial, int[] meses,
+                                 String[] competenciasTexto, String[] dicionario, short[] nomes, Coluna[] colunas) {
+        this.tamanho = tamanho;
+        this.modoCompetencia = modoCompetencia;
+        this.mesInicial = mesInicial;
+        this.meses = meses;
+        this.competenciasTexto = competenciasTexto;
+        this.dicionario = dicionario;
+        this.nomes = nomes;
+        this.colunas = colunas;
+    }
+
+    /**
+     * Converte o detalhamento mensal para a forma colunar.
+     */
+    public static DetalhamentoCompacto de(List<DetalhamentoMensalResponse> detalhamento) {
+        int tamanho = detalhamento.size();
+
+        // Competências
+        int[] meses = new int[tamanho];
+        boolean padrao = true;
+        boolean consecutivas = true;
+        for (int i = 0; i < tamanho && padrao; i++) {
+            meses[i] = mesEpoca(detalhamento.get(i).getCompetencia());
+            padrao = meses[i] >= 0;
+            consecutivas &= i == 0 || meses[i] == meses[i - 1] + 1;
+        }
+        int modoCompetencia;
+        String[] competenciasTexto = null;
+        if (!padrao) {
+            modoCompetencia = COMPETENCIA_TEXTO;
+            competenciasTexto = new String[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                competenciasTexto[i] = detalhamento.get(i).getCompetencia();
+            }
+        } else {
+            modoCompetencia = consecutivas ? COMPETENCIA_CONSECUTIVA : COMPETENCIA_POR_LINHA;
+        }
+        int mesInicial = padrao && tamanho > 0 ? meses[0] : 0;
+
+        // Nomes de índice
+        Map<String, Short> codigos = new HashMap<>();
+        List<String> dicionario = new ArrayList<>();
+        short[] nomes = new short[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            String nome = detalhamento.get(i).getNomeIndice();
+            if (nome == null) {
+                nomes[i] = -1;
+                continue;
+            }
+            Short codigo = codigos.get(nome);
+            if (codigo == null) {
+                if (dicionario.size() == Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Nomes de índice distintos demais para o formato compacto");
+                }
+                codigo = (short) dicionario.size();
+                codigos.put(nome, codigo);
+                dicionario.add(nome);
+            }
+            nomes[i] = codigo;
+        }
+
+        Coluna[] colunas = new Coluna[CAMPOS.size()];
+        for (int c = 0; c < colunas.length; c++) {
+            colunas[c] = Coluna.de(detalhamento, CAMPOS.get(c));
+        }
+
+        return new DetalhamentoCompacto(tamanho, modoCompetencia, mesInicial,
+            modoCompetencia == COMPETENCIA_POR_LINHA ? meses : null, competenciasTexto,
+            dicionario.toArray(String[]::new), nomes, colunas);
+    }
+
+    /**
+     * Serializa no formato binário da versão atual.
+     */
+    public byte[] codificar() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + tamanho * 16);
+        bytes.writeBytes(ASSINATURA);
+        bytes.write(VERSAO);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(tamanho);
+
+            out.writeByte(modoCompetencia);
+            switch (modoCompetencia) {
+                case COMPETENCIA_CONSECUTIVA -> out.writeInt(mesInicial);
+                case COMPETENCIA_POR_LINHA -> {
+                    for (int mes : meses) {
+                        out.writeInt(mes);
+                    }
+                }
+                default -> escreverTextos(out, competenciasTexto);
+            }
+
+            out.writeShort(dicionario.length);
+            for (String nome : dicionario) {
+                out.writeUTF(nome);
+            }
+            for (short nome : nomes) {
+                out.writeShort(nome);
+            }
+
+            for (Coluna coluna : colunas) {
+                coluna.escrever(out, tamanho);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Lê o formato binário gerado por {@link #codificar()}.
+     *
+     * @throws IllegalArgumentException se os dados não estiverem no formato esperado
+     */
+    public static DetalhamentoCompacto decodificar(byte[] dados) {
+        if (dados.length < 4 || dados[0] != ASSINATURA[0] || dados[1] != ASSINATURA[1] || dados[2] != ASSINATURA[2]) {
+            throw new IllegalArgumentException("Detalhamento compacto com assinatura inválida");
+        }
+        if (dados[3] != VERSAO) {
+            throw new IllegalArgumentException("Versão de detalhamento compacto não suportada: " + dados[3]);
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(dados, 4, dados.length - 4)))) {
+            int tamanho = in.readInt();
+
+            int modoCompetencia = in.readUnsignedByte();
+            int mesInicial = 0;
+            int[] meses = null;
+            String[] competenciasTexto = null;
+            switch (modoCompetencia) {
+                case COMPETENCIA_CONSECUTIVA -> mesInicial = in.readInt();
+                case COMPETENCIA_POR_LINHA -> {
+                    meses = new int[tamanho];
+                    for (int i = 0; i < tamanho; i++) {
+                        meses[i] = in.readInt();
+                    }
+                }
+                case COMPETENCIA_TEXTO -> competenciasTexto = lerTextos(in, tamanho);
+                default -> throw new IllegalArgumentException("Modo de competência inválido: " + modoCompetencia);
+            }
+
+            String[] dicionario = new String[in.readUnsignedShort()];
+            for (int i = 0; i < dicionario.length; i++) {
+                dicionario[i] = in.readUTF();
+            }
+            short[] nomes = new short[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                nomes[i] = in.readShort();
+            }
+
+            Coluna[] colunas = new Coluna[CAMPOS.size()];
+            for (int c = 0; c < colunas.length; c++) {
+                colunas[c] = Coluna.ler(in, tamanho);
+            }
+
+            return new DetalhamentoCompacto(tamanho, modoCompetencia, mesInicial, meses, competenciasTexto,
+                dicionario, nomes, colunas);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Detalhamento compacto corrompido", e);
+        }
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Competência da linha no formato {@code MM - yyyy}.
+     */
+    public String competencia(int linha) {
+        return switch (modoCompetencia) {
+            case COMPETENCIA_CONSECUTIVA -> formatarMes(mesInicial + linha);
+            case COMPETENCIA_POR_LINHA -> formatarMes(meses[linha]);
+            default -> competenciasTexto[linha];
+        };
+    }
+
+    public String nomeIndice(int linha) {
+        short codigo = nomes[linha];
+        return codigo < 0 ? null : dicionario[codigo];
+    }
+
+    public BigDecimal indice(int linha) {
+        return colunas[INDICE].valor(linha);
+    }
+
+    public BigDecimal fatorAcumulado(int linha) {
+        return colunas[FATOR_ACUMULADO].valor(linha);
+    }
+
+    public BigDecimal variacaoPercentual(int linha) {
+        return colunas[VARIACAO_PERCENTUAL].valor(linha);
+    }
+
+    public BigDecimal valorCorrigidoParcial(int linha) {
+        return colunas[VALOR_CORRIGIDO_PARCIAL].valor(linha);
+    }
+
+    public BigDecimal jurosParcial(int linha) {
+        return colunas[JUROS_PARCIAL].valor(linha);
+    }
+
+    public BigDecimal subtotalParcial(int linha) {
+        return colunas[SUBTOTAL_PARCIAL].valor(linha);
+    }
+
+    /**
+     * Reconstrói a lista de linhas, igual à que foi codificada.
+     */
+    public List<DetalhamentoMensalResponse> paraLista() {
+        List<DetalhamentoMensalResponse> linhas = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            linhas.add(DetalhamentoMensalResponse.builder()
+                .competencia(competencia(i))
+                .nomeIndice(nomeIndice(i))
+                .indice(indice(i))
+                .fatorAcumulado(fatorAcumulado(i))
+                .variacaoPercentual(variacaoPercentual(i))
+                .valorCorrigidoParcial(valorCorrigidoParcial(i))
+                .jurosParcial(jurosParcial(i))
+                .subtotalParcial(subtotalParcial(i))
+                .build());
+        }
+        return linhas;
+    }
+
+    /**
+     * Mês desde o ano zero para competências {@code MM - yyyy}, ou -1 fora do padrão.
+     */
+    private static int mesEpoca(String competencia) {
+        if (competencia == null || competencia.length() != 9
+                || competencia.charAt(2) != ' ' || competencia.charAt(3) != '-' || competencia.charAt(4) != ' ') {
+            return -1;
+        }
+        int mes = digitos(competencia, 0, 2);
+        int ano = digitos(competencia, 5, 9);
+        if (mes < 1 || mes > 12 || ano < 1000) {
+            return -1;
+        }
+        return ano * 12 + mes - 1;
+    }
+
+    private static int digitos(String texto, int inicio, int fim) {
+        int valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    private static String formatarMes(int mesEpoca) {
+        int mes = mesEpoca % 12 + 1;
+        int ano = mesEpoca / 12;
+        return new StringBuilder(9)
+            .append(mes < 10 ? "0" : "").append(mes)
+            .append(" - ")
+            .append(ano)
+            .toString();
+    }
+
+    private static void escreverTextos(DataOutputStream out, String[] textos) throws IOException {
+        BitSet nulos = new BitSet(textos.length);
+        for (int i = 0; i < textos.length; i++) {
+            if (textos[i] == null) {
+                nulos.set(i);
+            }
+        }
+        escreverNulos(out, nulos, textos.length);
+        for (String texto : textos) {
+            if (texto != null) {
+                out.writeUTF(texto);
+            }
+        }
+    }
+
+    private static String[] lerTextos(DataInputStream in, int tamanho) throws IOException {
+        BitSet nulos = lerNulos(in, tamanho);
+        String[] textos = new String[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            if (nulos == null || !nulos.get(i)) {
+                textos[i] = in.readUTF();
+            }
+        }
+        return textos;
+    }
+
+    private static void escreverNulos(DataOutputStream out, BitSet nulos, int tamanho) throws IOException {
+        if (nulos.isEmpty()) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        byte[] mapa = new byte[(tamanho + 7) / 8];
+        byte[] bits = nulos.toByteArray();
+        System.arraycopy(bits, 0, mapa, 0, bits.length);
+        out.write(mapa);
+    }
+
+    private static BitSet lerNulos(DataInputStream in, int tamanho) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        byte[] mapa = new byte[(tamanho + 7) / 8];
+        in.readFully(mapa);
+        return BitSet.valueOf(mapa);
+    }
+
+    /**
+     * Coluna numérica: valores não escalados com escala única ou por linha, ou texto.
+     */
+    private static final class Coluna {
+
+        private final int modo;
+        private final BitSet nulos;
+        private final long[] valores;
+        private final int escala;
+        private final byte[] escalas;
+        private final String[] textos;
+
+        private Coluna(int modo, BitSet nulos, long[] valores, int escala, byte[] escalas, String[] textos) {
+            this.modo = modo;
+            this.nulos = nulos;
+            this.valores = valores;
+            this.escala = escala;
+            this.escalas = escalas;
+            this.textos = textos;
+        }
+
+        static Coluna de(List<DetalhamentoMensalResponse> detalhamento,
+                         Function<DetalhamentoMensalResponse, BigDecimal> campo) {
+            int tamanho = detalhamento.size();
+            BitSet nulos = new BitSet(tamanho);
+            long[] valores = new long[tamanho];
+            byte[] escalas = new byte[tamanho];
+            boolean cabeEmLong = true;
+            Integer escalaComum = null;
+            boolean escalaUnica = true;
+
+            for (int i = 0; i < tamanho; i++) {
+                BigDecimal valor = campo.apply(detalhamento.get(i));
+                if (valor == null) {
+                    nulos.set(i);
+                    continue;
+                }
+                if (cabeEmLong) {
+                    if (valor.scale() < Byte.MIN_VALUE || valor.scale() > Byte.MAX_VALUE
+                            || valor.unscaledValue().bitLength() > 63) {
+                        cabeEmLong = false;
+                        continue;
+                    }
+                    valores[i] = valor.unscaledValue().longValue();
+                    escalas[i] = (byte) valor.scale();
+                    if (escalaComum == null) {
+                        escalaComum = valor.scale();
+                    } else if (escalaComum != valor.scale()) {
+                        escalaUnica = false;
+                    }
+                }
+            }
+
+            if (nulos.cardinality() == tamanho) {
+                return new Coluna(COLUNA_NULA, null, null, 0, null, null);
+            }
+            BitSet mapaNulos = nulos.isEmpty() ? null : nulos;
+            if (!cabeEmLong) {
+                String[] textos = new String[tamanho];
+                for (int i = 0; i < tamanho; i++) {
+                    BigDecimal valor = campo.apply(detalhamento.get(i));
+                    textos[i] = valor != null ? valor.toString() : null;
+                }
+                return new Coluna(COLUNA_TEXTO, mapaNulos, null, 0, null, textos);
+            }
+            if (escalaUnica) {
+                return new Coluna(COLUNA_ESCALA_UNICA, mapaNulos, valores, escalaComum, null, null);
+            }
+            return new Coluna(COLUNA_ESCALA_POR_LINHA, mapaNulos, valores, 0, escalas, null);
+        }
+
+        BigDecimal valor(int linha) {
+            if (modo == COLUNA_NULA || (nulos != null && nulos.get(linha))) {
+                return null;
+            }
+            return switch (modo) {
+                case COLUNA_ESCALA_UNICA -> BigDecimal.valueOf(valores[linha], escala);
+                case COLUNA_ESCALA_POR_LINHA -> BigDecimal.valueOf(valores[linha], escalas[linha]);
+                default -> new BigDecimal(textos[linha]);
+            };
+        }
+
+        void escrever(DataOutputStream out, int tamanho) throws IOException {
+            out.writeByte(modo);
+            if (modo == COLUNA_NULA) {
+                return;
+            }
+            if (modo == COLUNA_TEXTO) {
+                escreverTextos(out, textos);
+                return;
+            }
+            escreverNulos(out, nulos != null ? nulos : new BitSet(), tamanho);
+            if (modo == COLUNA_ESCALA_UNICA) {
+                out.writeByte(escala);
+            } else {
+                out.write(escalas);
+            }
+            for (long valor : valores) {
+                out.writeLong(valor);
+            }
+        }
+
+        static Coluna ler(DataInputStream in, int tamanho) throws IOException {
+            int modo = in.readUnsignedByte();
+            switch (modo) {
+                case COLUNA_NULA:
+                    return new Coluna(COLUNA_NULA, null, null, 0, null, null);
+                case COLUNA_TEXTO: {
+                    String[] textos = lerTextos(in, tamanho);
+                    BitSet nulos = new BitSet(tamanho);
+                    for (int i = 0; i < tamanho; i++) {
+                        if (textos[i] == null) {
+                            nulos.set(i);
+                        }
+                    }
+                    return new Coluna(COLUNA_TEXTO, nulos.isEmpty() ? null : nulos, null, 0, null, textos);
+                }
+                case COLUNA_ESCALA_UNICA:
+                case COLUNA_ESCALA_POR_LINHA: {
+                    BitSet nulos = lerNulos(in, tamanho);
+                    int escala = 0;
+                    byte[] escalas = null;
+                    if (modo == COLUNA_ESCALA_UNICA) {
+                        escala = in.readByte();
+                    } else {
+                        escalas = new byte[tamanho];
+                        in.readFully(escalas);
+                    }
+                    long[] valores = new long[tamanho];
+                    for (int i = 0; i < tamanho; i++) {
+                        valores[i] = in.readLong();
+                    }
+                    return new Coluna(modo, nulos, valores, escala, escalas, null);
+                }
+                default:
+                    throw new IllegalArgumentException("Modo de coluna inválido: " + modo);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.calculosjuridicos.repository.ResultadoCalculoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Converte, na inicialização, os resultados que ainda guardam o detalhamento em JSON para o
+ * formato compacto. A conversão é feita em lotes por ordem de ID, uma transação por
+ * resultado; falhas são registradas e o resultado continua legível pelo JSON. A gravação só
+ * ocorre se o resultado não tiver sido recalculado desde a leitura.
+ */
+@Slf4j
+@Component
+public class DetalhamentoLegadoMigracao {
+
+    private final ResultadoCalculoRepository resultadoCalculoRepository;
+    private final DetalhamentoService detalhamentoService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitada;
+    private final int tamanhoLote;
+
+    public DetalhamentoLegadoMigracao(ResultadoCalculoRepository resultadoCalculoRepository,
+                                      DetalhamentoService detalhamentoService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${calculo.detalhamento.migrar-legado:true}") boolean habilitada,
+                                      @Value("${calculo.detalhamento.tamanho-lote-migracao:200}") int tamanhoLote) {
+        this.resultadoCalculoRepository = resultadoCalculoRepository;
+        this.detalhamentoService = detalhamentoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitada = habilitada;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (habilitada) {
+            migrar();
+        }
+    }
+
+    /**
+     * Converte todos os resultados pendentes.
+     *
+     * @return quantidade de resultados convertidos
+     */
+    public int migrar() {
+        int convertidos = 0;
+        int falhas = 0;
+        long ultimoId = 0;
+
+        List<Long> ids;
+        while (!(ids = resultadoCalculoRepository.findIdsComDetalhamentoLegado(ultimoId, PageRequest.of(0, tamanhoLote))).isEmpty()) {
+            for (Long id : ids) {
+                try {
+                    Boolean convertido = transactionTemplate.execute(status -> converter(id));
+                    if (Boolean.TRUE.equals(convertido)) {
+                        convertidos++;
+                    }
+                } catch (RuntimeException e) {
+                    falhas++;
+                    log.warn("Não foi possível converter o detalhamento do resultado {}: {}", id, e.getMessage());
+                }
+            }
+            ultimoId = ids.get(ids.size() - 1);
+        }
+
+        if (convertidos > 0 || falhas > 0) {
+            log.info("Detalhamentos convertidos para o formato compacto: {} (falhas: {})", convertidos, falhas);
+        }
+        return convertidos;
+    }
+
+    private boolean converter(Long id) {
+        ResultadoCalculo resultado = resultadoCalculoRepository.findById(id).orElse(null);
+        if (resultado == null || resultado.getDetalhamentoCompacto() != null || resultado.getDetalhamentoJson() == null) {
+            return false;
+        }
+        byte[] compacto = detalhamentoService.codificar(detalhamentoService.lerJson(resultado));
+        // Escrita condicional: se o cálculo foi executado desde a leitura, o resultado novo é mantido
+        return resultadoCalculoRepository.converterDetalhamentoLegado(id, resultado.getVersao(), compacto) > 0;
+    }
+}
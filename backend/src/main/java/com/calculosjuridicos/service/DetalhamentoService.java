@@ -0,0 +1,90 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse.DetalhamentoMensalResponse;
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Gravação e leitura do detalhamento mensal persistido em {@link ResultadoCalculo}.
+ *
+ * Resultados novos são gravados no formato {@link DetalhamentoCompacto}; resultados antigos,
+ * ainda com {@code detalhamento_json}, continuam legíveis até serem convertidos por
+ * {@link DetalhamentoLegadoMigracao}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DetalhamentoService {
+
+    private static final TypeReference<List<DetalhamentoMensalResponse>> TIPO_LISTA = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Grava o detalhamento no formato compacto, descartando o JSON legado.
+     */
+    public void gravar(ResultadoCalculo resultado, List<DetalhamentoMensalResponse> detalhamento) {
+        resultado.setDetalhamentoCompacto(codificar(detalhamento));
+        resultado.setDetalhamentoJson(null);
+    }
+
+    /**
+     * Codifica o detalhamento no formato compacto, ou {@code null} se não houver.
+     */
+    public byte[] codificar(List<DetalhamentoMensalResponse> detalhamento) {
+        return detalhamento != null ? DetalhamentoCompacto.de(detalhamento).codificar() : null;
+    }
+
+    public boolean possuiDetalhamento(ResultadoCalculo resultado) {
+        return resultado.getDetalhamentoCompacto() != null || resultado.getDetalhamentoJson() != null;
+    }
+
+    /**
+     * Lê o detalhamento em qualquer um dos formatos, ou {@code null} se não houver.
+     *
+     * @throws IllegalStateException se o conteúdo gravado não puder ser lido
+     */
+    public DetalhamentoCompacto ler(ResultadoCalculo resultado) {
+        if (resultado.getDetalhamentoCompacto() != null) {
+            try {
+                return DetalhamentoCompacto.decodificar(resultado.getDetalhamentoCompacto());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Detalhamento do resultado " + resultado.getId() + " ilegível", e);
+            }
+        }
+        if (resultado.getDetalhamentoJson() != null) {
+            return DetalhamentoCompacto.de(lerJson(resultado));
+        }
+        return null;
+    }
+
+    /**
+     * Detalhamento serializado como array JSON, formato exposto pela API.
+     */
+    public String comoJson(ResultadoCalculo resultado) {
+        if (resultado.getDetalhamentoCompacto() == null) {
+            return resultado.getDetalhamentoJson();
+        }
+        try {
+            return objectMapper.writeValueAsString(ler(resultado).paraLista());
+        } catch (JsonProcessingException | IllegalStateException e) {
+            log.warn("Erro ao serializar detalhamento: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    List<DetalhamentoMensalResponse> lerJson(ResultadoCalculo resultado) {
+        try {
+            return objectMapper.readValue(resultado.getDetalhamentoJson(), TIPO_LISTA);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Detalhamento JSON do resultado " + resultado.getId() + " ilegível", e);
+        }
+    }
+}
@@ -5,8 +5,6 @@ import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
 import com.calculosjuridicos.dto.response.ResultadoCalculoResponse.DetalhamentoMensalResponse;
 import com.calculosjuridicos.entity.TabelaIndice;
 import com.calculosjuridicos.entity.ValorIndice;
-import com.calculosjuridicos.exception.BusinessException;
-import com.calculosjuridicos.repository.TabelaIndiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,7 +16,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Serviço especializado para cálculos de condenação da Fazenda Pública Federal.
@@ -47,49 +49,22 @@ import java.util.List;
 public class FazendaPublicaCalculoService {
 
     private final CorrecaoMonetariaService correcaoService;
-    private final TabelaIndiceRepository tabelaIndiceRepository;
+    private final TabelaIndiceRegistry tabelaIndiceRegistry;
 
     private static final BigDecimal CEM = new BigDecimal("100");
+    private static final BigDecimal DOZE = new BigDecimal("12");
     private static final int PRECISION = 10;
     private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
     private static final DateTimeFormatter COMPETENCIA_FORMAT = DateTimeFormatter.ofPattern("MM - yyyy");
 
-    // Marcos legislativos
-    private static final LocalDate MARCO_INPC_IPCAE = LocalDate.of(1992, 1, 1);   // Transição INPC → IPCA-E
-    private static final LocalDate MARCO_LEI_11960 = LocalDate.of(2009, 7, 1);     // Lei 11.960/2009
-    private static final LocalDate MARCO_EC_113 = LocalDate.of(2021, 12, 9);       // EC 113/2021
-    private static final LocalDate MARCO_EC_136 = LocalDate.of(2025, 10, 1);       // EC 136/2025
-
-    // Taxas de juros
-    private static final BigDecimal TAXA_1_PERCENT_MENSAL = new BigDecimal("1.0");
-    private static final BigDecimal TAXA_POUPANCA_MENSAL = new BigDecimal("0.5");
-    private static final BigDecimal TAXA_2_AA = new BigDecimal("2.0");
-
     /**
      * Executa o cálculo completo de condenação da Fazenda Pública.
      */
     public ResultadoCalculoResponse calcular(CalculoRequest request) {
-        LocalDate dataInicial = request.getDataInicial();
-        LocalDate dataFinal = request.getDataFinal();
-        BigDecimal valorOriginal = request.getValorPrincipal();
-
-        boolean isRpv = Boolean.TRUE.equals(request.getRpvPrecatorio());
-        LocalDate dataEmissaoRpv = request.getDataEmissaoRpvPrecatorio();
-
-        // Buscar IDs dos índices no banco
-        Long inpcId = buscarIdIndice(TabelaIndice.INPC);
-        Long ipcaeId = buscarIdIndice(TabelaIndice.IPCA_E);
-        Long selicId = buscarIdIndice(TabelaIndice.SELIC);
-
-        // Gerar detalhamento mensal com índices variáveis
-        List<DetalhamentoMensalResponse> detalhamento = gerarDetalhamentoMensal(
-                valorOriginal, dataInicial, dataFinal,
-                inpcId, ipcaeId, selicId,
-                isRpv, dataEmissaoRpv
-        );
+        List<DetalhamentoMensalResponse> detalhamento = gerarMemorial(request);
 
         // Extrair totais do último mês do detalhamento
-        BigDecimal totalCorrigido = valorOriginal;
+        BigDecimal totalCorrigido = request.getValorPrincipal();
         BigDecimal totalJuros = BigDecimal.ZERO;
 
         if (!detalhamento.isEmpty()) {
@@ -98,6 +73,78 @@ public class FazendaPublicaCalculoService {
             totalJuros = ultimo.getJurosParcial();
         }
 
+        return montarResultado(request, totalCorrigido, totalJuros, detalhamento);
+    }
+
+    /**
+     * Calcula os totais do pedido para cada data final, na ordem informada, sem o detalhamento mensal.
+     *
+     * O memorial é percorrido uma única vez, até a maior data final. Cada mês depende apenas dos
+     * anteriores (os segmentos, a contagem dos juros e o teto SELIC não dependem da data final),
+     * então a linha da competência de cada data traz os mesmos totais de {@link #calcular} com essa data.
+     */
+    public List<ResultadoCalculoResponse> calcularPorDatasFinais(CalculoRequest request, List<LocalDate> datasFinais) {
+        LocalDate maiorDataFinal = datasFinais.stream().max(LocalDate::compareTo).orElseThrow();
+        List<DetalhamentoMensalResponse> memorial = gerarMemorial(request.toBuilder().dataFinal(maiorDataFinal).build());
+        LocalDate competenciaInicial = request.getDataInicial().withDayOfMonth(1);
+
+        List<ResultadoCalculoResponse> resultados = new ArrayList<>(datasFinais.size());
+        for (LocalDate dataFinal : datasFinais) {
+            BigDecimal totalCorrigido = request.getValorPrincipal();
+            BigDecimal totalJuros = BigDecimal.ZERO;
+
+            // Uma linha por competência a partir da inicial
+            long mes = ChronoUnit.MONTHS.between(competenciaInicial, dataFinal.withDayOfMonth(1));
+            if (mes >= 0) {
+                DetalhamentoMensalResponse linha = memorial.get((int) mes);
+                totalCorrigido = linha.getValorCorrigidoParcial();
+                totalJuros = linha.getJurosParcial();
+            }
+
+            resultados.add(montarResultado(request, totalCorrigido, totalJuros, List.of()));
+        }
+        return resultados;
+    }
+
+    /**
+     * Gera o memorial mensal do período do pedido, carregando cada série usada uma única vez.
+     */
+    private List<DetalhamentoMensalResponse> gerarMemorial(CalculoRequest request) {
+        LocalDate dataInicial = request.getDataInicial();
+        LocalDate dataFinal = request.getDataFinal();
+
+        PlanoRegimes plano = compilarPlano(request);
+        Map<String, Long> idsIndices = buscarIdsIndices();
+        Long selicId = idsIndices.get(TabelaIndice.SELIC);
+
+        // Carregar cada série usada pelo plano uma única vez para todo o período
+        Map<String, Map<LocalDate, BigDecimal>> series = new HashMap<>();
+        for (PlanoRegimes.Segmento segmento : plano.getSegmentos()) {
+            series.computeIfAbsent(segmento.regime().getIndice(),
+                    nome -> carregarSerie(idsIndices.get(nome), dataInicial, dataFinal));
+        }
+        if (plano.getMarcoEmissao() != null) {
+            series.computeIfAbsent(TabelaIndice.SELIC, nome -> carregarSerie(selicId, dataInicial, dataFinal));
+        }
+
+        // Gerar detalhamento mensal com índices variáveis
+        return gerarDetalhamentoMensal(request.getValorPrincipal(), dataInicial, plano, series, selicId);
+    }
+
+    private PlanoRegimes compilarPlano(CalculoRequest request) {
+        return PlanoRegimes.compilar(request.getDataInicial(), request.getDataFinal(),
+                Boolean.TRUE.equals(request.getRpvPrecatorio()), request.getDataEmissaoRpvPrecatorio());
+    }
+
+    /**
+     * Aplica multa e honorários sobre os totais e monta a resposta.
+     */
+    private ResultadoCalculoResponse montarResultado(CalculoRequest request,
+                                                     BigDecimal totalCorrigido,
+                                                     BigDecimal totalJuros,
+                                                     List<DetalhamentoMensalResponse> detalhamento) {
+        BigDecimal valorOriginal = request.getValorPrincipal();
+
         // Subtotal (corrigido + juros)
         BigDecimal subtotal = totalCorrigido.add(totalJuros);
 
@@ -147,96 +194,65 @@ public class FazendaPublicaCalculoService {
     }
 
     /**
-     * Gera o detalhamento mensal com índices que mudam conforme a legislação.
+     * Gera o detalhamento mensal percorrendo os segmentos do plano de regimes.
      * Cobre o período de 1984 ao presente.
      *
-     * Se isRpv=true e dataEmissaoRpv != null, a transição SELIC → IPCA+2% ocorre
-     * na data de emissão do RPV/Precatório ao invés de EC 136 (10/2025).
+     * Com RPV/Precatório emitido, a transição SELIC → IPCA+2% ocorre na data de emissão
+     * (ver {@link PlanoRegimes#compilar}).
      */
     private List<DetalhamentoMensalResponse> gerarDetalhamentoMensal(
             BigDecimal valorOriginal,
             LocalDate dataInicial,
-            LocalDate dataFinal,
-            Long inpcId,
-            Long ipcaeId,
-            Long selicId,
-            boolean isRpv,
-            LocalDate dataEmissaoRpv) {
+            PlanoRegimes plano,
+            Map<String, Map<LocalDate, BigDecimal>> series,
+            Long selicId) {
 
         List<DetalhamentoMensalResponse> detalhamento = new ArrayList<>();
 
-        // Iterar mês a mês
-        LocalDate competencia = dataInicial.withDayOfMonth(1);
-        LocalDate competenciaFinal = dataFinal.withDayOfMonth(1);
-
         BigDecimal valorCorrigidoAcumulado = valorOriginal;
         BigDecimal jurosAcumulados = BigDecimal.ZERO;
-        BigDecimal indiceAnteriorInpc = null;
-        BigDecimal indiceAnteriorIpcae = null;
-        BigDecimal indiceAnteriorSelic = null;
-        LocalDate competenciaAnteriorInpc = null;
-        LocalDate competenciaAnteriorIpcae = null;
-        LocalDate competenciaAnteriorSelic = null;
-
-        while (!competencia.isAfter(competenciaFinal)) {
-            LocalDate dataRef = competencia;
-            String nomeIndice;
-            BigDecimal valorCorrigidoMes;
-            BigDecimal jurosMes;
-            BigDecimal variacaoPercentual = null;
-            BigDecimal indiceValor = null;
-            BigDecimal fatorAcumulado = BigDecimal.ONE;
-
-            // ═══ Regime especial RPV/Precatório ═══
-            // Quando há emissão de RPV/Precatório:
-            //   - Até a data de emissão: SELIC (taxa unificada)
-            //   - A partir da data de emissão: IPCA + 2% a.a. (limitado à SELIC)
-            if (isRpv && dataEmissaoRpv != null) {
-                LocalDate marcoEmissao = dataEmissaoRpv.withDayOfMonth(1);
-
-                if (dataRef.isBefore(marcoEmissao)) {
-                    // ═══ Antes da emissão: SELIC unificada ═══
-                    BigDecimal baseSelicMes = valorCorrigidoAcumulado;
-                    if (competencia.equals(dataInicial.withDayOfMonth(1)) || indiceAnteriorSelic == null) {
-                        // Primeiro mês ou entrada na SELIC: base é o valor acumulado
-                    } else if (jurosAcumulados.compareTo(BigDecimal.ZERO) > 0 && indiceAnteriorSelic == null) {
-                        baseSelicMes = baseSelicMes.add(jurosAcumulados);
-                    }
-                    nomeIndice = "SELIC";
-                    BigDecimal[] resultadoSelic = calcularMesIndice(baseSelicMes,
-                            competencia, selicId, indiceAnteriorSelic, competenciaAnteriorSelic);
-                    valorCorrigidoMes = resultadoSelic[0];
-                    variacaoPercentual = resultadoSelic[1];
-                    indiceValor = resultadoSelic[2];
-                    indiceAnteriorSelic = indiceValor;
-                    if (indiceValor != null) {
-                        competenciaAnteriorSelic = competencia;
-                    }
-                    jurosMes = BigDecimal.ZERO; // SELIC já inclui juros
-
-                } else {
-                    // ═══ Após emissão: IPCA + 2% a.a. (limitado à SELIC) ═══
-                    nomeIndice = "IPCA + 2%";
-                    BigDecimal[] resultadoIpca = calcularMesIndice(valorCorrigidoAcumulado,
-                            competencia, ipcaeId, indiceAnteriorIpcae, competenciaAnteriorIpcae);
-                    valorCorrigidoMes = resultadoIpca[0];
-                    variacaoPercentual = resultadoIpca[1];
-                    indiceValor = resultadoIpca[2];
-                    indiceAnteriorIpcae = indiceValor;
-                    if (indiceValor != null) {
-                        competenciaAnteriorIpcae = competencia;
-                    }
+        Map<String, EstadoSerie> estados = new HashMap<>();
+
+        TetoSelic tetoSelic = plano.getMarcoEmissao() != null
+                ? new TetoSelic(valorOriginal, dataInicial, series.get(TabelaIndice.SELIC), selicId)
+                : null;
+
+        for (PlanoRegimes.Segmento segmento : plano.getSegmentos()) {
+            PlanoRegimes.Regime regime = segmento.regime();
+            Map<LocalDate, BigDecimal> serie = series.get(regime.getIndice());
+            EstadoSerie estado = estados.computeIfAbsent(regime.getIndice(), nome -> new EstadoSerie());
+
+            for (LocalDate competencia = segmento.inicio(); !competencia.isAfter(segmento.fim());
+                 competencia = competencia.plusMonths(1)) {
+                String nomeIndice = regime.getNomeExibicao();
+                BigDecimal fatorAcumulado = BigDecimal.ONE;
+
+                BigDecimal baseMes = valorCorrigidoAcumulado;
+                if (regime.getRegraJuros() == PlanoRegimes.RegraJuros.INCLUSO_NA_SELIC
+                        && competencia.equals(segmento.inicio())
+                        && jurosAcumulados.compareTo(BigDecimal.ZERO) > 0) {
+                    // Na migração para a SELIC unificada (EC 113/2021), a base deve carregar
+                    // o subtotal acumulado do mês anterior (correção + juros já apurados).
+                    baseMes = baseMes.add(jurosAcumulados);
+                }
 
-                    // Juros: 2% a.a. simples sobre o principal, contados a partir da emissão
-                    long mesesDesdeEmissao = ChronoUnit.MONTHS.between(marcoEmissao, competencia) + 1;
-                    jurosMes = valorOriginal.multiply(TAXA_2_AA)
-                            .divide(CEM, PRECISION, ROUNDING)
-                            .multiply(new BigDecimal(mesesDesdeEmissao))
-                            .divide(new BigDecimal("12"), 2, ROUNDING);
+                BigDecimal[] resultadoMes = calcularMesIndice(baseMes, competencia, serie,
+                        estado.indiceAnterior, estado.competenciaAnterior);
+                BigDecimal valorCorrigidoMes = resultadoMes[0];
+                BigDecimal variacaoPercentual = resultadoMes[1];
+                BigDecimal indiceValor = resultadoMes[2];
+                estado.indiceAnterior = indiceValor;
+                if (indiceValor != null) {
+                    estado.competenciaAnterior = competencia;
+                }
+
+                BigDecimal jurosMes = calcularJurosSegmento(plano, regime, valorOriginal,
+                        valorCorrigidoMes, competencia);
 
+                if (regime.getRegraJuros() == PlanoRegimes.RegraJuros.ANUAL_LIMITADO_SELIC) {
                     // Limitar: se IPCA + juros > SELIC, usar SELIC
                     BigDecimal totalIpcaJuros = valorCorrigidoMes.add(jurosMes);
-                    BigDecimal totalSelic = calcularValorSelic(valorOriginal, dataInicial, competencia, selicId);
+                    BigDecimal totalSelic = tetoSelic.valorAte(competencia);
                     if (totalSelic != null && totalIpcaJuros.compareTo(totalSelic) > 0) {
                         valorCorrigidoMes = totalSelic;
                         jurosMes = BigDecimal.ZERO;
@@ -244,132 +260,66 @@ public class FazendaPublicaCalculoService {
                     }
                 }
 
-            // ═══ Regime padrão (sem RPV/Precatório) ═══
-            // Sem RPV: SELIC continua sendo aplicada após EC 113/2021.
-            // A transição para IPCA + 2% SÓ ocorre quando há emissão de RPV/Precatório.
-            } else if (!dataRef.isBefore(MARCO_EC_113.withDayOfMonth(1))) {
-                // ═══ EC 113/2021: SELIC unificada (correção + juros) ═══
-                BigDecimal baseSelicMes = valorCorrigidoAcumulado;
-                if (deveIncorporarJurosNaEntradaDaSelic(competencia, jurosAcumulados)) {
-                    baseSelicMes = baseSelicMes.add(jurosAcumulados);
-                }
-                nomeIndice = "SELIC";
-                BigDecimal[] resultadoSelic = calcularMesIndice(baseSelicMes,
-                        competencia, selicId, indiceAnteriorSelic, competenciaAnteriorSelic);
-                valorCorrigidoMes = resultadoSelic[0];
-                variacaoPercentual = resultadoSelic[1];
-                indiceValor = resultadoSelic[2];
-                indiceAnteriorSelic = indiceValor;
-                if (indiceValor != null) {
-                    competenciaAnteriorSelic = competencia;
-                }
-                jurosMes = BigDecimal.ZERO; // SELIC já inclui juros
-
-            } else if (!dataRef.isBefore(MARCO_INPC_IPCAE.withDayOfMonth(1))) {
-                // ═══ 01/1992 a 08/12/2021: IPCA-E para correção + juros separados ═══
-                nomeIndice = "IPCA-E";
-                BigDecimal[] resultadoIpca = calcularMesIndice(valorCorrigidoAcumulado,
-                        competencia, ipcaeId, indiceAnteriorIpcae, competenciaAnteriorIpcae);
-                valorCorrigidoMes = resultadoIpca[0];
-                variacaoPercentual = resultadoIpca[1];
-                indiceValor = resultadoIpca[2];
-                indiceAnteriorIpcae = indiceValor;
-                if (indiceValor != null) {
-                    competenciaAnteriorIpcae = competencia;
-                }
-
-                // Calcular juros simplificados
-                jurosMes = calcularJurosSimplificado(valorOriginal, valorCorrigidoMes,
-                        dataInicial, competencia);
-
-            } else {
-                // ═══ Antes de 01/1992: INPC para correção + juros separados ═══
-                nomeIndice = "INPC";
-                BigDecimal[] resultadoInpc = calcularMesIndice(valorCorrigidoAcumulado,
-                        competencia, inpcId, indiceAnteriorInpc, competenciaAnteriorInpc);
-                valorCorrigidoMes = resultadoInpc[0];
-                variacaoPercentual = resultadoInpc[1];
-                indiceValor = resultadoInpc[2];
-                indiceAnteriorInpc = indiceValor;
-                if (indiceValor != null) {
-                    competenciaAnteriorInpc = competencia;
+                // Fator acumulado
+                if (valorOriginal.compareTo(BigDecimal.ZERO) > 0) {
+                    fatorAcumulado = valorCorrigidoMes.divide(valorOriginal, 6, ROUNDING);
                 }
 
-                // Calcular juros simplificados
-                jurosMes = calcularJurosSimplificado(valorOriginal, valorCorrigidoMes,
-                        dataInicial, competencia);
-            }
-
-            // Fator acumulado
-            if (valorOriginal.compareTo(BigDecimal.ZERO) > 0) {
-                fatorAcumulado = valorCorrigidoMes.divide(valorOriginal, 6, ROUNDING);
+                valorCorrigidoAcumulado = valorCorrigidoMes;
+                jurosAcumulados = jurosMes;
+
+                detalhamento.add(DetalhamentoMensalResponse.builder()
+                        .competencia(competencia.format(COMPETENCIA_FORMAT))
+                        .nomeIndice(nomeIndice)
+                        .indice(indiceValor)
+                        .fatorAcumulado(fatorAcumulado)
+                        .variacaoPercentual(variacaoPercentual)
+                        .valorCorrigidoParcial(valorCorrigidoMes.setScale(2, ROUNDING))
+                        .jurosParcial(jurosMes.setScale(2, ROUNDING))
+                        .subtotalParcial(valorCorrigidoMes.add(jurosMes).setScale(2, ROUNDING))
+                        .build());
             }
-
-            valorCorrigidoAcumulado = valorCorrigidoMes;
-            jurosAcumulados = jurosMes;
-
-            detalhamento.add(DetalhamentoMensalResponse.builder()
-                    .competencia(competencia.format(COMPETENCIA_FORMAT))
-                    .nomeIndice(nomeIndice)
-                    .indice(indiceValor)
-                    .fatorAcumulado(fatorAcumulado)
-                    .variacaoPercentual(variacaoPercentual)
-                    .valorCorrigidoParcial(valorCorrigidoMes.setScale(2, ROUNDING))
-                    .jurosParcial(jurosMes.setScale(2, ROUNDING))
-                    .subtotalParcial(valorCorrigidoMes.add(jurosMes).setScale(2, ROUNDING))
-                    .build());
-
-            competencia = competencia.plusMonths(1);
         }
 
         return detalhamento;
     }
 
+    /**
+     * Último índice usado de uma série e a competência em que foi lido.
+     */
+    private static final class EstadoSerie {
+        private BigDecimal indiceAnterior;
+        private LocalDate competenciaAnterior;
+    }
+
     /**
      * Calcula valor corrigido por um índice genérico (IPCA-E ou INPC) para um mês específico.
      * Retorna array: [valorCorrigido, variacaoPercentual, indiceValor]
      */
     private BigDecimal[] calcularMesIndice(BigDecimal valorAcumuladoAnterior,
-                                            LocalDate competencia, Long indiceId,
+                                            LocalDate competencia, Map<LocalDate, BigDecimal> serie,
                                             BigDecimal indiceAnterior,
                                             LocalDate competenciaAnteriorSerie) {
         BigDecimal valorCorrigido = valorAcumuladoAnterior;
         BigDecimal variacaoPercentual = null;
-        BigDecimal indiceValor = null;
-
-        try {
-            List<ValorIndice> indices = correcaoService.obterIndicesNoPeriodo(indiceId, competencia, competencia);
-            if (!indices.isEmpty()) {
-                indiceValor = indices.get(0).getValor();
-
-                BigDecimal indiceBaseVariacao = resolverIndiceBaseVariacao(
-                        indiceId, competencia, indiceAnterior, competenciaAnteriorSerie);
-                if (indiceBaseVariacao != null && indiceBaseVariacao.compareTo(BigDecimal.ZERO) > 0) {
-                    // Variação mensal
-                    BigDecimal fatorMensal = indiceValor.divide(indiceBaseVariacao, PRECISION, ROUNDING);
-                    valorCorrigido = valorAcumuladoAnterior.multiply(fatorMensal).setScale(2, ROUNDING);
-                    variacaoPercentual = fatorMensal.subtract(BigDecimal.ONE)
-                            .multiply(CEM).setScale(4, ROUNDING);
-                }
+        BigDecimal indiceValor = serie.get(competencia);
+
+        if (indiceValor != null) {
+            BigDecimal indiceBaseVariacao = resolverIndiceBaseVariacao(
+                    serie, competencia, indiceAnterior, competenciaAnteriorSerie);
+            if (indiceBaseVariacao != null && indiceBaseVariacao.compareTo(BigDecimal.ZERO) > 0) {
+                // Variação mensal
+                BigDecimal fatorMensal = indiceValor.divide(indiceBaseVariacao, PRECISION, ROUNDING);
+                valorCorrigido = valorAcumuladoAnterior.multiply(fatorMensal).setScale(2, ROUNDING);
+                variacaoPercentual = fatorMensal.subtract(BigDecimal.ONE)
+                        .multiply(CEM).setScale(4, ROUNDING);
             }
-        } catch (Exception e) {
-            log.warn("Erro ao buscar índice para {}: {}", competencia, e.getMessage());
         }
 
         return new BigDecimal[]{valorCorrigido, variacaoPercentual, indiceValor};
     }
 
-    private boolean deveIncorporarJurosNaEntradaDaSelic(LocalDate competencia, BigDecimal jurosAcumulados) {
-        if (jurosAcumulados == null || jurosAcumulados.compareTo(BigDecimal.ZERO) <= 0) {
-            return false;
-        }
-
-        // Na migração para a SELIC unificada (EC 113/2021), a base deve carregar
-        // o subtotal acumulado do mês anterior (correção + juros já apurados).
-        return MARCO_EC_113.withDayOfMonth(1).equals(competencia);
-    }
-
-    private BigDecimal resolverIndiceBaseVariacao(Long indiceId,
+    private BigDecimal resolverIndiceBaseVariacao(Map<LocalDate, BigDecimal> serie,
                                                   LocalDate competencia,
                                                   BigDecimal indiceAnterior,
                                                   LocalDate competenciaAnteriorSerie) {
@@ -381,68 +331,122 @@ public class FazendaPublicaCalculoService {
             return indiceAnterior;
         }
 
-        LocalDate competenciaAnteriorEsperada = competencia.minusMonths(1);
+        // Fallback: sem índice base para fechar o gap, mantém o valor sem variação neste mês.
+        return serie.get(competencia.minusMonths(1));
+    }
+
+    /**
+     * Carrega os valores de uma série para todo o período do cálculo, indexados por competência.
+     */
+    private Map<LocalDate, BigDecimal> carregarSerie(Long indiceId, LocalDate dataInicial, LocalDate dataFinal) {
+        Map<LocalDate, BigDecimal> serie = new LinkedHashMap<>();
         try {
-            List<ValorIndice> indiceMesAnterior = correcaoService.obterIndicesNoPeriodo(
-                    indiceId, competenciaAnteriorEsperada, competenciaAnteriorEsperada);
-            if (!indiceMesAnterior.isEmpty()) {
-                return indiceMesAnterior.get(0).getValor();
+            for (ValorIndice valor : correcaoService.obterIndicesNoPeriodo(indiceId, dataInicial, dataFinal)) {
+                serie.put(valor.getCompetencia(), valor.getValor());
             }
         } catch (Exception e) {
-            log.warn("Erro ao buscar índice-base para {}: {}", competenciaAnteriorEsperada, e.getMessage());
+            log.warn("Erro ao buscar índices {} entre {} e {}: {}", indiceId, dataInicial, dataFinal, e.getMessage());
         }
-
-        // Fallback: sem índice base para fechar o gap, mantém o valor sem variação neste mês.
-        return null;
+        return serie;
     }
 
     /**
-     * Calcula juros moratórios simplificados (sem diferenciação por natureza).
+     * Calcula os juros moratórios acumulados até a competência, conforme a regra do regime.
      *
-     * - Antes de 07/2009: 1% a.m. simples (Art. 406 CC/2002)
-     * - 07/2009 a 08/12/2021: 0,5% a.m. simples (Lei 11.960/2009 - poupança)
-     * (EC 113+ e EC 136+ são tratados separadamente no fluxo principal)
+     * - Juros legais (até 08/12/2021): taxa mensal simples sobre o valor corrigido,
+     *   contada desde a data inicial (1% a.m. até 06/2009, 0,5% a.m. a partir de 07/2009)
+     * - SELIC unificada: juros já embutidos na taxa
+     * - IPCA + 2%: 2% a.a. simples sobre o principal, contados a partir da emissão
      */
-    private BigDecimal calcularJurosSimplificado(BigDecimal valorOriginal, BigDecimal valorCorrigido,
-                                                   LocalDate dataInicial, LocalDate competencia) {
-        long meses = ChronoUnit.MONTHS.between(dataInicial.withDayOfMonth(1), competencia) + 1;
-        if (meses <= 0) return BigDecimal.ZERO;
-
-        BigDecimal taxa;
-        if (competencia.isBefore(MARCO_LEI_11960)) {
-            // Antes de 07/2009: 1% a.m. simples
-            taxa = TAXA_1_PERCENT_MENSAL;
-        } else {
-            // 07/2009 a 08/12/2021: 0,5% a.m. simples (poupança)
-            taxa = TAXA_POUPANCA_MENSAL;
+    private BigDecimal calcularJurosSegmento(PlanoRegimes plano, PlanoRegimes.Regime regime,
+                                             BigDecimal valorOriginal, BigDecimal valorCorrigido,
+                                             LocalDate competencia) {
+        long meses = plano.mesesJuros(regime, competencia);
+        switch (regime.getRegraJuros()) {
+            case MENSAL_SOBRE_CORRIGIDO:
+                return valorCorrigido.multiply(regime.getTaxaJuros())
+                        .divide(CEM, PRECISION, ROUNDING)
+                        .multiply(new BigDecimal(meses))
+                        .setScale(2, ROUNDING);
+            case ANUAL_LIMITADO_SELIC:
+                return valorOriginal.multiply(regime.getTaxaJuros())
+                        .divide(CEM, PRECISION, ROUNDING)
+                        .multiply(new BigDecimal(meses))
+                        .divide(DOZE, 2, ROUNDING);
+            default:
+                return BigDecimal.ZERO;
         }
-
-        return valorCorrigido.multiply(taxa)
-                .divide(CEM, PRECISION, ROUNDING)
-                .multiply(new BigDecimal(meses))
-                .setScale(2, ROUNDING);
     }
 
     /**
-     * Calcula valor atualizado pela SELIC (taxa unificada).
+     * Valor atualizado pela SELIC (taxa unificada) desde a data inicial, usado como teto
+     * do regime IPCA + 2% após a emissão do RPV/Precatório.
+     *
+     * Equivale a correcaoService.calcular(valorOriginal, dataInicial, fim da competência, selicId):
+     * o índice-base é fixo e o índice final avança pela série já carregada, de modo que
+     * consultar o teto em competências crescentes custa O(1) por mês.
      */
-    private BigDecimal calcularValorSelic(BigDecimal valorOriginal, LocalDate dataInicial,
-                                           LocalDate competencia, Long selicId) {
+    private final class TetoSelic {
+
+        private final BigDecimal valorOriginal;
+        private final BigDecimal indiceBase;
+        private final Iterator<Map.Entry<LocalDate, BigDecimal>> proximosIndices;
+        private Map.Entry<LocalDate, BigDecimal> proximoIndice;
+        private BigDecimal indiceAtual;
+
+        TetoSelic(BigDecimal valorOriginal, LocalDate dataInicial,
+                  Map<LocalDate, BigDecimal> serieSelic, Long selicId) {
+            LocalDate competenciaInicial = dataInicial.withDayOfMonth(1);
+            this.valorOriginal = valorOriginal;
+            this.indiceBase = buscarIndiceAte(selicId, competenciaInicial.minusMonths(1));
+            this.indiceAtual = buscarIndiceAte(selicId, competenciaInicial.minusDays(1));
+            this.proximosIndices = serieSelic.entrySet().iterator();
+            this.proximoIndice = proximosIndices.hasNext() ? proximosIndices.next() : null;
+        }
+
+        BigDecimal valorAte(LocalDate competencia) {
+            while (proximoIndice != null && !proximoIndice.getKey().isAfter(competencia)) {
+                indiceAtual = proximoIndice.getValue();
+                proximoIndice = proximosIndices.hasNext() ? proximosIndices.next() : null;
+            }
+
+            return calcularTetoSelic(valorOriginal, indiceBase, indiceAtual);
+        }
+    }
+
+    private BigDecimal calcularTetoSelic(BigDecimal valorOriginal, BigDecimal indiceBase, BigDecimal indiceAtual) {
+        if (valorOriginal == null || valorOriginal.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        if (indiceBase == null || indiceAtual == null) {
+            return null;
+        }
+
         try {
-            return correcaoService.calcular(valorOriginal, dataInicial, competencia.plusMonths(1).minusDays(1), selicId);
+            return correcaoService.calcularComIndices(valorOriginal, indiceBase, indiceAtual);
         } catch (Exception e) {
-            log.warn("Erro ao calcular SELIC para {}: {}", competencia, e.getMessage());
+            log.warn("Erro ao calcular SELIC até o índice {}: {}", indiceAtual, e.getMessage());
+            return null;
+        }
+    }
+
+    private BigDecimal buscarIndiceAte(Long indiceId, LocalDate competencia) {
+        try {
+            return correcaoService.obterIndiceAte(indiceId, competencia).orElse(null);
+        } catch (Exception e) {
+            log.warn("Erro ao buscar índice {} para {}: {}", indiceId, competencia, e.getMessage());
             return null;
         }
     }
 
     /**
-     * Busca o ID de um índice pelo nome.
+     * Busca os IDs dos índices usados pelos regimes da Fazenda Pública.
      */
-    private Long buscarIdIndice(String nome) {
-        TabelaIndice tabela = tabelaIndiceRepository.findByNome(nome)
-                .orElseThrow(() -> new BusinessException(
-                        "Índice '" + nome + "' não encontrado. Verifique se os índices estão cadastrados no sistema."));
-        return tabela.getId();
+    private Map<String, Long> buscarIdsIndices() {
+        Map<String, Long> ids = new LinkedHashMap<>();
+        for (String nome : List.of(TabelaIndice.INPC, TabelaIndice.IPCA_E, TabelaIndice.SELIC)) {
+            ids.put(nome, tabelaIndiceRegistry.obterId(nome));
+        }
+        return ids;
     }
 }
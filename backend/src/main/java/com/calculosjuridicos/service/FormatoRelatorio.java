@@ -0,0 +1,41 @@
+package com.calculosjuridicos.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de relatório aceitos no parâmetro {@code formato} dos endpoints de relatório.
+ */
+public enum FormatoRelatorio {
+
+    PDF("pdf", MediaType.APPLICATION_PDF_VALUE),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+
+    private final String extensao;
+    private final String contentType;
+
+    FormatoRelatorio(String extensao, String contentType) {
+        this.extensao = extensao;
+        this.contentType = contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Aceita a extensão ou o nome do aplicativo ("excel", "word"); qualquer outro valor é PDF.
+     */
+    public static FormatoRelatorio de(String formato) {
+        if ("xlsx".equalsIgnoreCase(formato) || "excel".equalsIgnoreCase(formato)) {
+            return XLSX;
+        } else if ("docx".equalsIgnoreCase(formato) || "word".equalsIgnoreCase(formato)) {
+            return DOCX;
+        }
+        return PDF;
+    }
+}
@@ -0,0 +1,90 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.response.EstatisticasCacheResponse;
+import com.calculosjuridicos.entity.TabelaIndice;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache de segundo nível do Hibernate para as tabelas de índices.
+ *
+ * Os valores não são cacheados: as séries são lidas inteiras por consulta e mantidas
+ * em memória por {@link IndiceSeriesStore}.
+ *
+ * Alterações feitas pela sessão do Hibernate já atualizam o cache; a invalidação
+ * explícita cobre as escritas que não passam por ela (exclusões em massa e comandos
+ * JDBC) e é feita antes dos demais ouvintes de {@link IndicesAtualizadosEvent}, para
+ * que a série em memória não seja recarregada a partir de entradas antigas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndiceCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIndicesAtualizados(IndicesAtualizadosEvent event) {
+        log.debug("Invalidando cache de segundo nível do índice {}", event.tabelaIndiceId());
+        Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(TabelaIndice.class, event.tabelaIndiceId());
+    }
+
+    public void invalidar() {
+        Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(TabelaIndice.class);
+        cache.evictQueryRegion(TabelaIndice.REGIAO_CACHE_CONSULTAS);
+    }
+
+    public EstatisticasCacheResponse estatisticas() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        List<EstatisticasCacheResponse.RegiaoCache> regioes = new ArrayList<>();
+        regioes.add(regiao(TabelaIndice.REGIAO_CACHE, statistics.getDomainDataRegionStatistics(TabelaIndice.REGIAO_CACHE)));
+        regioes.add(regiao(TabelaIndice.REGIAO_CACHE_CONSULTAS, statistics.getQueryRegionStatistics(TabelaIndice.REGIAO_CACHE_CONSULTAS)));
+
+        return EstatisticasCacheResponse.builder()
+            .estatisticasHabilitadas(statistics.isStatisticsEnabled())
+            .acertos(statistics.getSecondLevelCacheHitCount())
+            .falhas(statistics.getSecondLevelCacheMissCount())
+            .inclusoes(statistics.getSecondLevelCachePutCount())
+            .consultasAcertos(statistics.getQueryCacheHitCount())
+            .consultasFalhas(statistics.getQueryCacheMissCount())
+            .consultasInclusoes(statistics.getQueryCachePutCount())
+            .regioes(regioes)
+            .build();
+    }
+
+    private EstatisticasCacheResponse.RegiaoCache regiao(String nome, CacheRegionStatistics estatisticas) {
+        if (estatisticas == null) {
+            // Região ainda não criada (nenhum acesso desde a inicialização)
+            return EstatisticasCacheResponse.RegiaoCache.builder().nome(nome).build();
+        }
+        long elementos = estatisticas.getElementCountInMemory();
+        return EstatisticasCacheResponse.RegiaoCache.builder()
+            .nome(nome)
+            .acertos(estatisticas.getHitCount())
+            .falhas(estatisticas.getMissCount())
+            .inclusoes(estatisticas.getPutCount())
+            .elementosEmMemoria(elementos >= 0 ? elementos : null)
+            .build();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
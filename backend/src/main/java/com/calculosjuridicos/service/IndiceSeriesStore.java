@@ -0,0 +1,258 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória das séries de índices.
+ *
+ * Cada série é carregada uma única vez do banco e mantida em arrays primitivos
+ * imutáveis (competência em dias desde a época e valor escalado em 8 casas),
+ * permitindo buscas por competência via busca binária sem acesso ao banco.
+ *
+ * Quando os valores de uma tabela mudam, a série é descartada após o commit
+ * e recarregada integralmente no próximo acesso. A carga usa uma transação própria no
+ * banco principal, para não ler o snapshot de uma transação do chamador aberta antes do
+ * commit, e uma série invalidada enquanto era carregada não é mantida em memória.
+ */
+@Slf4j
+@Component
+public class IndiceSeriesStore {
+
+    private static final int SCALE = 8;
+    private static final LocalDate COMPETENCIA_MINIMA = LocalDate.of(1900, 1, 1);
+    private static final LocalDate COMPETENCIA_MAXIMA = LocalDate.of(2100, 12, 31);
+
+    private final ValorIndiceRepository valorIndiceRepository;
+    private final TransactionTemplate transacaoCarga;
+
+    private final Map<Long, SerieIndice> series = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+
+    private final ThreadLocal<Snapshot> snapshotAtual = new ThreadLocal<>();
+
+    public IndiceSeriesStore(ValorIndiceRepository valorIndiceRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.valorIndiceRepository = valorIndiceRepository;
+        // Não é somente leitura: a réplica pode ainda não ter recebido o commit que invalidou a série
+        this.transacaoCarga = new TransactionTemplate(transactionManager);
+        this.transacaoCarga.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Retorna o último valor da série com competência menor ou igual à informada.
+     */
+    public Optional<BigDecimal> buscarValorAte(Long tabelaIndiceId, LocalDate competencia) {
+        return obterSerie(tabelaIndiceId).valorAte(competencia);
+    }
+
+    /**
+     * Resolve, em uma única passada pela série, o último valor com competência menor ou
+     * igual a cada uma das competências informadas. Competências sem valor anterior
+     * ficam fora do mapa retornado.
+     */
+    public Map<LocalDate, BigDecimal> buscarValoresAte(Long tabelaIndiceId, SortedSet<LocalDate> competencias) {
+        return obterSerie(tabelaIndiceId).valoresAte(competencias);
+    }
+
+    /**
+     * Retorna os valores da série com competência entre as datas informadas (inclusive),
+     * em ordem crescente de competência.
+     */
+    public List<ValorIndice> buscarPeriodo(Long tabelaIndiceId, LocalDate dataInicial, LocalDate dataFinal) {
+        return obterSerie(tabelaIndiceId).periodo(dataInicial, dataFinal);
+    }
+
+    /**
+     * Descarta a série em memória; o próximo acesso recarrega do banco.
+     */
+    public void invalidar(Long tabelaIndiceId) {
+        synchronized (series) {
+            geracao.incrementAndGet();
+            if (tabelaIndiceId == null) {
+                series.clear();
+            } else {
+                series.remove(tabelaIndiceId);
+            }
+        }
+    }
+
+    /**
+     * Cria um snapshot vazio: cada série é fixada no primeiro acesso feito através dele
+     * e permanece a mesma até o fim do uso, mesmo que a série seja invalidada.
+     */
+    public Snapshot novoSnapshot() {
+        return new Snapshot();
+    }
+
+    /**
+     * Executa a ação na thread atual lendo as séries através do snapshot informado.
+     */
+    public <T> T executarComSnapshot(Snapshot snapshot, Supplier<T> acao) {
+        Snapshot anterior = snapshotAtual.get();
+        snapshotAtual.set(snapshot);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                snapshotAtual.remove();
+            } else {
+                snapshotAtual.set(anterior);
+            }
+        }
+    }
+
+    /** Depois do cache de segundo nível ({@link IndiceCacheService}) e antes do cache de preview. */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIndicesAtualizados(IndicesAtualizadosEvent event) {
+        log.debug("Invalidando série em memória do índice {}", event.tabelaIndiceId());
+        invalidar(event.tabelaIndiceId());
+    }
+
+    private SerieIndice obterSerie(Long tabelaIndiceId) {
+        Snapshot snapshot = snapshotAtual.get();
+        if (snapshot != null) {
+            return snapshot.series.computeIfAbsent(tabelaIndiceId, this::obterSerieCompartilhada);
+        }
+        return obterSerieCompartilhada(tabelaIndiceId);
+    }
+
+    private SerieIndice obterSerieCompartilhada(Long tabelaIndiceId) {
+        SerieIndice serie = series.get(tabelaIndiceId);
+        if (serie != null) {
+            return serie;
+        }
+
+        long geracaoInicial = geracao.get();
+        SerieIndice carregada = carregar(tabelaIndiceId);
+        synchronized (series) {
+            if (geracao.get() != geracaoInicial) {
+                // Invalidada durante a carga: pode não refletir o commit, vale apenas para este acesso
+                return carregada;
+            }
+            SerieIndice existente = series.putIfAbsent(tabelaIndiceId, carregada);
+            return existente != null ? existente : carregada;
+        }
+    }
+
+    private SerieIndice carregar(Long tabelaIndiceId) {
+        List<ValorIndice> valores = transacaoCarga.execute(status -> valorIndiceRepository
+            .findByTabelaIndiceIdAndPeriodo(tabelaIndiceId, COMPETENCIA_MINIMA, COMPETENCIA_MAXIMA));
+
+        int[] competencias = new int[valores.size()];
+        long[] valoresEscalados = new long[valores.size()];
+        for (int i = 0; i < valores.size(); i++) {
+            ValorIndice valor = valores.get(i);
+            competencias[i] = (int) valor.getCompetencia().toEpochDay();
+            valoresEscalados[i] = valor.getValor()
+                .setScale(SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+        }
+
+        log.debug("Série do índice {} carregada em memória: {} competências", tabelaIndiceId, valores.size());
+        return new SerieIndice(competencias, valoresEscalados);
+    }
+
+    /**
+     * Conjunto de séries fixadas para uma unidade de trabalho (por exemplo, um lote de cálculos).
+     */
+    public static final class Snapshot {
+
+        private final Map<Long, SerieIndice> series = new ConcurrentHashMap<>();
+
+        private Snapshot() {
+        }
+    }
+
+    /**
+     * Série imutável ordenada por competência.
+     */
+    static final class SerieIndice {
+
+        private final int[] competencias;
+        private final long[] valores;
+
+        SerieIndice(int[] competencias, long[] valores) {
+            this.competencias = competencias;
+            this.valores = valores;
+        }
+
+        Optional<BigDecimal> valorAte(LocalDate competencia) {
+            int pos = ultimaPosicaoAte((int) competencia.toEpochDay());
+            if (pos < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(BigDecimal.valueOf(valores[pos], SCALE));
+        }
+
+        Map<LocalDate, BigDecimal> valoresAte(SortedSet<LocalDate> competencias) {
+            Map<LocalDate, BigDecimal> resultado = new HashMap<>();
+            int pos = -1;
+            for (LocalDate competencia : competencias) {
+                int dia = (int) competencia.toEpochDay();
+                // Competências crescentes: a posição só avança
+                while (pos + 1 < this.competencias.length && this.competencias[pos + 1] <= dia) {
+                    pos++;
+                }
+                if (pos >= 0) {
+                    resultado.put(competencia, BigDecimal.valueOf(valores[pos], SCALE));
+                }
+            }
+            return resultado;
+        }
+
+        List<ValorIndice> periodo(LocalDate dataInicial, LocalDate dataFinal) {
+            int inicio = ultimaPosicaoAte((int) dataInicial.toEpochDay() - 1) + 1;
+            int fim = ultimaPosicaoAte((int) dataFinal.toEpochDay());
+
+            List<ValorIndice> resultado = new ArrayList<>(Math.max(0, fim - inicio + 1));
+            for (int i = inicio; i <= fim; i++) {
+                resultado.add(ValorIndice.builder()
+                    .competencia(LocalDate.ofEpochDay(competencias[i]))
+                    .valor(BigDecimal.valueOf(valores[i], SCALE))
+                    .build());
+            }
+            return resultado;
+        }
+
+        /**
+         * Busca binária: índice da maior competência menor ou igual a {@code dia}, ou -1.
+         */
+        private int ultimaPosicaoAte(int dia) {
+            int baixo = 0;
+            int alto = competencias.length - 1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (competencias[meio] <= dia) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio - 1;
+                }
+            }
+            return alto;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.calculosjuridicos.repository.TabelaIndiceRepository;
 import com.calculosjuridicos.repository.ValorIndiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -21,8 +23,12 @@ import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -31,6 +37,10 @@ public class IndiceService {
 
     private final TabelaIndiceRepository tabelaIndiceRepository;
     private final ValorIndiceRepository valorIndiceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${indices.importacao.tamanho-bloco:5000}")
+    private int tamanhoBlocoImportacao;
 
     private static final DateTimeFormatter[] DATE_FORMATS = {
         DateTimeFormatter.ofPattern("yyyy-MM"),
@@ -57,6 +67,12 @@ public class IndiceService {
         return valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(tabelaIndiceId, dataInicial, dataFinal);
     }
 
+    /**
+     * Importa os valores de um CSV (competência;valor) em blocos: para cada bloco lido, uma
+     * única consulta identifica as competências já existentes e os valores são gravados com
+     * upserts em lote. Linhas repetidas no arquivo contam como atualização, como se tivessem
+     * sido gravadas uma a uma.
+     */
     @Transactional
     public ImportResult importarCSV(Long tabelaIndiceId, MultipartFile file) {
         TabelaIndice tabela = tabelaIndiceRepository.findById(tabelaIndiceId)
@@ -65,6 +81,8 @@ public class IndiceService {
         int importados = 0;
         int atualizados = 0;
         List<String> erros = new ArrayList<>();
+        Map<LocalDate, BigDecimal> bloco = new LinkedHashMap<>();
+        int repetidosNoBloco = 0;
 
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
@@ -99,29 +117,26 @@ public class IndiceService {
                     LocalDate competencia = parseCompetencia(partes[0].trim());
                     BigDecimal valor = parseValor(partes[1].trim());
 
-                    Optional<ValorIndice> existente = valorIndiceRepository
-                        .findByTabelaIndiceIdAndCompetencia(tabelaIndiceId, competencia);
-
-                    if (existente.isPresent()) {
-                        ValorIndice vi = existente.get();
-                        vi.setValor(valor);
-                        vi.setFonte(ValorIndice.FonteValor.CSV_IMPORT);
-                        valorIndiceRepository.save(vi);
-                        atualizados++;
-                    } else {
-                        ValorIndice novoValor = ValorIndice.builder()
-                            .tabelaIndice(tabela)
-                            .competencia(competencia)
-                            .valor(valor)
-                            .fonte(ValorIndice.FonteValor.CSV_IMPORT)
-                            .build();
-                        valorIndiceRepository.save(novoValor);
-                        importados++;
+                    if (bloco.put(competencia, valor) != null) {
+                        repetidosNoBloco++;
                     }
-
                 } catch (Exception e) {
                     erros.add("Linha " + numeroLinha + ": " + e.getMessage());
                 }
+
+                if (bloco.size() >= tamanhoBlocoImportacao) {
+                    int existentes = gravarBloco(tabelaIndiceId, bloco);
+                    importados += bloco.size() - existentes;
+                    atualizados += existentes + repetidosNoBloco;
+                    bloco.clear();
+                    repetidosNoBloco = 0;
+                }
+            }
+
+            if (!bloco.isEmpty()) {
+                int existentes = gravarBloco(tabelaIndiceId, bloco);
+                importados += bloco.size() - existentes;
+                atualizados += existentes + repetidosNoBloco;
             }
 
         } catch (Exception e) {
@@ -131,9 +146,25 @@ public class IndiceService {
         log.info("Importação concluída para tabela {}: {} novos, {} atualizados, {} erros",
             tabela.getNome(), importados, atualizados, erros.size());
 
+        if (importados > 0 || atualizados > 0) {
+            eventPublisher.publishEvent(new IndicesAtualizadosEvent(tabelaIndiceId));
+        }
+
         return new ImportResult(importados, atualizados, erros);
     }
 
+    /**
+     * Grava o bloco e retorna quantas de suas competências já existiam na tabela.
+     */
+    private int gravarBloco(Long tabelaIndiceId, Map<LocalDate, BigDecimal> bloco) {
+        Set<LocalDate> existentes = new HashSet<>(valorIndiceRepository.findCompetenciasByTabelaIndiceIdAndPeriodo(
+            tabelaIndiceId, Collections.min(bloco.keySet()), Collections.max(bloco.keySet())));
+        int quantidade = (int) bloco.keySet().stream().filter(existentes::contains).count();
+
+        valorIndiceRepository.gravarEmLote(tabelaIndiceId, bloco, ValorIndice.FonteValor.CSV_IMPORT);
+        return quantidade;
+    }
+
     private LocalDate parseCompetencia(String valor) {
         for (DateTimeFormatter formatter : DATE_FORMATS) {
             try {
@@ -0,0 +1,7 @@
+package com.calculosjuridicos.service;
+
+/**
+ * Publicado sempre que os valores de uma tabela de índices são alterados
+ * (sincronização com o BCB ou importação de CSV).
+ */
+public record IndicesAtualizadosEvent(Long tabelaIndiceId) {}
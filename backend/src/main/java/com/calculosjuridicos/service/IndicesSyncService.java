@@ -5,14 +5,21 @@ import com.calculosjuridicos.entity.ValorIndice;
 import com.calculosjuridicos.exception.BusinessException;
 import com.calculosjuridicos.repository.TabelaIndiceRepository;
 import com.calculosjuridicos.repository.ValorIndiceRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -20,6 +27,11 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,6 +42,8 @@ public class IndicesSyncService {
     private final TabelaIndiceRepository tabelaIndiceRepository;
     private final ValorIndiceRepository valorIndiceRepository;
     private final WebClient.Builder webClientBuilder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${indices.bcb.base-url:https://api.bcb.gov.br}")
     private String bcbBaseUrl;
@@ -40,29 +54,35 @@ public class IndicesSyncService {
     @Value("${indices.sync.enabled:true}")
     private boolean syncEnabled;
 
+    @Value("${indices.sync.series-simultaneas:5}")
+    private int seriesSimultaneas;
+
+    @Value("${indices.sync.periodos-simultaneos:4}")
+    private int periodosSimultaneos;
+
+    private final Set<Long> seriesEmSincronizacao = ConcurrentHashMap.newKeySet();
+    private volatile ExecutorService poolSeries;
+
     private static final DateTimeFormatter BCB_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final BigDecimal CEM = new BigDecimal("100");
     private static final int SCALE = 8;
     private static final LocalDate DATA_HISTORICO_INICIO = LocalDate.of(2000, 1, 1);
 
-    private static final Map<String, String> SERIE_BCB_MAP = Map.of(
-        "IPCA_E", "10764",
-        "INPC", "188",
-        "IGPM", "189",
-        "TR", "226",
-        "SELIC", "4390"
-    );
-
     /**
      * Sincronização inteligente de um índice.
      * - Se não há dados ou faltam dados históricos: faz sync completo desde 2000 (apaga e recria cadeia contínua).
      * - Se dados já estão completos desde 2000: apenas busca meses novos/atualizados.
+     * Os dados do BCB são obtidos fora de transação; a gravação usa uma transação própria.
+     * Se a série já estiver sendo sincronizada nesta instância, a chamada é ignorada.
      */
-    @Transactional
     public SyncResult sincronizarIncremental(Long tabelaIndiceId, LocalDate dataInicial, LocalDate dataFinal) {
         TabelaIndice tabela = tabelaIndiceRepository.findById(tabelaIndiceId)
             .orElseThrow(() -> new BusinessException("Tabela de índice não encontrada: " + tabelaIndiceId));
+        return comExclusividade(tabela, () -> sincronizarIncremental(tabela, dataInicial, dataFinal));
+    }
 
+    private SyncResult sincronizarIncremental(TabelaIndice tabela, LocalDate dataInicial, LocalDate dataFinal) {
+        Long tabelaIndiceId = tabela.getId();
         Optional<LocalDate> primeiraCompetencia = valorIndiceRepository.findMinCompetenciaByTabelaIndiceId(tabelaIndiceId);
         Optional<LocalDate> ultimaCompetencia = valorIndiceRepository.findMaxCompetenciaByTabelaIndiceId(tabelaIndiceId);
 
@@ -74,9 +94,6 @@ public class IndicesSyncService {
         if (precisaReconstruir) {
             log.info("Índice {} precisa de sync completo desde {}. Reconstruindo cadeia...",
                 tabela.getNome(), dataInicial);
-            // Apagar todos os registros e reconstruir
-            valorIndiceRepository.deleteByTabelaIndiceIdAndCompetenciaBetween(
-                tabelaIndiceId, LocalDate.of(1900, 1, 1), LocalDate.of(2100, 12, 31));
             return sincronizarCompleto(tabelaIndiceId, tabela, dataInicial, dataFinal);
         }
 
@@ -89,70 +106,88 @@ public class IndicesSyncService {
     }
 
     /**
-     * Sync completo: busca todos os dados desde dataInicial em chunks de 5 anos,
-     * calcula cadeia acumulada contínua e persiste.
+     * Sync completo: busca todos os dados desde dataInicial em chunks de 5 anos (baixados
+     * simultaneamente, até {@code indices.sync.periodos-simultaneos} por vez) e calcula
+     * cadeia acumulada contínua. A série atual só é substituída se todos os chunks foram
+     * obtidos, em uma transação própria e curta que bloqueia a tabela, grava a área de
+     * preparação e a promove.
      */
     private SyncResult sincronizarCompleto(Long tabelaIndiceId, TabelaIndice tabela,
                                             LocalDate dataInicial, LocalDate dataFinal) {
-        String serieId = SERIE_BCB_MAP.get(tabela.getNome());
+        String serieId = TabelaIndiceRegistry.SERIES_BCB.get(tabela.getNome());
 
         // Buscar TODOS os dados do BCB em chunks de 5 anos
-        List<BcbDataPoint> todosOsDados = new ArrayList<>();
+        List<PeriodoBcb> periodos = new ArrayList<>();
         LocalDate chunkInicio = dataInicial;
-        List<String> erros = new ArrayList<>();
-
         while (chunkInicio.isBefore(dataFinal)) {
             LocalDate chunkFim = chunkInicio.plusYears(5);
             if (chunkFim.isAfter(dataFinal)) chunkFim = dataFinal;
-            try {
-                List<BcbDataPoint> chunk = fetchBcbData(serieId, chunkInicio, chunkFim);
-                todosOsDados.addAll(chunk);
-            } catch (Exception ex) {
-                log.warn("Falha no chunk {}-{} para {}: {}", chunkInicio, chunkFim, tabela.getNome(), ex.getMessage());
-                erros.add("Erro no período " + chunkInicio + " a " + chunkFim);
-            }
+            periodos.add(new PeriodoBcb(chunkInicio, chunkFim));
             chunkInicio = chunkFim.plusDays(1);
         }
 
+        // flatMapSequential mantém a ordem dos chunks na deduplicação abaixo
+        List<DadosPeriodo> dadosPorPeriodo = Flux.fromIterable(periodos)
+            .flatMapSequential(periodo -> buscarBcb(serieId, periodo.inicio(), periodo.fim())
+                    .map(dados -> new DadosPeriodo(periodo, dados, null))
+                    .onErrorResume(ex -> Mono.just(new DadosPeriodo(periodo, List.of(), ex))),
+                Math.max(1, periodosSimultaneos))
+            .collectList()
+            .block();
+
+        List<BcbDataPoint> todosOsDados = new ArrayList<>();
+        List<String> erros = new ArrayList<>();
+        for (DadosPeriodo dados : dadosPorPeriodo) {
+            PeriodoBcb periodo = dados.periodo();
+            if (dados.erro() != null) {
+                log.warn("Falha no chunk {}-{} para {}: {}", periodo.inicio(), periodo.fim(), tabela.getNome(),
+                    dados.erro().getMessage());
+                erros.add("Erro no período " + periodo.inicio() + " a " + periodo.fim());
+            } else {
+                todosOsDados.addAll(dados.dados());
+            }
+        }
+
         // Deduplicar por competência (manter último valor para cada mês)
         LinkedHashMap<LocalDate, BigDecimal> porCompetencia = new LinkedHashMap<>();
         for (BcbDataPoint ponto : todosOsDados) {
             porCompetencia.put(ponto.competencia(), ponto.valor());
         }
 
-        // Calcular cadeia acumulada contínua
-        BigDecimal indiceAcumulado = new BigDecimal("1000.00000000");
-        int importados = 0;
-
-        for (Map.Entry<LocalDate, BigDecimal> entry : porCompetencia.entrySet()) {
-            LocalDate competencia = entry.getKey();
-            BigDecimal variacao = entry.getValue();
-
-            BigDecimal fator = BigDecimal.ONE.add(variacao.divide(CEM, SCALE, RoundingMode.HALF_UP));
-            indiceAcumulado = indiceAcumulado.multiply(fator).setScale(SCALE, RoundingMode.HALF_UP);
-
-            ValorIndice novoValor = ValorIndice.builder()
-                .tabelaIndice(tabela)
-                .competencia(competencia)
-                .valor(indiceAcumulado)
-                .fonte(ValorIndice.FonteValor.API_BCB)
-                .build();
-            valorIndiceRepository.save(novoValor);
-            importados++;
+        if (!erros.isEmpty() || porCompetencia.isEmpty()) {
+            // Uma cadeia com lacunas ficaria incorreta: a série atual é mantida
+            log.warn("Sync completo {} abortado: dados do BCB incompletos; série atual mantida", tabela.getNome());
+            if (erros.isEmpty()) {
+                erros.add("Nenhum dado retornado pelo BCB");
+            }
+            return new SyncResult(0, 0, erros);
         }
 
+        // Calcular cadeia acumulada contínua
+        Map<LocalDate, BigDecimal> acumulados = calcularCadeia(porCompetencia, new BigDecimal("1000.00000000"));
+
+        // Preparação e promoção sob o mesmo bloqueio: reconstruções simultâneas da série
+        // não podem substituir ou esvaziar a área de preparação uma da outra
+        Integer importados = transacaoPropria().execute(status -> {
+            bloquearTabela(tabelaIndiceId);
+            valorIndiceRepository.prepararReconstrucao(tabelaIndiceId, acumulados, ValorIndice.FonteValor.API_BCB);
+            int promovidos = valorIndiceRepository.promoverReconstrucao(tabelaIndiceId, acumulados.size());
+            eventPublisher.publishEvent(new IndicesAtualizadosEvent(tabelaIndiceId));
+            return promovidos;
+        });
+
         log.info("Sync completo {} concluído: {} registros criados em cadeia contínua",
             tabela.getNome(), importados);
         return new SyncResult(importados, 0, erros);
     }
 
     /**
-     * Sync parcial: busca dados de um período e atualiza/cria registros.
-     * Usa o último índice acumulado existente como base.
+     * Sync parcial: busca dados de um período e atualiza/cria registros, em uma transação
+     * própria. Usa o último índice acumulado existente como base.
      */
     private SyncResult sincronizarPeriodo(Long tabelaIndiceId, TabelaIndice tabela,
                                            LocalDate dataInicial, LocalDate dataFinal) {
-        String serieId = SERIE_BCB_MAP.get(tabela.getNome());
+        String serieId = TabelaIndiceRegistry.SERIES_BCB.get(tabela.getNome());
         List<BcbDataPoint> dados = fetchBcbData(serieId, dataInicial, dataFinal);
 
         if (dados.isEmpty()) {
@@ -165,74 +200,112 @@ public class IndicesSyncService {
             porCompetencia.put(ponto.competencia(), ponto.valor());
         }
 
-        BigDecimal indiceAcumulado = obterUltimoIndiceAcumulado(tabelaIndiceId, dataInicial);
+        return transacaoPropria().execute(status -> {
+            bloquearTabela(tabelaIndiceId);
+            BigDecimal indiceAcumulado = obterUltimoIndiceAcumulado(tabelaIndiceId, dataInicial);
+            Map<LocalDate, BigDecimal> acumulados = calcularCadeia(porCompetencia, indiceAcumulado);
 
-        int importados = 0, atualizados = 0;
-        List<String> erros = new ArrayList<>();
+            Set<LocalDate> existentes = new HashSet<>(valorIndiceRepository.findCompetenciasByTabelaIndiceIdAndPeriodo(
+                tabelaIndiceId, Collections.min(acumulados.keySet()), Collections.max(acumulados.keySet())));
+            int atualizados = (int) acumulados.keySet().stream().filter(existentes::contains).count();
+            int importados = acumulados.size() - atualizados;
 
-        for (Map.Entry<LocalDate, BigDecimal> entry : porCompetencia.entrySet()) {
-            try {
-                LocalDate competencia = entry.getKey();
-                BigDecimal variacao = entry.getValue();
-
-                BigDecimal fator = BigDecimal.ONE.add(variacao.divide(CEM, SCALE, RoundingMode.HALF_UP));
-                indiceAcumulado = indiceAcumulado.multiply(fator).setScale(SCALE, RoundingMode.HALF_UP);
-
-                Optional<ValorIndice> existente = valorIndiceRepository
-                    .findByTabelaIndiceIdAndCompetencia(tabelaIndiceId, competencia);
-
-                if (existente.isPresent()) {
-                    ValorIndice vi = existente.get();
-                    vi.setValor(indiceAcumulado);
-                    vi.setFonte(ValorIndice.FonteValor.API_BCB);
-                    valorIndiceRepository.save(vi);
-                    atualizados++;
-                } else {
-                    ValorIndice novoValor = ValorIndice.builder()
-                        .tabelaIndice(tabela)
-                        .competencia(competencia)
-                        .valor(indiceAcumulado)
-                        .fonte(ValorIndice.FonteValor.API_BCB)
-                        .build();
-                    valorIndiceRepository.save(novoValor);
-                    importados++;
-                }
-            } catch (Exception e) {
-                erros.add("Erro ao processar " + entry.getKey() + ": " + e.getMessage());
-            }
-        }
+            valorIndiceRepository.gravarEmLote(tabelaIndiceId, acumulados, ValorIndice.FonteValor.API_BCB);
+            eventPublisher.publishEvent(new IndicesAtualizadosEvent(tabelaIndiceId));
 
-        return new SyncResult(importados, atualizados, erros);
+            return new SyncResult(importados, atualizados, List.of());
+        });
     }
 
     /**
-     * Sincronização incremental de todos os índices.
+     * Encadeia as variações mensais (em %) a partir do índice acumulado informado.
+     */
+    private Map<LocalDate, BigDecimal> calcularCadeia(Map<LocalDate, BigDecimal> variacoes, BigDecimal indiceInicial) {
+        Map<LocalDate, BigDecimal> acumulados = new LinkedHashMap<>();
+        BigDecimal indiceAcumulado = indiceInicial;
+        for (Map.Entry<LocalDate, BigDecimal> entry : variacoes.entrySet()) {
+            BigDecimal fator = BigDecimal.ONE.add(entry.getValue().divide(CEM, SCALE, RoundingMode.HALF_UP));
+            indiceAcumulado = indiceAcumulado.multiply(fator).setScale(SCALE, RoundingMode.HALF_UP);
+            acumulados.put(entry.getKey(), indiceAcumulado);
+        }
+        return acumulados;
+    }
+
+    /**
+     * Sincronização incremental de todos os índices. As séries são sincronizadas em paralelo
+     * no pool do serviço (até {@code indices.sync.series-simultaneas} por vez), cada uma com
+     * suas próprias transações: a falha de uma série não desfaz as demais.
      */
-    @Transactional
     public Map<String, SyncResult> sincronizarTodosIncremental(LocalDate dataInicial, LocalDate dataFinal) {
+        List<TabelaIndice> tabelas = tabelaIndiceRepository.findAll().stream()
+            .filter(tabela -> TabelaIndiceRegistry.SERIES_BCB.containsKey(tabela.getNome()))
+            .toList();
+
         Map<String, SyncResult> resultados = new LinkedHashMap<>();
-        List<TabelaIndice> tabelas = tabelaIndiceRepository.findAll();
+        if (tabelas.isEmpty()) {
+            return resultados;
+        }
 
+        ExecutorService executor = obterPoolSeries();
+        Map<String, CompletableFuture<SyncResult>> execucoes = new LinkedHashMap<>();
         for (TabelaIndice tabela : tabelas) {
-            if (SERIE_BCB_MAP.containsKey(tabela.getNome())) {
-                try {
-                    SyncResult result = sincronizarIncremental(tabela.getId(), dataInicial, dataFinal);
-                    resultados.put(tabela.getNome(), result);
-                } catch (Exception e) {
-                    log.error("Erro ao sincronizar índice {}: {}", tabela.getNome(), e.getMessage());
-                    resultados.put(tabela.getNome(),
-                        new SyncResult(0, 0, List.of("Erro: " + e.getMessage())));
+            execucoes.put(tabela.getNome(), CompletableFuture.supplyAsync(
+                () -> sincronizarSerie(tabela, dataInicial, dataFinal), executor));
+        }
+        execucoes.forEach((nome, execucao) -> resultados.put(nome, execucao.join()));
+
+        return resultados;
+    }
+
+    private ExecutorService obterPoolSeries() {
+        ExecutorService pool = poolSeries;
+        if (pool == null) {
+            synchronized (this) {
+                if (poolSeries == null) {
+                    poolSeries = Executors.newFixedThreadPool(Math.max(1, seriesSimultaneas),
+                        new CustomizableThreadFactory("indices-sync-"));
                 }
+                pool = poolSeries;
             }
         }
+        return pool;
+    }
 
-        return resultados;
+    @PreDestroy
+    void encerrarPoolSeries() {
+        if (poolSeries != null) {
+            poolSeries.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa a sincronização se nenhuma outra da mesma série estiver em andamento nesta
+     * instância; entre instâncias, as gravações são serializadas pelo bloqueio da tabela.
+     */
+    private SyncResult comExclusividade(TabelaIndice tabela, Supplier<SyncResult> sincronizacao) {
+        if (!seriesEmSincronizacao.add(tabela.getId())) {
+            log.info("Sincronização do índice {} já em andamento; ignorada", tabela.getNome());
+            return new SyncResult(0, 0, List.of("Sincronização do índice " + tabela.getNome() + " já em andamento"));
+        }
+        try {
+            return sincronizacao.get();
+        } finally {
+            seriesEmSincronizacao.remove(tabela.getId());
+        }
+    }
+
+    private SyncResult sincronizarSerie(TabelaIndice tabela, LocalDate dataInicial, LocalDate dataFinal) {
+        try {
+            return sincronizarIncremental(tabela.getId(), dataInicial, dataFinal);
+        } catch (Exception e) {
+            log.error("Erro ao sincronizar índice {}: {}", tabela.getNome(), e.getMessage());
+            return new SyncResult(0, 0, List.of("Erro: " + e.getMessage()));
+        }
     }
 
     /**
      * Sincroniza dados históricos completos desde 2000 para todos os índices.
      */
-    @Transactional
     public Map<String, SyncResult> sincronizarHistorico() {
         log.info("Iniciando sincronização histórica completa desde {}", DATA_HISTORICO_INICIO);
         return sincronizarTodosIncremental(DATA_HISTORICO_INICIO, LocalDate.now());
@@ -249,7 +322,6 @@ public class IndicesSyncService {
     /**
      * Sincroniza todos os índices para um período (método legado).
      */
-    @Transactional
     public Map<String, SyncResult> sincronizarTodos(LocalDate dataInicial, LocalDate dataFinal) {
         return sincronizarTodosIncremental(dataInicial, dataFinal);
     }
@@ -257,11 +329,10 @@ public class IndicesSyncService {
     /**
      * Sincroniza os índices de uma tabela específica (método legado usado pelo controller individual).
      */
-    @Transactional
     public SyncResult sincronizar(Long tabelaIndiceId, LocalDate dataInicial, LocalDate dataFinal) {
         TabelaIndice tabela = tabelaIndiceRepository.findById(tabelaIndiceId)
             .orElseThrow(() -> new BusinessException("Tabela de índice não encontrada: " + tabelaIndiceId));
-        return sincronizarPeriodo(tabelaIndiceId, tabela, dataInicial, dataFinal);
+        return comExclusividade(tabela, () -> sincronizarPeriodo(tabelaIndiceId, tabela, dataInicial, dataFinal));
     }
 
     /**
@@ -276,6 +347,15 @@ public class IndicesSyncService {
     }
 
     private List<BcbDataPoint> fetchBcbData(String serieId, LocalDate dataInicial, LocalDate dataFinal) {
+        try {
+            return buscarBcb(serieId, dataInicial, dataFinal).block();
+        } catch (Exception e) {
+            log.error("Erro ao buscar dados do BCB (série {}): {}", serieId, e.getMessage());
+            throw new BusinessException("Erro ao acessar API do Banco Central: " + e.getMessage());
+        }
+    }
+
+    private Mono<List<BcbDataPoint>> buscarBcb(String serieId, LocalDate dataInicial, LocalDate dataFinal) {
         String url = String.format(
             "%s/dados/serie/bcdata.sgs.%s/dados?formato=json&dataInicial=%s&dataFinal=%s",
             bcbBaseUrl, serieId,
@@ -285,31 +365,31 @@ public class IndicesSyncService {
 
         log.debug("Fetching BCB data from: {}", url);
 
-        try {
-            WebClient client = webClientBuilder.build();
-            List<Map<String, String>> response = client.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<Map<String, String>>>() {})
-                .block(Duration.ofMillis(timeout));
-
-            if (response == null || response.isEmpty()) {
-                return List.of();
-            }
-
-            return response.stream()
+        return webClientBuilder.build().get()
+            .uri(url)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<List<Map<String, String>>>() {})
+            .timeout(Duration.ofMillis(timeout))
+            .map(response -> response.stream()
                 .map(item -> {
                     LocalDate data = LocalDate.parse(item.get("data"), BCB_DATE_FORMAT);
                     LocalDate competencia = data.withDayOfMonth(1);
                     BigDecimal valor = new BigDecimal(item.get("valor"));
                     return new BcbDataPoint(competencia, valor);
                 })
-                .toList();
+                .toList())
+            .defaultIfEmpty(List.of());
+    }
 
-        } catch (Exception e) {
-            log.error("Erro ao buscar dados do BCB (série {}): {}", serieId, e.getMessage());
-            throw new BusinessException("Erro ao acessar API do Banco Central: " + e.getMessage());
-        }
+    private TransactionTemplate transacaoPropria() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private void bloquearTabela(Long tabelaIndiceId) {
+        tabelaIndiceRepository.findByIdParaAtualizacao(tabelaIndiceId)
+            .orElseThrow(() -> new BusinessException("Tabela de índice não encontrada: " + tabelaIndiceId));
     }
 
     private BigDecimal obterUltimoIndiceAcumulado(Long tabelaIndiceId, LocalDate dataInicial) {
@@ -322,5 +402,9 @@ public class IndicesSyncService {
 
     public record BcbDataPoint(LocalDate competencia, BigDecimal valor) {}
 
+    private record PeriodoBcb(LocalDate inicio, LocalDate fim) {}
+
+    private record DadosPeriodo(PeriodoBcb periodo, List<BcbDataPoint> dados, Throwable erro) {}
+
     public record SyncResult(int registrosImportados, int registrosAtualizados, List<String> erros) {}
 }
@@ -0,0 +1,171 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.TabelaIndice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plano de regimes legais de uma condenação da Fazenda Pública.
+ *
+ * Divide o período [dataInicial, dataFinal] em segmentos contíguos de competências,
+ * cada um com um único índice de correção e uma única regra de juros, conforme os
+ * marcos legislativos (ou a data de emissão do RPV/Precatório, quando houver).
+ */
+public final class PlanoRegimes {
+
+    // Marcos legislativos
+    static final LocalDate MARCO_INPC_IPCAE = LocalDate.of(1992, 1, 1);   // Transição INPC → IPCA-E
+    static final LocalDate MARCO_LEI_11960 = LocalDate.of(2009, 7, 1);     // Lei 11.960/2009
+    static final LocalDate MARCO_EC_113 = LocalDate.of(2021, 12, 9);       // EC 113/2021
+
+    /**
+     * Regra de juros aplicada em um segmento.
+     */
+    public enum RegraJuros {
+        /** Juros simples mensais sobre o valor corrigido, contados desde a data inicial. */
+        MENSAL_SOBRE_CORRIGIDO,
+        /** SELIC unificada: os juros já estão embutidos na taxa. */
+        INCLUSO_NA_SELIC,
+        /** 2% a.a. simples sobre o principal desde a emissão, limitado à SELIC (EC 136/2025). */
+        ANUAL_LIMITADO_SELIC
+    }
+
+    /**
+     * Regime vigente em um segmento: índice de correção + regra de juros.
+     */
+    public enum Regime {
+        INPC("INPC", TabelaIndice.INPC, RegraJuros.MENSAL_SOBRE_CORRIGIDO, new BigDecimal("1.0")),
+        IPCA_E("IPCA-E", TabelaIndice.IPCA_E, RegraJuros.MENSAL_SOBRE_CORRIGIDO, new BigDecimal("1.0")),
+        IPCA_E_POUPANCA("IPCA-E", TabelaIndice.IPCA_E, RegraJuros.MENSAL_SOBRE_CORRIGIDO, new BigDecimal("0.5")),
+        SELIC("SELIC", TabelaIndice.SELIC, RegraJuros.INCLUSO_NA_SELIC, BigDecimal.ZERO),
+        IPCA_MAIS_2_AA("IPCA + 2%", TabelaIndice.IPCA_E, RegraJuros.ANUAL_LIMITADO_SELIC, new BigDecimal("2.0"));
+
+        private final String nomeExibicao;
+        private final String indice;
+        private final RegraJuros regraJuros;
+        private final BigDecimal taxaJuros;
+
+        Regime(String nomeExibicao, String indice, RegraJuros regraJuros, BigDecimal taxaJuros) {
+            this.nomeExibicao = nomeExibicao;
+            this.indice = indice;
+            this.regraJuros = regraJuros;
+            this.taxaJuros = taxaJuros;
+        }
+
+        public String getNomeExibicao() {
+            return nomeExibicao;
+        }
+
+        /** Nome da {@link TabelaIndice} usada para correção. */
+        public String getIndice() {
+            return indice;
+        }
+
+        public RegraJuros getRegraJuros() {
+            return regraJuros;
+        }
+
+        /** Taxa em percentual: mensal para juros legais, anual para IPCA + 2%. */
+        public BigDecimal getTaxaJuros() {
+            return taxaJuros;
+        }
+    }
+
+    /**
+     * Intervalo contíguo de competências (primeiro dia do mês, inclusive) sob um mesmo regime.
+     */
+    public record Segmento(Regime regime, LocalDate inicio, LocalDate fim) {
+
+        public long meses() {
+            return ChronoUnit.MONTHS.between(inicio, fim) + 1;
+        }
+    }
+
+    private final LocalDate competenciaInicial;
+    private final LocalDate competenciaFinal;
+    private final LocalDate marcoEmissao;
+    private final List<Segmento> segmentos;
+
+    private PlanoRegimes(LocalDate competenciaInicial, LocalDate competenciaFinal,
+                         LocalDate marcoEmissao, List<Segmento> segmentos) {
+        this.competenciaInicial = competenciaInicial;
+        this.competenciaFinal = competenciaFinal;
+        this.marcoEmissao = marcoEmissao;
+        this.segmentos = segmentos;
+    }
+
+    /**
+     * Compila o plano de regimes para o período.
+     *
+     * Com RPV/Precatório emitido, o período antes da emissão segue a SELIC e o período
+     * a partir da emissão segue IPCA + 2% a.a.; sem emissão, valem os marcos legislativos.
+     */
+    public static PlanoRegimes compilar(LocalDate dataInicial, LocalDate dataFinal,
+                                        boolean isRpv, LocalDate dataEmissaoRpv) {
+        LocalDate competenciaInicial = dataInicial.withDayOfMonth(1);
+        LocalDate competenciaFinal = dataFinal.withDayOfMonth(1);
+
+        // Regime vigente a partir de cada marco
+        TreeMap<LocalDate, Regime> vigencias = new TreeMap<>();
+        LocalDate marcoEmissao = null;
+        if (isRpv && dataEmissaoRpv != null) {
+            marcoEmissao = dataEmissaoRpv.withDayOfMonth(1);
+            vigencias.put(LocalDate.MIN, Regime.SELIC);
+            vigencias.put(marcoEmissao, Regime.IPCA_MAIS_2_AA);
+        } else {
+            vigencias.put(LocalDate.MIN, Regime.INPC);
+            vigencias.put(MARCO_INPC_IPCAE, Regime.IPCA_E);
+            vigencias.put(MARCO_LEI_11960, Regime.IPCA_E_POUPANCA);
+            vigencias.put(MARCO_EC_113.withDayOfMonth(1), Regime.SELIC);
+        }
+
+        List<Segmento> segmentos = new ArrayList<>();
+        LocalDate inicio = competenciaInicial;
+        while (!inicio.isAfter(competenciaFinal)) {
+            Map.Entry<LocalDate, Regime> vigente = vigencias.floorEntry(inicio);
+            LocalDate proximoMarco = vigencias.higherKey(inicio);
+            LocalDate fim = proximoMarco == null || proximoMarco.isAfter(competenciaFinal)
+                    ? competenciaFinal
+                    : proximoMarco.minusMonths(1);
+            segmentos.add(new Segmento(vigente.getValue(), inicio, fim));
+            inicio = fim.plusMonths(1);
+        }
+
+        return new PlanoRegimes(competenciaInicial, competenciaFinal, marcoEmissao,
+                Collections.unmodifiableList(segmentos));
+    }
+
+    public LocalDate getCompetenciaInicial() {
+        return competenciaInicial;
+    }
+
+    public LocalDate getCompetenciaFinal() {
+        return competenciaFinal;
+    }
+
+    /** Mês da emissão do RPV/Precatório (início do IPCA + 2%), ou {@code null} se não houver emissão. */
+    public LocalDate getMarcoEmissao() {
+        return marcoEmissao;
+    }
+
+    public List<Segmento> getSegmentos() {
+        return segmentos;
+    }
+
+    /**
+     * Meses de juros contados na competência, conforme a regra do regime.
+     */
+    long mesesJuros(Regime regime, LocalDate competencia) {
+        if (regime.getRegraJuros() == RegraJuros.ANUAL_LIMITADO_SELIC) {
+            return ChronoUnit.MONTHS.between(marcoEmissao, competencia) + 1;
+        }
+        return ChronoUnit.MONTHS.between(competenciaInicial, competencia) + 1;
+    }
+}
@@ -0,0 +1,203 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ItemLoteResponse;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Preview de cálculos em lote.
+ *
+ * Lê as requisições de um array JSON ou de um fluxo NDJSON, calcula-as em paralelo sobre
+ * um mesmo snapshot das séries de índices e escreve uma linha NDJSON por item assim que
+ * ele termina (a ordem de saída é a de conclusão; cada linha traz a posição do item).
+ *
+ * O número de itens lidos e ainda não escritos é limitado, de modo que a memória usada
+ * não depende do tamanho do lote: quando o limite é atingido, a leitura da entrada
+ * aguarda a escrita dos resultados já concluídos.
+ */
+@Slf4j
+@Service
+public class PreviewLoteService {
+
+    private static final byte[] NOVA_LINHA = {'\n'};
+
+    private final CalculoService calculoService;
+    private final IndiceSeriesStore indiceSeriesStore;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int maxEmAndamento;
+    private final ExecutorService executor;
+
+    public PreviewLoteService(CalculoService calculoService,
+                              IndiceSeriesStore indiceSeriesStore,
+                              Validator validator,
+                              ObjectMapper objectMapper,
+                              @Value("${calculo.lote.threads:0}") int threads,
+                              @Value("${calculo.lote.max-em-andamento:64}") int maxEmAndamento) {
+        this.calculoService = calculoService;
+        this.indiceSeriesStore = indiceSeriesStore;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.maxEmAndamento = Math.max(1, maxEmAndamento);
+        this.executor = Executors.newFixedThreadPool(
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Processa o lote lido de {@code entrada} e escreve os resultados em {@code saida}.
+     */
+    public void processar(InputStream entrada, OutputStream saida) throws IOException {
+        IndiceSeriesStore.Snapshot snapshot = indiceSeriesStore.novoSnapshot();
+        Semaphore vagas = new Semaphore(maxEmAndamento);
+        BlockingQueue<ItemLoteResponse> concluidos = new LinkedBlockingQueue<>();
+        ObjectWriter writer = objectMapper.writer();
+        Escrita escrita = new Escrita(saida, writer, vagas);
+
+        int lidos = 0;
+        try (MappingIterator<CalculoRequest> itens = objectMapper.readerFor(CalculoRequest.class).readValues(entrada)) {
+            while (true) {
+                CalculoRequest request;
+                try {
+                    if (!itens.hasNextValue()) {
+                        break;
+                    }
+                    request = itens.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Após um JSON malformado não é possível localizar o próximo item com segurança
+                    aguardarVaga(vagas, concluidos, escrita);
+                    concluidos.add(erro(lidos++, HttpStatus.BAD_REQUEST,
+                        "JSON inválido: " + e.getOriginalMessage(), null));
+                    break;
+                }
+
+                aguardarVaga(vagas, concluidos, escrita);
+                int indice = lidos++;
+                executor.execute(() -> concluidos.add(avaliar(indice, request, snapshot)));
+
+                escrita.escreverDisponiveis(concluidos);
+            }
+
+            while (escrita.escritos < lidos) {
+                escrita.escrever(concluidos.take());
+                escrita.escreverDisponiveis(concluidos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Preview em lote interrompido");
+        }
+
+        log.info("Preview em lote concluído: {} itens", lidos);
+    }
+
+    private void aguardarVaga(Semaphore vagas, BlockingQueue<ItemLoteResponse> concluidos, Escrita escrita)
+            throws IOException, InterruptedException {
+        while (!vagas.tryAcquire()) {
+            // Cada item escrito libera uma vaga
+            escrita.escrever(concluidos.take());
+        }
+    }
+
+    private ItemLoteResponse avaliar(int indice, CalculoRequest request, IndiceSeriesStore.Snapshot snapshot) {
+        if (request == null) {
+            return erro(indice, HttpStatus.BAD_REQUEST, "Item vazio", null);
+        }
+
+        Set<ConstraintViolation<CalculoRequest>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            Map<String, String> erros = new LinkedHashMap<>();
+            violacoes.forEach(v -> erros.put(v.getPropertyPath().toString(), v.getMessage()));
+            return erro(indice, HttpStatus.BAD_REQUEST, "Um ou mais campos possuem valores inválidos", erros);
+        }
+
+        try {
+            ResultadoCalculoResponse resultado = indiceSeriesStore.executarComSnapshot(snapshot,
+                () -> calculoService.previewSemCache(request));
+            return ItemLoteResponse.builder()
+                .indice(indice)
+                .resultado(resultado)
+                .build();
+        } catch (BusinessException e) {
+            return erro(indice, e.getStatus(), e.getMessage(), null);
+        } catch (ResourceNotFoundException e) {
+            return erro(indice, HttpStatus.NOT_FOUND, e.getMessage(), null);
+        } catch (Exception e) {
+            log.error("Erro interno no item {} do preview em lote: ", indice, e);
+            return erro(indice, HttpStatus.INTERNAL_SERVER_ERROR,
+                "Erro interno do servidor. Tente novamente mais tarde.", null);
+        }
+    }
+
+    private ItemLoteResponse erro(int indice, HttpStatus status, String mensagem, Map<String, String> erros) {
+        return ItemLoteResponse.builder()
+            .indice(indice)
+            .erro(ItemLoteResponse.ErroItem.builder()
+                .status(status.value())
+                .message(mensagem)
+                .validationErrors(erros)
+                .build())
+            .build();
+    }
+
+    /**
+     * Escrita das linhas NDJSON; usada apenas pela thread que processa o lote.
+     */
+    private static final class Escrita {
+
+        private final OutputStream saida;
+        private final ObjectWriter writer;
+        private final Semaphore vagas;
+        private int escritos;
+
+        Escrita(OutputStream saida, ObjectWriter writer, Semaphore vagas) {
+            this.saida = saida;
+            this.writer = writer;
+            this.vagas = vagas;
+        }
+
+        void escrever(ItemLoteResponse item) throws IOException {
+            saida.write(writer.writeValueAsBytes(item));
+            saida.write(NOVA_LINHA);
+            escritos++;
+            vagas.release();
+            saida.flush();
+        }
+
+        void escreverDisponiveis(BlockingQueue<ItemLoteResponse> concluidos) throws IOException {
+            ItemLoteResponse item;
+            while ((item = concluidos.poll()) != null) {
+                escrever(item);
+            }
+        }
+    }
+}
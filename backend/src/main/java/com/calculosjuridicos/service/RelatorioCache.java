@@ -0,0 +1,242 @@
+package com.calculosjuridicos.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cache LRU em disco dos relatórios já gerados de cálculos salvos.
+ *
+ * A chave inclui a versão do resultado: uma nova execução do cálculo gera outra chave, e
+ * as entradas antigas são removidas por {@link CalculoAlteradoEvent}. O limite é o total
+ * de bytes em disco; apenas o índice das entradas fica em memória. Os arquivos do cache
+ * que sobraram no diretório são removidos na inicialização, pois o índice não sobrevive a
+ * reinícios; outros arquivos do diretório não são tocados.
+ */
+@Slf4j
+@Component
+public class RelatorioCache {
+
+    /** Arquivos criados pelo cache: relatórios ({@link Chave#nomeArquivo()}) e gerações em andamento. */
+    private static final Pattern ARQUIVO_DO_CACHE =
+        Pattern.compile("calculo_\\d+_v\\d+_(completo|resumido)\\.\\w+|gerando-.*\\.tmp");
+
+    private final Path diretorio;
+    private final long tamanhoMaximo;
+
+    private final Map<Chave, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long tamanhoAtual;
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    public RelatorioCache(@Value("${relatorio.cache.diretorio:${java.io.tmpdir}/calculos-relatorios}") Path diretorio,
+                          @Value("${relatorio.cache.tamanho-maximo:512MB}") DataSize tamanhoMaximo) throws IOException {
+        this.diretorio = diretorio;
+        this.tamanhoMaximo = tamanhoMaximo.toBytes();
+        Files.createDirectories(diretorio);
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(arquivo -> ARQUIVO_DO_CACHE.matcher(arquivo.getFileName().toString()).matches())
+                .filter(Files::isRegularFile)
+                .forEach(this::excluir);
+        }
+    }
+
+    /**
+     * Relatório de um cálculo salvo em um formato e nível de detalhe, para uma versão do resultado.
+     */
+    public record Chave(Long calculoId, String formato, String nivel, int versaoResultado) {
+
+        /** Qualquer nível diferente de "completo" gera o mesmo relatório resumido. */
+        public static Chave de(Long calculoId, FormatoRelatorio formato, String nivel, int versaoResultado) {
+            return new Chave(calculoId, formato.getExtensao(),
+                "completo".equals(nivel) ? "completo" : "resumido", versaoResultado);
+        }
+
+        /** ETag forte: o conteúdo de uma chave não muda enquanto ela existir. */
+        public String etag() {
+            return "\"" + calculoId + "-" + versaoResultado + "-" + nivel + "-" + formato + "\"";
+        }
+
+        private String nomeArquivo() {
+            return "calculo_" + calculoId + "_v" + versaoResultado + "_" + nivel + "." + formato;
+        }
+    }
+
+    /**
+     * Estatísticas de uso do cache.
+     */
+    public record Estatisticas(long acertos, long falhas, int entradas, long bytes, long bytesMaximo) {
+    }
+
+    private record Entrada(Path arquivo, long tamanho) {
+    }
+
+    @FunctionalInterface
+    public interface Gerador {
+        void gerar(OutputStream saida) throws IOException;
+    }
+
+    /**
+     * Escreve em {@code saida} o relatório da chave. Fora do cache, o relatório é enviado à
+     * saída enquanto é gerado e gravado ao mesmo tempo em disco, entrando no cache apenas
+     * se a geração terminar sem erro.
+     */
+    public void escrever(Chave chave, Gerador gerador, OutputStream saida) throws IOException {
+        if (tamanhoMaximo <= 0) {
+            gerador.gerar(saida);
+            return;
+        }
+
+        InputStream conteudo = abrir(chave);
+        if (conteudo == null) {
+            falhas.incrementAndGet();
+            armazenar(chave, gerador, saida);
+            return;
+        }
+        acertos.incrementAndGet();
+        try (InputStream in = conteudo) {
+            in.transferTo(saida);
+        }
+    }
+
+    /**
+     * Remove os relatórios de todas as versões do cálculo.
+     */
+    public void invalidar(Long calculoId) {
+        synchronized (entradas) {
+            Iterator<Map.Entry<Chave, Entrada>> iterator = entradas.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Chave, Entrada> entrada = iterator.next();
+                if (entrada.getKey().calculoId().equals(calculoId)) {
+                    iterator.remove();
+                    remover(entrada.getValue());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCalculoAlterado(CalculoAlteradoEvent event) {
+        log.debug("Removendo relatórios em cache do cálculo {}", event.calculoId());
+        invalidar(event.calculoId());
+    }
+
+    public Estatisticas estatisticas() {
+        synchronized (entradas) {
+            return new Estatisticas(acertos.get(), falhas.get(), entradas.size(), tamanhoAtual, tamanhoMaximo);
+        }
+    }
+
+    private InputStream abrir(Chave chave) throws IOException {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(chave);
+            // Aberto sob o lock: uma remoção posterior não interrompe a leitura já iniciada
+            return entrada != null ? Files.newInputStream(entrada.arquivo()) : null;
+        }
+    }
+
+    /**
+     * Gera o relatório em um arquivo temporário, repassando cada byte também para {@code copia},
+     * e promove o arquivo ao cache após o fim da geração; em caso de falha ele é excluído.
+     */
+    private void armazenar(Chave chave, Gerador gerador, OutputStream copia) throws IOException {
+        Path temporario = Files.createTempFile(diretorio, "gerando-", ".tmp");
+        try {
+            try (OutputStream arquivo = new BufferedOutputStream(Files.newOutputStream(temporario))) {
+                gerador.gerar(new SaidaDupla(arquivo, copia));
+            }
+            long tamanho = Files.size(temporario);
+
+            synchronized (entradas) {
+                Path arquivo = diretorio.resolve(chave.nomeArquivo());
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Entrada anterior = entradas.put(chave, new Entrada(arquivo, tamanho));
+                if (anterior != null) {
+                    tamanhoAtual -= anterior.tamanho();
+                }
+                tamanhoAtual += tamanho;
+                removerExcedentes();
+            }
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private void removerExcedentes() {
+        Iterator<Entrada> iterator = entradas.values().iterator();
+        while (tamanhoAtual > tamanhoMaximo && iterator.hasNext()) {
+            Entrada entrada = iterator.next();
+            iterator.remove();
+            remover(entrada);
+        }
+    }
+
+    private void remover(Entrada entrada) {
+        tamanhoAtual -= entrada.tamanho();
+        excluir(entrada.arquivo());
+    }
+
+    private void excluir(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível excluir o relatório em cache {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Escreve ao mesmo tempo no arquivo em geração e na saída do chamador. Não fecha nenhum
+     * dos dois: o arquivo é fechado por {@link #armazenar} e a saída pertence ao chamador.
+     */
+    private static final class SaidaDupla extends OutputStream {
+
+        private final OutputStream arquivo;
+        private final OutputStream saida;
+
+        SaidaDupla(OutputStream arquivo, OutputStream saida) {
+            this.arquivo = arquivo;
+            this.saida = saida;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            arquivo.write(b);
+            saida.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            arquivo.write(b, off, len);
+            saida.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            arquivo.flush();
+            saida.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
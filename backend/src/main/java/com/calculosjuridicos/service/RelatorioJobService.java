@@ -0,0 +1,217 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Geração assíncrona de relatórios de cálculos salvos.
+ *
+ * Os relatórios são gerados em um pool próprio de tamanho fixo, com fila limitada. Cada
+ * job grava seu próprio arquivo em {@code relatorio.jobs.diretorio}, de onde é baixado,
+ * e o arquivo só é excluído quando o job expira. Com a fila cheia, novos jobs são
+ * recusados em vez de ocupar as threads das requisições. Jobs finalizados são
+ * descartados após o período de retenção.
+ */
+@Slf4j
+@Service
+public class RelatorioJobService {
+
+    private static final String PREFIXO_ARQUIVO = "job-";
+
+    private final RelatorioService relatorioService;
+    private final Path diretorio;
+    private final Duration retencao;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public RelatorioJobService(RelatorioService relatorioService,
+                               @Value("${relatorio.jobs.diretorio:${java.io.tmpdir}/calculos-relatorios-jobs}") Path diretorio,
+                               @Value("${relatorio.jobs.threads:2}") int threads,
+                               @Value("${relatorio.jobs.max-na-fila:20}") int maxNaFila,
+                               @Value("${relatorio.jobs.retencao:1h}") Duration retencao) throws IOException {
+        this.relatorioService = relatorioService;
+        this.diretorio = diretorio;
+        this.retencao = retencao;
+        int tamanhoPool = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(tamanhoPool, tamanhoPool, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, maxNaFila)), new CustomizableThreadFactory("relatorio-job-"));
+
+        // Jobs não sobrevivem a reinícios: os arquivos de execuções anteriores são descartados
+        Files.createDirectories(diretorio);
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(arquivo -> arquivo.getFileName().toString().startsWith(PREFIXO_ARQUIVO))
+                .forEach(this::excluir);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+        jobs.values().forEach(job -> excluir(job.arquivo));
+        jobs.clear();
+    }
+
+    public enum Status {
+        PENDENTE, PROCESSANDO, CONCLUIDO, ERRO
+    }
+
+    /**
+     * Situação de um job de relatório.
+     */
+    public record Situacao(String jobId, Long calculoId, FormatoRelatorio formato, String nivel, Status status,
+                           String erro, LocalDateTime criadoEm, LocalDateTime concluidoEm) {
+    }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long calculoId;
+        private final FormatoRelatorio formato;
+        private final String nivel;
+        private final Path arquivo;
+        private final LocalDateTime criadoEm = LocalDateTime.now();
+        private volatile Status status = Status.PENDENTE;
+        private volatile String erro;
+        private volatile LocalDateTime concluidoEm;
+
+        private Job(Long calculoId, FormatoRelatorio formato, String nivel, Path diretorio) {
+            this.calculoId = calculoId;
+            this.formato = formato;
+            // Qualquer nível diferente de "completo" gera o mesmo relatório resumido
+            this.nivel = "completo".equals(nivel) ? "completo" : "resumido";
+            this.arquivo = diretorio.resolve(PREFIXO_ARQUIVO + id + "." + formato.getExtensao());
+        }
+
+        private Situacao situacao() {
+            return new Situacao(id, calculoId, formato, nivel, status, erro, criadoEm, concluidoEm);
+        }
+    }
+
+    /**
+     * Enfileira a geração do relatório da versão atual do resultado do cálculo.
+     */
+    public Situacao submeter(Long calculoId, FormatoRelatorio formato, String nivel) {
+        // Valida o cálculo antes de enfileirar (inexistente ou ainda não executado)
+        relatorioService.versaoRelatorio(calculoId);
+        removerExpirados();
+
+        Job job = new Job(calculoId, formato, nivel, diretorio);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> processar(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new BusinessException("Fila de relatórios cheia, tente novamente em instantes",
+                HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        log.debug("Job de relatório {} enfileirado para o cálculo {} ({})", job.id, calculoId, formato);
+        return job.situacao();
+    }
+
+    public Situacao situacao(Long calculoId, String jobId) {
+        return buscar(calculoId, jobId).situacao();
+    }
+
+    /**
+     * Situação de um job concluído com sucesso, pronto para download.
+     */
+    public Situacao concluido(Long calculoId, String jobId) {
+        Job job = buscar(calculoId, jobId);
+        if (job.status == Status.ERRO) {
+            throw new BusinessException("Falha ao gerar o relatório: " + job.erro, HttpStatus.CONFLICT);
+        }
+        if (job.status != Status.CONCLUIDO) {
+            throw new BusinessException("Relatório ainda não concluído", HttpStatus.CONFLICT);
+        }
+        return job.situacao();
+    }
+
+    /**
+     * Escreve em {@code saida} o arquivo gerado pelo job concluído.
+     */
+    public void escrever(Long calculoId, String jobId, OutputStream saida) throws IOException {
+        Job job = buscar(calculoId, jobId);
+        if (job.status != Status.CONCLUIDO) {
+            throw new BusinessException("Relatório ainda não concluído", HttpStatus.CONFLICT);
+        }
+        // Aberto antes de uma eventual expiração, o arquivo continua legível até o fim
+        try (InputStream conteudo = Files.newInputStream(job.arquivo)) {
+            conteudo.transferTo(saida);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Job de relatório", "id", jobId);
+        }
+    }
+
+    private void processar(Job job) {
+        job.status = Status.PROCESSANDO;
+        try {
+            try (OutputStream arquivo = new BufferedOutputStream(Files.newOutputStream(job.arquivo))) {
+                relatorioService.gerar(job.calculoId, job.formato, job.nivel, arquivo);
+            }
+            job.status = Status.CONCLUIDO;
+        } catch (Exception e) {
+            excluir(job.arquivo);
+            log.error("Erro no job de relatório {} do cálculo {}: ", job.id, job.calculoId, e);
+            job.erro = e instanceof BusinessException ? e.getMessage() : "Erro ao gerar relatório";
+            job.status = Status.ERRO;
+        } finally {
+            job.concluidoEm = LocalDateTime.now();
+        }
+    }
+
+    private Job buscar(Long calculoId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.calculoId.equals(calculoId)) {
+            throw new ResourceNotFoundException("Job de relatório", "id", jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Descarta os jobs finalizados há mais que o período de retenção, com seus arquivos.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    void removerExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        jobs.values().removeIf(job -> {
+            if (job.concluidoEm == null || !job.concluidoEm.isBefore(limite)) {
+                return false;
+            }
+            excluir(job.arquivo);
+            return true;
+        });
+    }
+
+    private void excluir(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível excluir o arquivo do job de relatório {}: {}", arquivo, e.getMessage());
+        }
+    }
+}
@@ -9,8 +9,6 @@ import com.calculosjuridicos.exception.BusinessException;
 import com.calculosjuridicos.exception.ResourceNotFoundException;
 import com.calculosjuridicos.repository.CalculoRepository;
 import com.calculosjuridicos.repository.ResultadoCalculoRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
@@ -30,13 +28,17 @@ import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
@@ -50,7 +52,13 @@ public class RelatorioService {
 
     private final CalculoRepository calculoRepository;
     private final ResultadoCalculoRepository resultadoCalculoRepository;
-    private final ObjectMapper objectMapper;
+    private final DetalhamentoService detalhamentoService;
+
+    @Value("${relatorio.excel.linhas-em-memoria:100}")
+    private int linhasEmMemoriaExcel;
+
+    @Value("${relatorio.pdf.linhas-por-bloco:50}")
+    private int linhasPorBlocoPdf;
 
     private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
@@ -68,18 +76,20 @@ public class RelatorioService {
     //  GERADORES PRINCIPAIS
     // =====================================================================
 
+    /**
+     * Gera o relatório PDF diretamente em {@code saida}. As páginas são gravadas à medida que
+     * ficam completas e a evolução mensal é adicionada em blocos de linhas.
+     */
     @Transactional(readOnly = true)
-    public byte[] gerarPdf(Long calculoId, String nivel) {
+    public void gerarPdf(Long calculoId, String nivel, OutputStream saida) {
         Calculo calculo = calculoRepository.findById(calculoId)
             .orElseThrow(() -> new ResourceNotFoundException("Calculo", "id", calculoId));
 
         ResultadoCalculo resultado = resultadoCalculoRepository.findByCalculoId(calculoId)
             .orElseThrow(() -> new BusinessException("Cálculo ainda não foi executado"));
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-            PdfWriter.getInstance(document, baos);
-            document.open();
+        try {
+            Document document = novoDocumentoPdf(saida);
 
             adicionarCabecalhoPdf(document, calculo);
 
@@ -90,64 +100,90 @@ public class RelatorioService {
             adicionarParametrosPdf(document, calculo);
             adicionarResultadoPdf(document, resultado);
 
-            if ("completo".equals(nivel) && resultado.getDetalhamentoJson() != null) {
+            if ("completo".equals(nivel) && detalhamentoService.possuiDetalhamento(resultado)) {
                 adicionarDetalhamentoPdf(document, calculo, resultado);
             }
 
             adicionarRodapePdf(document);
 
             document.close();
-            return baos.toByteArray();
         } catch (Exception e) {
             log.error("Erro ao gerar PDF: ", e);
             throw new BusinessException("Erro ao gerar relatório PDF");
         }
     }
 
+    /**
+     * Versão atual do resultado do cálculo, confirmando que ele existe e já foi executado.
+     * Usada na chave do cache de relatórios e antes de iniciar respostas em streaming,
+     * quando não é mais possível devolver o erro como JSON.
+     */
+    @Transactional(readOnly = true)
+    public int versaoRelatorio(Long calculoId) {
+        return resultadoCalculoRepository.findVersaoByCalculoId(calculoId)
+            .orElseThrow(() -> calculoRepository.existsById(calculoId)
+                ? new BusinessException("Cálculo ainda não foi executado")
+                : new ResourceNotFoundException("Calculo", "id", calculoId));
+    }
+
+    /**
+     * Gera o relatório de um cálculo salvo no formato indicado, diretamente em {@code saida}.
+     */
+    @Transactional(readOnly = true)
+    public void gerar(Long calculoId, FormatoRelatorio formato, String nivel, OutputStream saida) throws IOException {
+        switch (formato) {
+            case XLSX -> gerarExcel(calculoId, nivel, saida);
+            case DOCX -> saida.write(gerarWord(calculoId, nivel));
+            default -> gerarPdf(calculoId, nivel, saida);
+        }
+    }
+
+    /**
+     * Gera o relatório Excel diretamente em {@code saida}. Apenas as últimas linhas de cada
+     * aba ficam em memória; as demais são descarregadas em arquivo temporário.
+     */
     @Transactional(readOnly = true)
-    public byte[] gerarExcel(Long calculoId, String nivel) {
+    public void gerarExcel(Long calculoId, String nivel, OutputStream saida) {
         Calculo calculo = calculoRepository.findById(calculoId)
             .orElseThrow(() -> new ResourceNotFoundException("Calculo", "id", calculoId));
 
         ResultadoCalculo resultado = resultadoCalculoRepository.findByCalculoId(calculoId)
             .orElseThrow(() -> new BusinessException("Cálculo ainda não foi executado"));
 
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
+        SXSSFWorkbook workbook = novaPlanilha();
+        try {
             // Fundamentação Legal (aba separada para Fazenda Pública)
             if (calculo.getTipoCalculo() != null && calculo.getTipoCalculo() == TipoCalculo.FAZENDA_PUBLICA) {
-                Sheet legalSheet = workbook.createSheet("Fundamentação Legal");
+                Sheet legalSheet = criarAba(workbook, "Fundamentação Legal");
                 criarAbaFundamentacaoLegal(workbook, legalSheet);
             }
 
-            Sheet resumoSheet = workbook.createSheet("Resumo");
+            Sheet resumoSheet = criarAba(workbook, "Resumo");
             criarAbaResumo(workbook, resumoSheet, calculo, resultado);
 
-            Sheet parametrosSheet = workbook.createSheet("Parâmetros");
+            Sheet parametrosSheet = criarAba(workbook, "Parâmetros");
             criarAbaParametros(workbook, parametrosSheet, calculo);
 
-            if ("completo".equals(nivel) && resultado.getDetalhamentoJson() != null) {
-                Sheet detalhamentoSheet = workbook.createSheet("Evolução Mensal");
+            if ("completo".equals(nivel) && detalhamentoService.possuiDetalhamento(resultado)) {
+                Sheet detalhamentoSheet = criarAba(workbook, "Evolução Mensal");
                 criarAbaDetalhamento(workbook, detalhamentoSheet, calculo, resultado);
             }
 
-            workbook.write(baos);
-            return baos.toByteArray();
+            workbook.write(saida);
         } catch (Exception e) {
             log.error("Erro ao gerar Excel: ", e);
             throw new BusinessException("Erro ao gerar relatório Excel");
+        } finally {
+            descartarPlanilha(workbook);
         }
     }
 
     /**
-     * Gera relatório PDF a partir de um preview (sem persistir).
+     * Gera relatório PDF a partir de um preview (sem persistir), diretamente em {@code saida}.
      */
-    public byte[] gerarPdfPreview(CalculoRequest request, ResultadoCalculoResponse resultado) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-            PdfWriter.getInstance(document, baos);
-            document.open();
+    public void gerarPdfPreview(CalculoRequest request, ResultadoCalculoResponse resultado, OutputStream saida) {
+        try {
+            Document document = novoDocumentoPdf(saida);
 
             adicionarCabecalhoPreviewPdf(document, request);
             if (request.getTipoCalculo() == TipoCalculo.FAZENDA_PUBLICA) {
@@ -162,7 +198,6 @@ public class RelatorioService {
 
             adicionarRodapePdf(document);
             document.close();
-            return baos.toByteArray();
         } catch (Exception e) {
             log.error("Erro ao gerar PDF preview: ", e);
             throw new BusinessException("Erro ao gerar relatório PDF");
@@ -170,31 +205,31 @@ public class RelatorioService {
     }
 
     /**
-     * Gera relatório Excel a partir de um preview (sem persistir).
+     * Gera relatório Excel a partir de um preview (sem persistir), diretamente em {@code saida}.
      */
-    public byte[] gerarExcelPreview(CalculoRequest request, ResultadoCalculoResponse resultado) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
+    public void gerarExcelPreview(CalculoRequest request, ResultadoCalculoResponse resultado, OutputStream saida) {
+        SXSSFWorkbook workbook = novaPlanilha();
+        try {
             // Fundamentação Legal (aba separada para Fazenda Pública)
             if (request.getTipoCalculo() != null && request.getTipoCalculo() == TipoCalculo.FAZENDA_PUBLICA) {
-                Sheet legalSheet = workbook.createSheet("Fundamentação Legal");
+                Sheet legalSheet = criarAba(workbook, "Fundamentação Legal");
                 criarAbaFundamentacaoLegal(workbook, legalSheet);
             }
 
-            Sheet resumoSheet = workbook.createSheet("Resumo");
+            Sheet resumoSheet = criarAba(workbook, "Resumo");
             criarAbaResumoPreview(workbook, resumoSheet, request, resultado);
 
             if (resultado.getDetalhamento() != null && !resultado.getDetalhamento().isEmpty()) {
-                Sheet detalhamentoSheet = workbook.createSheet("Evolução Mensal");
+                Sheet detalhamentoSheet = criarAba(workbook, "Evolução Mensal");
                 criarAbaDetalhamentoPreview(workbook, detalhamentoSheet, resultado);
             }
 
-            workbook.write(baos);
-            return baos.toByteArray();
+            workbook.write(saida);
         } catch (Exception e) {
             log.error("Erro ao gerar Excel preview: ", e);
             throw new BusinessException("Erro ao gerar relatório Excel");
+        } finally {
+            descartarPlanilha(workbook);
         }
     }
 
@@ -377,7 +412,7 @@ public class RelatorioService {
             totalRun.setColor("27AE60");
 
             // Detalhamento mensal
-            if ("completo".equals(nivel) && resultado.getDetalhamentoJson() != null) {
+            if ("completo".equals(nivel) && detalhamentoService.possuiDetalhamento(resultado)) {
                 document.createParagraph();
                 adicionarDetalhamentoWord(document, calculo, resultado);
             }
@@ -409,16 +444,14 @@ public class RelatorioService {
         adicionarSecaoWord(document, "EVOLUÇÃO MENSAL");
 
         try {
-            List<ResultadoCalculoResponse.DetalhamentoMensalResponse> detalhamento =
-                objectMapper.readValue(resultado.getDetalhamentoJson(),
-                    new TypeReference<List<ResultadoCalculoResponse.DetalhamentoMensalResponse>>() {});
+            DetalhamentoCompacto detalhamento = detalhamentoService.ler(resultado);
 
             int extraRows = 2; // subtotal + total geral
             if (resultado.getValorMulta() != null && resultado.getValorMulta().compareTo(BigDecimal.ZERO) > 0) extraRows++;
             if (resultado.getValorHonorarios() != null && resultado.getValorHonorarios().compareTo(BigDecimal.ZERO) > 0) extraRows++;
 
             String[] headers = {"Competência", "Índice Aplicado", "Variação (%)", "Valor Corrigido", "Juros", "Subtotal"};
-            XWPFTable table = document.createTable(detalhamento.size() + 1 + extraRows, headers.length);
+            XWPFTable table = document.createTable(detalhamento.tamanho() + 1 + extraRows, headers.length);
             setWordTableWidth(table);
 
             // Cabeçalho com fundo escuro
@@ -433,8 +466,7 @@ public class RelatorioService {
             }
 
             // Dados com zebra striping
-            for (int i = 0; i < detalhamento.size(); i++) {
-                ResultadoCalculoResponse.DetalhamentoMensalResponse det = detalhamento.get(i);
+            for (int i = 0; i < detalhamento.tamanho(); i++) {
                 XWPFTableRow dataRow = table.getRow(i + 1);
 
                 // Zebra: linhas ímpares com fundo cinza claro
@@ -444,18 +476,18 @@ public class RelatorioService {
                     }
                 }
 
-                setWordCellText(dataRow, 0, det.getCompetencia(), 8);
-                setWordCellText(dataRow, 1, det.getNomeIndice() != null ? det.getNomeIndice() : "-", 8);
-                setWordCellText(dataRow, 2, det.getVariacaoPercentual() != null ?
-                    String.format("%.4f%%", det.getVariacaoPercentual()) : "-", 8);
-                setWordCellText(dataRow, 3, CURRENCY_FORMAT.format(det.getValorCorrigidoParcial()), 8);
-                setWordCellText(dataRow, 4, det.getJurosParcial() != null ?
-                    CURRENCY_FORMAT.format(det.getJurosParcial()) : CURRENCY_FORMAT.format(BigDecimal.ZERO), 8);
-                setWordCellText(dataRow, 5, CURRENCY_FORMAT.format(det.getSubtotalParcial()), 8);
+                setWordCellText(dataRow, 0, detalhamento.competencia(i), 8);
+                setWordCellText(dataRow, 1, detalhamento.nomeIndice(i) != null ? detalhamento.nomeIndice(i) : "-", 8);
+                setWordCellText(dataRow, 2, detalhamento.variacaoPercentual(i) != null ?
+                    String.format("%.4f%%", detalhamento.variacaoPercentual(i)) : "-", 8);
+                setWordCellText(dataRow, 3, CURRENCY_FORMAT.format(detalhamento.valorCorrigidoParcial(i)), 8);
+                setWordCellText(dataRow, 4, detalhamento.jurosParcial(i) != null ?
+                    CURRENCY_FORMAT.format(detalhamento.jurosParcial(i)) : CURRENCY_FORMAT.format(BigDecimal.ZERO), 8);
+                setWordCellText(dataRow, 5, CURRENCY_FORMAT.format(detalhamento.subtotalParcial(i)), 8);
             }
 
             // Linhas de totais
-            int footerIdx = detalhamento.size() + 1;
+            int footerIdx = detalhamento.tamanho() + 1;
             BigDecimal subtotal = resultado.getValorCorrigido().add(resultado.getValorJuros());
             setWordBoldCellText(table.getRow(footerIdx), 4, "SUBTOTAL", 8);
             setWordBoldCellText(table.getRow(footerIdx), 5, CURRENCY_FORMAT.format(subtotal), 8);
@@ -763,6 +795,7 @@ public class RelatorioService {
         addHeaderCell(table, "Valor Corrigido");
         addHeaderCell(table, "Juros");
         addHeaderCell(table, "Subtotal");
+        table.setComplete(false);
 
         for (int i = 0; i < detalhamento.size(); i++) {
             ResultadoCalculoResponse.DetalhamentoMensalResponse det = detalhamento.get(i);
@@ -776,11 +809,13 @@ public class RelatorioService {
             addCell(table, det.getJurosParcial() != null ?
                 CURRENCY_FORMAT.format(det.getJurosParcial()) : CURRENCY_FORMAT.format(BigDecimal.ZERO), bg);
             addCell(table, CURRENCY_FORMAT.format(det.getSubtotalParcial()), bg);
+            liberarLinhasPdf(document, table, i + 1);
         }
 
         // Linhas de totais
         adicionarLinhaTotaisPdf(table, detalhamento, resultado);
 
+        table.setComplete(true);
         document.add(table);
 
     }
@@ -1092,9 +1127,7 @@ public class RelatorioService {
         document.add(section);
 
         try {
-            List<ResultadoCalculoResponse.DetalhamentoMensalResponse> detalhamento =
-                objectMapper.readValue(resultado.getDetalhamentoJson(),
-                    new TypeReference<List<ResultadoCalculoResponse.DetalhamentoMensalResponse>>() {});
+            DetalhamentoCompacto detalhamento = detalhamentoService.ler(resultado);
 
             PdfPTable table = new PdfPTable(6);
             table.setWidthPercentage(100);
@@ -1106,24 +1139,26 @@ public class RelatorioService {
             addHeaderCell(table, "Valor Corrigido");
             addHeaderCell(table, "Juros");
             addHeaderCell(table, "Subtotal");
+            table.setComplete(false);
 
-            for (int i = 0; i < detalhamento.size(); i++) {
-                ResultadoCalculoResponse.DetalhamentoMensalResponse det = detalhamento.get(i);
+            for (int i = 0; i < detalhamento.tamanho(); i++) {
                 Color bg = (i % 2 == 1) ? ZEBRA_BG : null;
 
-                addCell(table, det.getCompetencia(), bg);
-                addCell(table, det.getNomeIndice() != null ? det.getNomeIndice() : "-", bg);
-                addCell(table, det.getVariacaoPercentual() != null ?
-                    String.format("%.4f%%", det.getVariacaoPercentual()) : "-", bg);
-                addCell(table, CURRENCY_FORMAT.format(det.getValorCorrigidoParcial()), bg);
-                addCell(table, det.getJurosParcial() != null ?
-                    CURRENCY_FORMAT.format(det.getJurosParcial()) : CURRENCY_FORMAT.format(BigDecimal.ZERO), bg);
-                addCell(table, CURRENCY_FORMAT.format(det.getSubtotalParcial()), bg);
+                addCell(table, detalhamento.competencia(i), bg);
+                addCell(table, detalhamento.nomeIndice(i) != null ? detalhamento.nomeIndice(i) : "-", bg);
+                addCell(table, detalhamento.variacaoPercentual(i) != null ?
+                    String.format("%.4f%%", detalhamento.variacaoPercentual(i)) : "-", bg);
+                addCell(table, CURRENCY_FORMAT.format(detalhamento.valorCorrigidoParcial(i)), bg);
+                addCell(table, detalhamento.jurosParcial(i) != null ?
+                    CURRENCY_FORMAT.format(detalhamento.jurosParcial(i)) : CURRENCY_FORMAT.format(BigDecimal.ZERO), bg);
+                addCell(table, CURRENCY_FORMAT.format(detalhamento.subtotalParcial(i)), bg);
+                liberarLinhasPdf(document, table, i + 1);
             }
 
             // Linhas de totais
             adicionarLinhaTotaisPdfSalvo(table, resultado);
 
+            table.setComplete(true);
             document.add(table);
 
         } catch (Exception e) {
@@ -1252,6 +1287,25 @@ public class RelatorioService {
     //  PDF - HELPERS DE CÉLULA
     // =====================================================================
 
+    private Document novoDocumentoPdf(OutputStream saida) throws DocumentException {
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        PdfWriter writer = PdfWriter.getInstance(document, saida);
+        // Quem fornece a saída (resposta HTTP, arquivo, ZIP) é responsável por fechá-la
+        writer.setCloseStream(false);
+        document.open();
+        return document;
+    }
+
+    /**
+     * Tabela em modo incremental ({@code setComplete(false)}): a cada bloco as linhas já
+     * adicionadas são paginadas, gravadas na saída e descartadas da tabela.
+     */
+    private void liberarLinhasPdf(Document document, PdfPTable table, int linhasAdicionadas) throws DocumentException {
+        if (linhasAdicionadas % Math.max(1, linhasPorBlocoPdf) == 0) {
+            document.add(table);
+        }
+    }
+
     private void addTableRow(PdfPTable table, String label, String value) {
         com.lowagie.text.Font labelFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 10, com.lowagie.text.Font.BOLD);
         com.lowagie.text.Font valueFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 10, com.lowagie.text.Font.NORMAL);
@@ -1435,9 +1489,7 @@ public class RelatorioService {
 
     private void criarAbaDetalhamento(Workbook workbook, Sheet sheet, Calculo calculo, ResultadoCalculo resultado) {
         try {
-            List<ResultadoCalculoResponse.DetalhamentoMensalResponse> detalhamento =
-                objectMapper.readValue(resultado.getDetalhamentoJson(),
-                    new TypeReference<List<ResultadoCalculoResponse.DetalhamentoMensalResponse>>() {});
+            DetalhamentoCompacto detalhamento = detalhamentoService.ler(resultado);
 
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle currencyStyle = createCurrencyStyle(workbook);
@@ -1460,22 +1512,21 @@ public class RelatorioService {
             }
 
             int rowNum = 1;
-            for (int idx = 0; idx < detalhamento.size(); idx++) {
-                ResultadoCalculoResponse.DetalhamentoMensalResponse det = detalhamento.get(idx);
+            for (int idx = 0; idx < detalhamento.tamanho(); idx++) {
                 org.apache.poi.ss.usermodel.Row row = sheet.createRow(rowNum++);
                 boolean isZebra = (idx % 2 == 1);
 
                 org.apache.poi.ss.usermodel.Cell compCell = row.createCell(0);
-                compCell.setCellValue(det.getCompetencia());
+                compCell.setCellValue(detalhamento.competencia(idx));
                 compCell.setCellStyle(isZebra ? zebraStyle : borderStyle);
 
                 org.apache.poi.ss.usermodel.Cell indiceCell = row.createCell(1);
-                indiceCell.setCellValue(det.getNomeIndice() != null ? det.getNomeIndice() : "-");
+                indiceCell.setCellValue(detalhamento.nomeIndice(idx) != null ? detalhamento.nomeIndice(idx) : "-");
                 indiceCell.setCellStyle(isZebra ? zebraStyle : borderStyle);
 
                 org.apache.poi.ss.usermodel.Cell variacaoCell = row.createCell(2);
-                if (det.getVariacaoPercentual() != null) {
-                    variacaoCell.setCellValue(det.getVariacaoPercentual().doubleValue());
+                if (detalhamento.variacaoPercentual(idx) != null) {
+                    variacaoCell.setCellValue(detalhamento.variacaoPercentual(idx).doubleValue());
                     variacaoCell.setCellStyle(isZebra ? zebraPercentStyle : borderPercentStyle);
                 } else {
                     variacaoCell.setCellValue("-");
@@ -1483,15 +1534,15 @@ public class RelatorioService {
                 }
 
                 org.apache.poi.ss.usermodel.Cell corrigidoCell = row.createCell(3);
-                corrigidoCell.setCellValue(det.getValorCorrigidoParcial() != null ? det.getValorCorrigidoParcial().doubleValue() : 0);
+                corrigidoCell.setCellValue(detalhamento.valorCorrigidoParcial(idx) != null ? detalhamento.valorCorrigidoParcial(idx).doubleValue() : 0);
                 corrigidoCell.setCellStyle(isZebra ? zebraCurrencyStyle : borderCurrencyStyle);
 
                 org.apache.poi.ss.usermodel.Cell jurosCell = row.createCell(4);
-                jurosCell.setCellValue(det.getJurosParcial() != null ? det.getJurosParcial().doubleValue() : 0);
+                jurosCell.setCellValue(detalhamento.jurosParcial(idx) != null ? detalhamento.jurosParcial(idx).doubleValue() : 0);
                 jurosCell.setCellStyle(isZebra ? zebraCurrencyStyle : borderCurrencyStyle);
 
                 org.apache.poi.ss.usermodel.Cell subtotalCell = row.createCell(5);
-                subtotalCell.setCellValue(det.getSubtotalParcial() != null ? det.getSubtotalParcial().doubleValue() : 0);
+                subtotalCell.setCellValue(detalhamento.subtotalParcial(idx) != null ? detalhamento.subtotalParcial(idx).doubleValue() : 0);
                 subtotalCell.setCellStyle(isZebra ? zebraCurrencyStyle : borderCurrencyStyle);
             }
 
@@ -1546,6 +1597,33 @@ public class RelatorioService {
         totalValue.setCellStyle(currencyStyle);
     }
 
+    // =====================================================================
+    //  EXCEL - PLANILHA EM STREAMING
+    // =====================================================================
+
+    private SXSSFWorkbook novaPlanilha() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(Math.max(1, linhasEmMemoriaExcel));
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+    private Sheet criarAba(SXSSFWorkbook workbook, String nome) {
+        SXSSFSheet sheet = workbook.createSheet(nome);
+        // As larguras precisam ser acompanhadas antes que as linhas sejam descarregadas em disco
+        sheet.trackAllColumnsForAutoSizing();
+        return sheet;
+    }
+
+    private void descartarPlanilha(SXSSFWorkbook workbook) {
+        // Remove os arquivos temporários com as linhas já descarregadas
+        workbook.dispose();
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            log.warn("Erro ao fechar planilha: {}", e.getMessage());
+        }
+    }
+
     // =====================================================================
     //  EXCEL - ESTILOS
     // =====================================================================
@@ -0,0 +1,212 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.RelatorioZipRequest;
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+import com.calculosjuridicos.dto.response.PaginaCursorResponse;
+import com.calculosjuridicos.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exportação de relatórios de vários cálculos em um único ZIP.
+ *
+ * Os relatórios são gerados em paralelo, no máximo {@code relatorio.zip.max-em-andamento}
+ * por vez, cada um em seu próprio arquivo temporário em {@code relatorio.zip.diretorio}, e
+ * copiados para o ZIP na ordem dos ids, uma entrada por vez; o arquivo é excluído assim que
+ * entra no ZIP ou quando a exportação é interrompida. O {@link RelatorioCache} não é usado:
+ * exportações em massa não ocupam o espaço dos relatórios interativos. Cálculos que não
+ * puderem ser exportados são listados em {@code erros.txt} ao final do arquivo.
+ */
+@Slf4j
+@Service
+public class RelatorioZipService {
+
+    private static final int TAMANHO_PAGINA_FILTRO = 100;
+    private static final String PREFIXO_ARQUIVO = "zip-";
+
+    private final RelatorioService relatorioService;
+    private final CalculoService calculoService;
+    private final Path diretorio;
+    private final int maxCalculos;
+    private final int maxEmAndamento;
+    private final ExecutorService executor;
+
+    public RelatorioZipService(RelatorioService relatorioService,
+                               CalculoService calculoService,
+                               @Value("${relatorio.zip.diretorio:${java.io.tmpdir}/calculos-relatorios-zip}") Path diretorio,
+                               @Value("${relatorio.zip.threads:2}") int threads,
+                               @Value("${relatorio.zip.max-em-andamento:4}") int maxEmAndamento,
+                               @Value("${relatorio.zip.max-calculos:500}") int maxCalculos) throws IOException {
+        this.relatorioService = relatorioService;
+        this.calculoService = calculoService;
+        this.diretorio = diretorio;
+        this.maxCalculos = maxCalculos;
+        this.maxEmAndamento = Math.max(1, maxEmAndamento);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads),
+            new CustomizableThreadFactory("relatorio-zip-"));
+
+        // Arquivos de exportações interrompidas por um reinício
+        Files.createDirectories(diretorio);
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(arquivo -> arquivo.getFileName().toString().startsWith(PREFIXO_ARQUIVO))
+                .forEach(this::excluir);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ids dos cálculos a exportar, sem repetições e na ordem informada (ou da listagem,
+     * quando indicados pelo filtro).
+     */
+    public List<Long> resolverIds(RelatorioZipRequest request) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            ids.addAll(request.getIds());
+        } else if (request.getFiltro() != null) {
+            String cursor = null;
+            PaginaCursorResponse<CalculoResumoResponse> pagina;
+            do {
+                pagina = calculoService.listarPorCursor(request.getFiltro(), cursor, TAMANHO_PAGINA_FILTRO);
+                pagina.getItens().forEach(resumo -> ids.add(resumo.getId()));
+                cursor = pagina.getProximoCursor();
+            } while (pagina.isTemMais() && ids.size() <= maxCalculos);
+        } else {
+            throw new BusinessException("Informe os ids dos cálculos ou um filtro");
+        }
+
+        if (ids.isEmpty()) {
+            throw new BusinessException("Nenhum cálculo encontrado para exportação");
+        }
+        if (ids.size() > maxCalculos) {
+            throw new BusinessException("A exportação é limitada a " + maxCalculos + " cálculos por arquivo");
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Escreve em {@code saida} o ZIP com os relatórios dos cálculos. A saída não é fechada.
+     */
+    public void escrever(List<Long> ids, FormatoRelatorio formato, String nivel, OutputStream saida) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(saida);
+        Deque<Pendente> emAndamento = new ArrayDeque<>();
+        List<String> erros = new ArrayList<>();
+        Iterator<Long> proximos = ids.iterator();
+
+        try {
+            while (proximos.hasNext() || !emAndamento.isEmpty()) {
+                while (emAndamento.size() < maxEmAndamento && proximos.hasNext()) {
+                    emAndamento.add(preparar(proximos.next(), formato, nivel));
+                }
+                adicionarEntrada(zip, emAndamento.poll(), formato, erros);
+            }
+
+            if (!erros.isEmpty()) {
+                zip.putNextEntry(new ZipEntry("erros.txt"));
+                zip.write(String.join("\n", erros).concat("\n").getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+        } finally {
+            // Resposta interrompida: os relatórios pendentes não são mais necessários
+            emAndamento.forEach(this::descartar);
+        }
+        log.debug("ZIP de relatórios gerado: {} cálculos, {} com erro", ids.size(), erros.size());
+    }
+
+    private record Pendente(Long calculoId, CompletableFuture<Path> arquivo) {
+    }
+
+    private Pendente preparar(Long calculoId, FormatoRelatorio formato, String nivel) {
+        CompletableFuture<Path> resultado = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (resultado.isDone()) {
+                return;
+            }
+            try {
+                Path arquivo = gerar(calculoId, formato, nivel);
+                if (!resultado.complete(arquivo)) {
+                    // Descartado durante a geração
+                    excluir(arquivo);
+                }
+            } catch (Throwable e) {
+                resultado.completeExceptionally(e);
+            }
+        });
+        return new Pendente(calculoId, resultado);
+    }
+
+    private Path gerar(Long calculoId, FormatoRelatorio formato, String nivel) throws IOException {
+        Path arquivo = Files.createTempFile(diretorio, PREFIXO_ARQUIVO, "." + formato.getExtensao());
+        try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(arquivo))) {
+            relatorioService.gerar(calculoId, formato, nivel, saida);
+        } catch (Throwable e) {
+            excluir(arquivo);
+            throw e;
+        }
+        return arquivo;
+    }
+
+    private void adicionarEntrada(ZipOutputStream zip, Pendente pendente, FormatoRelatorio formato,
+                                  List<String> erros) throws IOException {
+        Path arquivo;
+        try {
+            arquivo = pendente.arquivo().join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            log.warn("Cálculo {} não incluído no ZIP: {}", pendente.calculoId(), causa.getMessage());
+            erros.add("calculo_" + pendente.calculoId() + ": " + causa.getMessage());
+            return;
+        }
+
+        try {
+            zip.putNextEntry(new ZipEntry("calculo_" + pendente.calculoId() + "." + formato.getExtensao()));
+            Files.copy(arquivo, zip);
+            zip.closeEntry();
+        } finally {
+            excluir(arquivo);
+        }
+    }
+
+    private void descartar(Pendente pendente) {
+        if (!pendente.arquivo().cancel(true)) {
+            // Já gerado: o arquivo não entrará no ZIP
+            pendente.arquivo().thenAccept(this::excluir);
+        }
+    }
+
+    private void excluir(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível excluir o relatório temporário {}: {}", arquivo, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.entity.TipoCalculo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU com expiração dos resultados de preview.
+ *
+ * A chave é o hash canônico do {@link CalculoRequest} (apenas os campos que afetam o
+ * resultado) combinado com a versão atual dos dados de índices. Qualquer alteração de
+ * índices incrementa a versão e descarta as entradas existentes.
+ *
+ * Os resultados em cache são compartilhados entre requisições e não devem ser alterados.
+ */
+@Slf4j
+@Component
+public class ResultadoPreviewCache {
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+
+    private final Map<Chave, Entrada> entradas;
+    private final AtomicLong versaoIndices = new AtomicLong();
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong remocoes = new AtomicLong();
+
+    public ResultadoPreviewCache(@Value("${calculo.cache.max-entradas:500}") int maxEntradas,
+                                 @Value("${calculo.cache.ttl:10m}") Duration ttl) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chave, Entrada> eldest) {
+                if (size() > ResultadoPreviewCache.this.maxEntradas) {
+                    remocoes.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Estatísticas de uso do cache.
+     */
+    public record Estatisticas(long acertos, long falhas, long remocoes, int entradas, int maxEntradas,
+                               long versaoIndices) {
+    }
+
+    private record Chave(String hash, long versaoIndices) {
+    }
+
+    private record Entrada(ResultadoCalculoResponse resultado, long criadoEm) {
+    }
+
+    /**
+     * Retorna o resultado em cache para a requisição ou calcula e armazena.
+     */
+    public ResultadoCalculoResponse obter(CalculoRequest request, Supplier<ResultadoCalculoResponse> calculo) {
+        if (maxEntradas <= 0) {
+            return calculo.get();
+        }
+
+        Chave chave = new Chave(hashCanonico(request), versaoIndices.get());
+        long agora = System.nanoTime();
+
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null) {
+                if (agora - entrada.criadoEm() <= ttlNanos) {
+                    acertos.incrementAndGet();
+                    return entrada.resultado();
+                }
+                entradas.remove(chave);
+                remocoes.incrementAndGet();
+            }
+        }
+
+        falhas.incrementAndGet();
+        ResultadoCalculoResponse resultado = calculo.get();
+
+        synchronized (entradas) {
+            // Resultados calculados com uma versão já substituída não voltarão a ser consultados
+            if (chave.versaoIndices() == versaoIndices.get()) {
+                entradas.put(chave, new Entrada(resultado, agora));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta todas as entradas e avança a versão dos dados de índices.
+     */
+    public void invalidar() {
+        synchronized (entradas) {
+            versaoIndices.incrementAndGet();
+            entradas.clear();
+        }
+    }
+
+    /**
+     * Executado depois de {@link IndiceSeriesStore}: um preview que já lê a nova versão
+     * nunca calcula com a série anterior ainda em memória.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIndicesAtualizados(IndicesAtualizadosEvent event) {
+        log.debug("Invalidando cache de preview após atualização do índice {}", event.tabelaIndiceId());
+        invalidar();
+    }
+
+    public Estatisticas estatisticas() {
+        synchronized (entradas) {
+            return new Estatisticas(acertos.get(), falhas.get(), remocoes.get(), entradas.size(), maxEntradas,
+                versaoIndices.get());
+        }
+    }
+
+    /**
+     * Hash SHA-256 dos campos da requisição que influenciam o resultado, em ordem fixa e
+     * com os mesmos padrões aplicados pelo cálculo para valores nulos. Os valores decimais
+     * preservam a escala, pois ela é refletida na resposta.
+     */
+    static String hashCanonico(CalculoRequest request) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(request.getTipoCalculo() == TipoCalculo.FAZENDA_PUBLICA
+            ? TipoCalculo.FAZENDA_PUBLICA : TipoCalculo.PADRAO).append('|')
+            .append(request.getValorPrincipal()).append('|')
+            .append(request.getDataInicial()).append('|')
+            .append(request.getDataFinal()).append('|')
+            .append(request.getTabelaIndiceId()).append('|')
+            .append(request.getTipoJuros()).append('|')
+            .append(request.getTaxaJuros()).append('|')
+            .append(request.getPeriodicidadeJuros()).append('|')
+            .append(request.getMultaPercentual()).append('|')
+            .append(request.getHonorariosPercentual()).append('|')
+            .append(Boolean.TRUE.equals(request.getJurosSobreCorrigido())).append('|')
+            .append(Boolean.TRUE.equals(request.getRpvPrecatorio())).append('|')
+            .append(request.getDataEmissaoRpvPrecatorio());
+
+        if (request.getParcelas() != null) {
+            for (CalculoRequest.ParcelaRequest parcela : request.getParcelas()) {
+                sb.append("|[")
+                    .append(parcela.getDescricao() != null ? parcela.getDescricao().length() : -1).append(':')
+                    .append(parcela.getDescricao()).append('|')
+                    .append(parcela.getValorOriginal()).append('|')
+                    .append(parcela.getDataVencimento()).append('|')
+                    .append(parcela.getTabelaIndiceId()).append(']');
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
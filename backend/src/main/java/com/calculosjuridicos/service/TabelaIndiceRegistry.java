@@ -0,0 +1,116 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registro em memória dos metadados das tabelas de índices (id ↔ nome ↔ série BCB).
+ *
+ * Carregado na inicialização da aplicação e recarregado apenas pelos endpoints de
+ * administração de índices, de modo que o caminho de cálculo não consulta
+ * {@code tabela_indice}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TabelaIndiceRegistry {
+
+    /**
+     * Código da série no SGS do Banco Central, por nome de tabela.
+     */
+    public static final Map<String, String> SERIES_BCB = Map.of(
+        TabelaIndice.IPCA_E, "10764",
+        TabelaIndice.INPC, "188",
+        TabelaIndice.IGPM, "189",
+        TabelaIndice.TR, "226",
+        TabelaIndice.SELIC, "4390"
+    );
+
+    private final TabelaIndiceRepository tabelaIndiceRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Metadados imutáveis de uma tabela de índices.
+     */
+    public record TabelaIndiceInfo(Long id, String nome, String descricao, String codigoOficial,
+                                   TabelaIndice.FonteApi fonteApi, String serieBcb) {
+    }
+
+    private record Snapshot(Map<Long, TabelaIndiceInfo> porId, Map<String, TabelaIndiceInfo> porNome) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recarregar();
+    }
+
+    /**
+     * Relê os metadados do banco e substitui o registro atual.
+     */
+    public void recarregar() {
+        List<TabelaIndice> tabelas = tabelaIndiceRepository.findAll();
+
+        Map<Long, TabelaIndiceInfo> porId = new HashMap<>();
+        Map<String, TabelaIndiceInfo> porNome = new HashMap<>();
+        for (TabelaIndice tabela : tabelas) {
+            TabelaIndiceInfo info = new TabelaIndiceInfo(tabela.getId(), tabela.getNome(),
+                tabela.getDescricao(), tabela.getCodigoOficial(), tabela.getFonteApi(),
+                SERIES_BCB.get(tabela.getNome()));
+            porId.put(info.id(), info);
+            porNome.put(info.nome(), info);
+        }
+
+        snapshot = new Snapshot(Map.copyOf(porId), Map.copyOf(porNome));
+        log.info("Registro de tabelas de índices carregado: {} tabelas", tabelas.size());
+    }
+
+    public Optional<TabelaIndiceInfo> buscarPorId(Long id) {
+        return Optional.ofNullable(obterSnapshot().porId().get(id));
+    }
+
+    public Optional<TabelaIndiceInfo> buscarPorNome(String nome) {
+        return Optional.ofNullable(obterSnapshot().porNome().get(nome));
+    }
+
+    /**
+     * Busca o ID de um índice pelo nome.
+     */
+    public Long obterId(String nome) {
+        return buscarPorNome(nome)
+            .map(TabelaIndiceInfo::id)
+            .orElseThrow(() -> new BusinessException(
+                "Índice '" + nome + "' não encontrado. Verifique se os índices estão cadastrados no sistema."));
+    }
+
+    /**
+     * Nome da tabela pelo ID, ou {@code null} se não houver tabela com esse ID.
+     */
+    public String obterNome(Long id) {
+        return buscarPorId(id).map(TabelaIndiceInfo::nome).orElse(null);
+    }
+
+    private Snapshot obterSnapshot() {
+        Snapshot atual = snapshot;
+        if (atual == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    recarregar();
+                }
+                atual = snapshot;
+            }
+        }
+        return atual;
+    }
+}
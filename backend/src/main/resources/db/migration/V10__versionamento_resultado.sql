@@ -0,0 +1,21 @@
+-- Versionamento do resultado: resultado_calculo guarda a versão atual e é atualizado no
+-- lugar; a versão substituída é copiada para resultado_calculo_historico (somente inserção).
+ALTER TABLE resultado_calculo
+    ADD COLUMN versao INT NOT NULL DEFAULT 1 AFTER calculo_id;
+
+-- Sem FK para calculo: o histórico de auditoria permanece após a exclusão do cálculo.
+CREATE TABLE resultado_calculo_historico (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    calculo_id BIGINT NOT NULL,
+    versao INT NOT NULL,
+    valor_corrigido DECIMAL(18,2) NOT NULL,
+    valor_juros DECIMAL(18,2) NOT NULL,
+    valor_multa DECIMAL(18,2) NOT NULL,
+    valor_honorarios DECIMAL(18,2) NOT NULL,
+    valor_total DECIMAL(18,2) NOT NULL,
+    data_calculo DATETIME,
+    detalhamento_json LONGTEXT,
+    detalhamento_compacto MEDIUMBLOB,
+    data_arquivamento DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_historico_calculo_versao (calculo_id, versao)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,10 @@
+-- Área de preparação da reconstrução completa de uma série: os valores obtidos do BCB são
+-- gravados aqui e promovidos para valor_indice em uma única transação curta, de modo que as
+-- leituras nunca esperam pela sincronização nem veem a série incompleta.
+CREATE TABLE valor_indice_reconstrucao (
+    tabela_indice_id BIGINT NOT NULL,
+    competencia DATE NOT NULL,
+    valor DECIMAL(18,8) NOT NULL,
+    fonte VARCHAR(20) DEFAULT 'MANUAL',
+    PRIMARY KEY (tabela_indice_id, competencia)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
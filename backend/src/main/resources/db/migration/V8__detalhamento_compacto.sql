@@ -0,0 +1,4 @@
+-- Detalhamento mensal em formato colunar compacto (ver DetalhamentoCompacto).
+-- As linhas existentes mantêm detalhamento_json até serem convertidas pela aplicação.
+ALTER TABLE resultado_calculo
+    ADD COLUMN detalhamento_compacto MEDIUMBLOB NULL AFTER detalhamento_json;
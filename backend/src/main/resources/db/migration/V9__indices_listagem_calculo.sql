@@ -0,0 +1,8 @@
+-- Índices para a listagem por cursor (ORDER BY data_criacao DESC, id DESC) com filtros.
+-- idx_status passa a ser coberto por idx_calculo_status_criacao.
+ALTER TABLE calculo
+    ADD INDEX idx_calculo_criacao (data_criacao, id),
+    ADD INDEX idx_calculo_status_criacao (status, data_criacao, id),
+    ADD INDEX idx_calculo_tipo_criacao (tipo_calculo, data_criacao, id),
+    ADD INDEX idx_calculo_titulo (titulo),
+    DROP INDEX idx_status;
@@ -0,0 +1,65 @@
+package com.calculosjuridicos.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            TransactionAutoConfiguration.class))
+        .withUserConfiguration(DataSourceConfig.class)
+        .withPropertyValues("spring.datasource.url=jdbc:h2:mem:principal;DB_CLOSE_DELAY=-1",
+            "spring.datasource.hikari.pool-name=principal");
+
+    @Test
+    @DisplayName("Transações somente leitura devem usar a réplica e as demais o banco principal")
+    void deveRotearTransacoesSomenteLeituraParaReplica() {
+        contextRunner
+            .withPropertyValues("spring.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+                "spring.datasource.replica.pool-name=replica")
+            .run(context -> {
+                assertTrue(context.containsBean("dataSourceReplica"));
+                JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+                TransactionTemplate escrita = context.getBean(TransactionTemplate.class);
+                TransactionTemplate leitura = new TransactionTemplate(escrita.getTransactionManager());
+                leitura.setReadOnly(true);
+
+                assertEquals("PRINCIPAL", escrita.execute(s -> bancoAtual(jdbc)));
+                assertEquals("REPLICA", leitura.execute(s -> bancoAtual(jdbc)));
+                // Fora de transação a conexão não é somente leitura
+                assertEquals("PRINCIPAL", bancoAtual(jdbc));
+            });
+    }
+
+    @Test
+    @DisplayName("Sem réplica configurada, transações somente leitura devem usar o banco principal")
+    void deveUsarPrincipalSemReplica() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("dataSourceReplica"));
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            TransactionTemplate leitura = new TransactionTemplate(
+                context.getBean(TransactionTemplate.class).getTransactionManager());
+            leitura.setReadOnly(true);
+
+            assertEquals("PRINCIPAL", leitura.execute(s -> bancoAtual(jdbc)));
+        });
+    }
+
+    private String bancoAtual(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+import com.calculosjuridicos.entity.Calculo;
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.calculosjuridicos.entity.StatusCalculo;
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.entity.TipoCalculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CalculoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CalculoRepository calculoRepository;
+
+    @Test
+    @DisplayName("Resumos devem trazer índice e resultado quando existem e nulos quando não existem")
+    void deveMontarResumosComJuncoesOpcionais() {
+        TabelaIndice ipca = entityManager.persist(TabelaIndice.builder().nome(TabelaIndice.IPCA_E).build());
+
+        Calculo calculado = novoCalculo("Calculado", ipca, LocalDateTime.of(2024, 3, 1, 10, 0));
+        calculado.setStatus(StatusCalculo.CALCULADO);
+        calculado.setResultado(ResultadoCalculo.builder()
+            .calculo(calculado)
+            .valorCorrigido(new BigDecimal("1500.10"))
+            .valorJuros(new BigDecimal("200.20"))
+            .valorMulta(BigDecimal.ZERO)
+            .valorHonorarios(BigDecimal.ZERO)
+            .valorTotal(new BigDecimal("1700.30"))
+            .dataCalculo(LocalDateTime.of(2024, 3, 2, 9, 30))
+            .build());
+        entityManager.persist(calculado);
+        entityManager.persist(novoCalculo("Rascunho", ipca, LocalDateTime.of(2024, 2, 1, 10, 0)));
+        Calculo semIndice = novoCalculo("Sem índice", null, LocalDateTime.of(2024, 1, 1, 10, 0));
+        semIndice.setTipoCalculo(TipoCalculo.FAZENDA_PUBLICA);
+        entityManager.persist(semIndice);
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<CalculoResumoResponse> pagina = calculoRepository.findResumos(
+            PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "dataCriacao")));
+
+        assertEquals(3, pagina.getTotalElements());
+        assertEquals(2, pagina.getTotalPages());
+
+        CalculoResumoResponse comResultado = pagina.getContent().get(0);
+        assertEquals(calculado.getId(), comResultado.getId());
+        assertEquals("Calculado", comResultado.getTitulo());
+        assertEquals(TipoCalculo.PADRAO, comResultado.getTipoCalculo());
+        assertEquals(new BigDecimal("1000.00"), comResultado.getValorPrincipal());
+        assertEquals(LocalDate.of(2020, 1, 1), comResultado.getDataInicial());
+        assertEquals(LocalDate.of(2024, 1, 31), comResultado.getDataFinal());
+        assertEquals(ipca.getId(), comResultado.getTabelaIndiceId());
+        assertEquals(TabelaIndice.IPCA_E, comResultado.getTabelaIndiceNome());
+        assertEquals(StatusCalculo.CALCULADO, comResultado.getStatus());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 0), comResultado.getDataCriacao());
+        assertEquals(new BigDecimal("1500.10"), comResultado.getValorCorrigido());
+        assertEquals(new BigDecimal("200.20"), comResultado.getValorJuros());
+        assertEquals(new BigDecimal("1700.30"), comResultado.getValorTotal());
+        assertEquals(LocalDateTime.of(2024, 3, 2, 9, 30), comResultado.getDataCalculo());
+
+        CalculoResumoResponse semResultado = pagina.getContent().get(1);
+        assertEquals("Rascunho", semResultado.getTitulo());
+        assertEquals(TabelaIndice.IPCA_E, semResultado.getTabelaIndiceNome());
+        assertNull(semResultado.getValorCorrigido());
+        assertNull(semResultado.getValorTotal());
+        assertNull(semResultado.getDataCalculo());
+
+        CalculoResumoResponse resumoSemIndice = calculoRepository.findResumos(
+            PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "dataCriacao"))).getContent().get(0);
+        assertEquals(semIndice.getId(), resumoSemIndice.getId());
+        assertEquals(TipoCalculo.FAZENDA_PUBLICA, resumoSemIndice.getTipoCalculo());
+        assertNull(resumoSemIndice.getTabelaIndiceId());
+        assertNull(resumoSemIndice.getTabelaIndiceNome());
+        assertNull(resumoSemIndice.getValorTotal());
+    }
+
+    private Calculo novoCalculo(String titulo, TabelaIndice tabelaIndice, LocalDateTime dataCriacao) {
+        return Calculo.builder()
+            .titulo(titulo)
+            .valorPrincipal(new BigDecimal("1000.00"))
+            .dataInicial(LocalDate.of(2020, 1, 1))
+            .dataFinal(LocalDate.of(2024, 1, 31))
+            .tabelaIndice(tabelaIndice)
+            .dataCriacao(dataCriacao)
+            .build();
+    }
+}
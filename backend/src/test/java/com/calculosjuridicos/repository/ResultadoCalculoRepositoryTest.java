@@ -0,0 +1,153 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.entity.Calculo;
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.calculosjuridicos.entity.ResultadoCalculoHistorico;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ResultadoCalculoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ResultadoCalculoRepository resultadoCalculoRepository;
+
+    @Autowired
+    private ResultadoCalculoHistoricoRepository resultadoCalculoHistoricoRepository;
+
+    @Autowired
+    private CalculoRepository calculoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Arquivar deve copiar valores, versão e detalhamento do resultado atual para o histórico")
+    void deveArquivarVersaoAtual() {
+        Calculo calculo = persistirCalculoComResultado(2);
+        Long resultadoId = calculo.getResultado().getId();
+
+        assertEquals(1, resultadoCalculoRepository.arquivarVersao(resultadoId));
+        entityManager.clear();
+
+        List<ResultadoCalculoHistorico> historico =
+            resultadoCalculoHistoricoRepository.findByCalculoIdOrderByVersaoDesc(calculo.getId());
+        assertEquals(1, historico.size());
+        ResultadoCalculoHistorico arquivado = historico.get(0);
+        assertEquals(2, arquivado.getVersao());
+        assertEquals(new BigDecimal("1500.10"), arquivado.getValorCorrigido());
+        assertEquals(new BigDecimal("200.20"), arquivado.getValorJuros());
+        assertEquals(new BigDecimal("1700.30"), arquivado.getValorTotal());
+        assertEquals(LocalDateTime.of(2024, 3, 2, 9, 30), arquivado.getDataCalculo());
+        assertNotNull(arquivado.getDataArquivamento());
+        assertArrayEquals(new byte[]{1, 2, 3}, jdbcTemplate.queryForObject(
+            "SELECT detalhamento_compacto FROM resultado_calculo_historico WHERE id = ?",
+            byte[].class, arquivado.getId()));
+    }
+
+    @Test
+    @DisplayName("Histórico deve listar as versões da mais recente para a mais antiga")
+    void deveListarHistoricoPorVersaoDecrescente() {
+        Calculo calculo = persistirCalculoComResultado(1);
+        ResultadoCalculo resultado = calculo.getResultado();
+
+        resultadoCalculoRepository.arquivarVersao(resultado.getId());
+        resultado.setVersao(2);
+        entityManager.flush();
+        resultadoCalculoRepository.arquivarVersao(resultado.getId());
+        entityManager.clear();
+
+        assertEquals(List.of(2, 1), resultadoCalculoHistoricoRepository
+            .findByCalculoIdOrderByVersaoDesc(calculo.getId()).stream()
+            .map(ResultadoCalculoHistorico::getVersao)
+            .toList());
+    }
+
+    @Test
+    @DisplayName("A mesma versão não pode ser arquivada duas vezes")
+    void naoDeveArquivarMesmaVersaoDuasVezes() {
+        Calculo calculo = persistirCalculoComResultado(3);
+        Long resultadoId = calculo.getResultado().getId();
+
+        resultadoCalculoRepository.arquivarVersao(resultadoId);
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> resultadoCalculoRepository.arquivarVersao(resultadoId));
+    }
+
+    @Test
+    @DisplayName("Carga para atualização deve trazer o cálculo com o resultado")
+    void deveCarregarCalculoParaAtualizacao() {
+        Calculo calculo = persistirCalculoComResultado(1);
+        entityManager.clear();
+
+        Calculo bloqueado = calculoRepository.findByIdParaAtualizacao(calculo.getId()).orElseThrow();
+
+        assertEquals(calculo.getResultado().getId(), bloqueado.getResultado().getId());
+        assertTrue(calculoRepository.findByIdParaAtualizacao(-1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Conversão do detalhamento legado só deve gravar na versão lida e enquanto houver JSON")
+    void conversaoDoLegadoDeveSerCondicional() {
+        Calculo calculo = persistirCalculoComResultado(2);
+        ResultadoCalculo resultado = calculo.getResultado();
+        resultado.setDetalhamentoCompacto(null);
+        resultado.setDetalhamentoJson("[]");
+        entityManager.flush();
+        Long resultadoId = resultado.getId();
+
+        // Versão lida antes de uma nova execução do cálculo
+        assertEquals(0, resultadoCalculoRepository.converterDetalhamentoLegado(resultadoId, 1, new byte[]{9}));
+        assertEquals(1, resultadoCalculoRepository.converterDetalhamentoLegado(resultadoId, 2, new byte[]{9}));
+        // Já convertido
+        assertEquals(0, resultadoCalculoRepository.converterDetalhamentoLegado(resultadoId, 2, new byte[]{8}));
+
+        assertArrayEquals(new byte[]{9}, jdbcTemplate.queryForObject(
+            "SELECT detalhamento_compacto FROM resultado_calculo WHERE id = ?", byte[].class, resultadoId));
+        assertNull(jdbcTemplate.queryForObject(
+            "SELECT detalhamento_json FROM resultado_calculo WHERE id = ?", String.class, resultadoId));
+    }
+
+    private Calculo persistirCalculoComResultado(int versao) {
+        Calculo calculo = Calculo.builder()
+            .titulo("Calculado")
+            .valorPrincipal(new BigDecimal("1000.00"))
+            .dataInicial(LocalDate.of(2020, 1, 1))
+            .dataFinal(LocalDate.of(2024, 1, 31))
+            .build();
+        calculo.setResultado(ResultadoCalculo.builder()
+            .calculo(calculo)
+            .versao(versao)
+            .valorCorrigido(new BigDecimal("1500.10"))
+            .valorJuros(new BigDecimal("200.20"))
+            .valorMulta(BigDecimal.ZERO)
+            .valorHonorarios(BigDecimal.ZERO)
+            .valorTotal(new BigDecimal("1700.30"))
+            .dataCalculo(LocalDateTime.of(2024, 3, 2, 9, 30))
+            .detalhamentoCompacto(new byte[]{1, 2, 3})
+            .build());
+        entityManager.persist(calculo);
+        entityManager.flush();
+        return calculo;
+    }
+}
@@ -0,0 +1,166 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.entity.ValorIndice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ValorIndiceRepositoryImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ValorIndiceRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ValorIndiceRepositoryImpl(jdbcTemplate, 100);
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("Deve gravar os valores em INSERTs de várias linhas limitados ao tamanho do lote")
+    void deveGravarEmLotes() {
+        Map<LocalDate, BigDecimal> valores = new LinkedHashMap<>();
+        for (int i = 0; i < 250; i++) {
+            valores.put(LocalDate.of(2000, 1, 1).plusMonths(i), new BigDecimal("1000.00000000").add(BigDecimal.valueOf(i)));
+        }
+
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any())).thenReturn(true);
+
+        repository.gravarEmLote(7L, valores, ValorIndice.FonteValor.API_BCB);
+
+        ArgumentCaptor<String> sqls = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> parametros = ArgumentCaptor.forClass(Object[].class);
+        InOrder ordem = inOrder(entityManager, jdbcTemplate);
+        ordem.verify(entityManager).flush();
+        ordem.verify(jdbcTemplate, times(3)).update(sqls.capture(), parametros.capture());
+
+        List<Object[]> lotes = parametros.getAllValues();
+        assertEquals(List.of(400, 400, 200), lotes.stream().map(p -> p.length).toList());
+        assertEquals(100, contarLinhas(sqls.getAllValues().get(0)));
+        assertEquals(50, contarLinhas(sqls.getAllValues().get(2)));
+        assertTrue(sqls.getValue().endsWith(" AS novo ON DUPLICATE KEY UPDATE valor = novo.valor, fonte = novo.fonte"));
+
+        Object[] ultimoLote = lotes.get(2);
+        assertEquals(7L, ultimoLote[196]);
+        assertEquals(java.sql.Date.valueOf(LocalDate.of(2020, 10, 1)), ultimoLote[197]);
+        assertEquals(new BigDecimal("1249.00000000"), ultimoLote[198]);
+        assertEquals("API_BCB", ultimoLote[199]);
+    }
+
+    @Test
+    @DisplayName("Sem suporte ao alias de linha, o upsert deve usar VALUES() e a verificação deve ocorrer uma vez")
+    void deveUsarFormaLegadaSemAliasDeLinha() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any())).thenReturn(false);
+
+        repository.gravarEmLote(7L, Map.of(LocalDate.of(2020, 1, 1), BigDecimal.ONE), ValorIndice.FonteValor.API_BCB);
+        repository.gravarEmLote(7L, Map.of(LocalDate.of(2020, 2, 1), BigDecimal.TEN), ValorIndice.FonteValor.API_BCB);
+
+        ArgumentCaptor<String> sqls = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(sqls.capture(), any(Object[].class));
+        verify(jdbcTemplate).execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any());
+        sqls.getAllValues().forEach(sql ->
+            assertTrue(sql.endsWith(") ON DUPLICATE KEY UPDATE valor = VALUES(valor), fonte = VALUES(fonte)")));
+    }
+
+    @Test
+    @DisplayName("Alias de linha deve ser usado apenas no MySQL 8.0.19 ou posterior")
+    void deveDetectarSuporteAoAliasDeLinha() throws SQLException {
+        assertTrue(suportaAliasDeLinha("MySQL", "8.0.19"));
+        assertTrue(suportaAliasDeLinha("MySQL", "8.0.35-0ubuntu0.22.04.1"));
+        assertTrue(suportaAliasDeLinha("MySQL", "8.4.0"));
+        assertTrue(suportaAliasDeLinha("MySQL", "9.1.0"));
+        assertFalse(suportaAliasDeLinha("MySQL", "8.0.18"));
+        assertFalse(suportaAliasDeLinha("MySQL", "5.7.44-log"));
+        assertFalse(suportaAliasDeLinha("MySQL", "5.5.5-10.11.6-MariaDB"));
+        assertFalse(suportaAliasDeLinha("MariaDB", "10.11.6-MariaDB"));
+        assertFalse(suportaAliasDeLinha("H2", "2.2.224 (2023-09-17)"));
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o banco quando não há valores")
+    void naoDeveGravarSemValores() {
+        repository.gravarEmLote(7L, Map.of(), ValorIndice.FonteValor.API_BCB);
+
+        verifyNoInteractions(jdbcTemplate, entityManager);
+    }
+
+    @Test
+    @DisplayName("Promoção deve substituir a série pela área de preparação e esvaziá-la")
+    void devePromoverReconstrucao() {
+        when(jdbcTemplate.update(anyString(), eq(7L)))
+            .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("INSERT") ? 300 : 250);
+
+        assertEquals(300, repository.promoverReconstrucao(7L, 300));
+
+        InOrder ordem = inOrder(entityManager, jdbcTemplate);
+        ordem.verify(entityManager).flush();
+        ordem.verify(jdbcTemplate).update("DELETE FROM valor_indice WHERE tabela_indice_id = ?", 7L);
+        ordem.verify(jdbcTemplate).update(startsWith("INSERT INTO valor_indice "), eq(7L));
+        ordem.verify(jdbcTemplate).update("DELETE FROM valor_indice_reconstrucao WHERE tabela_indice_id = ?", 7L);
+    }
+
+    @Test
+    @DisplayName("Promoção com quantidade diferente da preparada deve falhar sem esvaziar a área de preparação")
+    void naoDevePromoverReconstrucaoIncompleta() {
+        when(jdbcTemplate.update(anyString(), eq(7L)))
+            .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("INSERT") ? 0 : 250);
+
+        JdbcUpdateAffectedIncorrectNumberOfRowsException erro = assertThrows(
+            JdbcUpdateAffectedIncorrectNumberOfRowsException.class, () -> repository.promoverReconstrucao(7L, 300));
+
+        assertEquals(300, erro.getExpectedRowsAffected());
+        assertEquals(0, erro.getActualRowsAffected());
+        verify(jdbcTemplate, never()).update("DELETE FROM valor_indice_reconstrucao WHERE tabela_indice_id = ?", 7L);
+    }
+
+    private boolean suportaAliasDeLinha(String produto, String versao) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(produto);
+        if (produto.equals("MySQL")) {
+            when(metaData.getDatabaseProductVersion()).thenReturn(versao);
+        }
+        return ValorIndiceRepositoryImpl.suportaAliasDeLinha(metaData);
+    }
+
+    private int contarLinhas(String sql) {
+        return sql.split("\\(\\?, \\?, \\?, \\?\\)", -1).length - 1;
+    }
+}
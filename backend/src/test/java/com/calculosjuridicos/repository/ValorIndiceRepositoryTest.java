@@ -0,0 +1,152 @@
+package com.calculosjuridicos.repository;
+
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.entity.ValorIndice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ValorIndiceRepositoryTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 12, 1);
+
+    @Autowired
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    @Autowired
+    private ValorIndiceRepository valorIndiceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM valor_indice_reconstrucao");
+        jdbcTemplate.update("DELETE FROM valor_indice");
+        jdbcTemplate.update("DELETE FROM tabela_indice");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // cada chamada em sua própria transação, como na aplicação
+    @DisplayName("Consulta da série deve enxergar valores gravados por JDBC depois de uma leitura anterior")
+    void consultaDaSerieDeveEnxergarGravacoesJdbc() {
+        TabelaIndice ipca = tabelaIndiceRepository.save(TabelaIndice.builder().nome(TabelaIndice.IPCA_E).build());
+        Long id = valorIndiceRepository.save(ValorIndice.builder()
+            .tabelaIndice(ipca)
+            .competencia(INICIO)
+            .valor(new BigDecimal("1000.00000000"))
+            .build()).getId();
+        assertEquals(List.of(new BigDecimal("1000.00000000")), valores(ipca.getId()));
+        valorIndiceRepository.findById(id);
+
+        jdbcTemplate.update("UPDATE valor_indice SET valor = ? WHERE id = ?", new BigDecimal("1234.56780000"), id);
+        jdbcTemplate.update("INSERT INTO valor_indice (tabela_indice_id, competencia, valor, fonte) VALUES (?, ?, ?, ?)",
+            ipca.getId(), INICIO.plusMonths(1), new BigDecimal("1240.00000000"), "MANUAL");
+
+        assertEquals(List.of(new BigDecimal("1234.56780000"), new BigDecimal("1240.00000000")), valores(ipca.getId()));
+    }
+
+    @Test
+    @DisplayName("Gravação em lote deve inserir competências novas e atualizar valor e fonte das existentes")
+    void gravacaoEmLoteDeveFazerUpsert() {
+        TabelaIndice ipca = tabelaIndiceRepository.save(TabelaIndice.builder().nome(TabelaIndice.IPCA_E).build());
+        valorIndiceRepository.save(ValorIndice.builder()
+            .tabelaIndice(ipca)
+            .competencia(INICIO)
+            .valor(new BigDecimal("1000.00000000"))
+            .fonte(ValorIndice.FonteValor.CSV_IMPORT)
+            .build());
+
+        Map<LocalDate, BigDecimal> lote = new LinkedHashMap<>();
+        lote.put(INICIO, new BigDecimal("1001.50000000"));
+        lote.put(INICIO.plusMonths(1), new BigDecimal("1010.00000000"));
+        lote.put(INICIO.plusMonths(2), new BigDecimal("1020.00000000"));
+        valorIndiceRepository.gravarEmLote(ipca.getId(), lote, ValorIndice.FonteValor.API_BCB);
+
+        assertEquals(List.of("2024-01-01 1001.50000000 API_BCB", "2024-02-01 1010.00000000 API_BCB",
+            "2024-03-01 1020.00000000 API_BCB"), linhas("valor_indice", ipca.getId()));
+    }
+
+    @Test
+    @DisplayName("Promoção deve substituir a série pelos valores preparados e esvaziar a área de preparação")
+    void promocaoDeveSubstituirSerie() {
+        TabelaIndice ipca = tabelaIndiceRepository.save(TabelaIndice.builder().nome(TabelaIndice.IPCA_E).build());
+        TabelaIndice inpc = tabelaIndiceRepository.save(TabelaIndice.builder().nome(TabelaIndice.INPC).build());
+        valorIndiceRepository.gravarEmLote(ipca.getId(), Map.of(
+            INICIO, new BigDecimal("1.00000000"),
+            FIM, new BigDecimal("9.00000000")), ValorIndice.FonteValor.CSV_IMPORT);
+        valorIndiceRepository.gravarEmLote(inpc.getId(), Map.of(INICIO, new BigDecimal("5.00000000")),
+            ValorIndice.FonteValor.CSV_IMPORT);
+
+        Map<LocalDate, BigDecimal> serie = new LinkedHashMap<>();
+        serie.put(INICIO, new BigDecimal("1.50000000"));
+        serie.put(INICIO.plusMonths(1), new BigDecimal("2.50000000"));
+        valorIndiceRepository.prepararReconstrucao(ipca.getId(), serie, ValorIndice.FonteValor.API_BCB);
+        assertEquals(2, linhas("valor_indice_reconstrucao", ipca.getId()).size());
+
+        assertEquals(2, valorIndiceRepository.promoverReconstrucao(ipca.getId(), 2));
+
+        assertEquals(List.of("2024-01-01 1.50000000 API_BCB", "2024-02-01 2.50000000 API_BCB"),
+            linhas("valor_indice", ipca.getId()));
+        assertEquals(List.of("2024-01-01 5.00000000 CSV_IMPORT"), linhas("valor_indice", inpc.getId()));
+        assertTrue(linhas("valor_indice_reconstrucao", ipca.getId()).isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Promoção de área de preparação esvaziada por outra reconstrução deve ser desfeita")
+    void promocaoSemValoresPreparadosDeveManterSerie() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        TabelaIndice ipca = tabelaIndiceRepository.save(TabelaIndice.builder().nome(TabelaIndice.IPCA_E).build());
+        transacao.executeWithoutResult(status -> valorIndiceRepository.gravarEmLote(ipca.getId(),
+            Map.of(INICIO, new BigDecimal("1.00000000")), ValorIndice.FonteValor.CSV_IMPORT));
+        transacao.executeWithoutResult(status -> valorIndiceRepository.prepararReconstrucao(ipca.getId(),
+            Map.of(INICIO, new BigDecimal("1.50000000"), FIM, new BigDecimal("2.50000000")),
+            ValorIndice.FonteValor.API_BCB));
+
+        // Outra reconstrução promoveu e esvaziou a área de preparação
+        jdbcTemplate.update("DELETE FROM valor_indice_reconstrucao WHERE tabela_indice_id = ?", ipca.getId());
+        assertThrows(JdbcUpdateAffectedIncorrectNumberOfRowsException.class, () -> transacao.executeWithoutResult(status ->
+            valorIndiceRepository.promoverReconstrucao(ipca.getId(), 2)));
+
+        assertEquals(List.of("2024-01-01 1.00000000 CSV_IMPORT"), linhas("valor_indice", ipca.getId()));
+    }
+
+    private List<String> linhas(String tabela, Long tabelaIndiceId) {
+        return jdbcTemplate.query("SELECT competencia, valor, fonte FROM " + tabela +
+                " WHERE tabela_indice_id = ? ORDER BY competencia",
+            (rs, i) -> rs.getDate(1).toLocalDate() + " " + rs.getBigDecimal(2).toPlainString() + " " + rs.getString(3),
+            tabelaIndiceId);
+    }
+
+    private List<BigDecimal> valores(Long tabelaIndiceId) {
+        return valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(tabelaIndiceId, INICIO, FIM).stream()
+            .map(ValorIndice::getValor)
+            .toList();
+    }
+}
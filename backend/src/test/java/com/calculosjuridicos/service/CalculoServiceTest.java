@@ -0,0 +1,226 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.request.CenariosRequest;
+import com.calculosjuridicos.dto.response.CenariosResponse;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.entity.PeriodicidadeJuros;
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.entity.TipoCalculo;
+import com.calculosjuridicos.entity.TipoJuros;
+import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.repository.CalculoRepository;
+import com.calculosjuridicos.repository.ResultadoCalculoHistoricoRepository;
+import com.calculosjuridicos.repository.ResultadoCalculoRepository;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalculoServiceTest {
+
+    @Mock
+    private CalculoRepository calculoRepository;
+
+    @Mock
+    private ResultadoCalculoRepository resultadoCalculoRepository;
+
+    @Mock
+    private ResultadoCalculoHistoricoRepository resultadoCalculoHistoricoRepository;
+
+    @Mock
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    @Mock
+    private ValorIndiceRepository valorIndiceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CalculoService sequencial;
+    private CalculoService paralelo;
+
+    @BeforeEach
+    void setUp() {
+        when(tabelaIndiceRepository.findAll()).thenReturn(List.of(
+            TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build(),
+            TabelaIndice.builder().id(2L).nome(TabelaIndice.INPC).build(),
+            TabelaIndice.builder().id(3L).nome(TabelaIndice.SELIC).build()));
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(anyLong(), any(), any()))
+            .thenAnswer(invocation -> gerarSerie(invocation.getArgument(0)));
+
+        IndiceSeriesStore seriesStore = new IndiceSeriesStore(valorIndiceRepository, mock(PlatformTransactionManager.class));
+        CorrecaoMonetariaService correcaoService = new CorrecaoMonetariaService(seriesStore);
+        TabelaIndiceRegistry registry = new TabelaIndiceRegistry(tabelaIndiceRepository);
+        ResultadoPreviewCache semCache = new ResultadoPreviewCache(0, Duration.ZERO);
+        DetalhamentoService detalhamentoService = new DetalhamentoService(new ObjectMapper());
+        FazendaPublicaCalculoService fazendaPublicaService = new FazendaPublicaCalculoService(correcaoService, registry);
+
+        sequencial = new CalculoService(calculoRepository, tabelaIndiceRepository, resultadoCalculoRepository,
+            resultadoCalculoHistoricoRepository, correcaoService, seriesStore, new JurosService(), fazendaPublicaService,
+            registry, semCache, detalhamentoService, eventPublisher);
+        paralelo = new CalculoService(calculoRepository, tabelaIndiceRepository, resultadoCalculoRepository,
+            resultadoCalculoHistoricoRepository, correcaoService, seriesStore, new JurosService(), fazendaPublicaService,
+            registry, semCache, detalhamentoService, eventPublisher);
+        ReflectionTestUtils.setField(sequencial, "maxCenarios", 500);
+        ReflectionTestUtils.setField(paralelo, "paraleloHabilitado", true);
+        ReflectionTestUtils.setField(paralelo, "paraleloLimiteParcelas", 100);
+        ReflectionTestUtils.setField(paralelo, "paraleloTamanhoLote", 37);
+        ReflectionTestUtils.setField(paralelo, "paraleloThreads", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(paralelo, "encerrarPoolParcelas");
+    }
+
+    @Test
+    @DisplayName("Modo paralelo deve produzir parcelas e totais idênticos ao modo sequencial")
+    void modoParaleloDeveSerIdenticoAoSequencial() {
+        CalculoRequest request = criarRequest(1200);
+
+        ResultadoCalculoResponse esperado = sequencial.preview(request);
+        ResultadoCalculoResponse obtido = paralelo.preview(request);
+
+        assertEquals(esperado.getValorCorrigido(), obtido.getValorCorrigido());
+        assertEquals(esperado.getValorJuros(), obtido.getValorJuros());
+        assertEquals(esperado.getValorTotal(), obtido.getValorTotal());
+        assertEquals(esperado.getParcelas(), obtido.getParcelas());
+    }
+
+    @Test
+    @DisplayName("Modo paralelo deve propagar o erro da primeira parcela inválida na ordem de entrada")
+    void modoParaleloDevePropagarPrimeiroErroNaOrdem() {
+        CalculoRequest request = criarRequest(400);
+        // Parcelas anteriores ao início da série não têm índice base
+        request.getParcelas().get(250).setDataVencimento(LocalDate.of(1990, 3, 1));
+        request.getParcelas().get(300).setDataVencimento(LocalDate.of(1991, 7, 1));
+
+        BusinessException esperado = assertThrows(BusinessException.class, () -> sequencial.preview(request));
+        BusinessException obtido = assertThrows(BusinessException.class, () -> paralelo.preview(request));
+
+        assertEquals(esperado.getMessage(), obtido.getMessage());
+        assertEquals("Índice não encontrado para a competência: 1990-02-01", obtido.getMessage());
+    }
+
+    @Test
+    @DisplayName("Cada cenário da grade deve ter os mesmos totais do preview correspondente")
+    void cenariosDevemCoincidirComPreview() {
+        CalculoRequest base = criarRequest(60);
+        CenariosRequest cenariosRequest = CenariosRequest.builder()
+            .calculo(base)
+            .datasFinais(List.of(LocalDate.of(2024, 6, 30), LocalDate.of(2024, 9, 15), LocalDate.of(2025, 6, 30)))
+            .taxasJuros(List.of(BigDecimal.ZERO, new BigDecimal("0.5"), new BigDecimal("1.0")))
+            .tiposJuros(List.of(TipoJuros.SIMPLES, TipoJuros.COMPOSTO))
+            .build();
+
+        CenariosResponse response = sequencial.calcularCenarios(cenariosRequest);
+
+        assertEquals(18, response.getCenarios().size());
+        for (CenariosResponse.CenarioResponse cenario : response.getCenarios()) {
+            assertMesmosTotais(sequencial.preview(base.toBuilder()
+                .dataFinal(cenario.getDataFinal())
+                .taxaJuros(cenario.getTaxaJuros())
+                .tipoJuros(cenario.getTipoJuros())
+                .build()), cenario);
+        }
+    }
+
+    @Test
+    @DisplayName("Cenários da Fazenda Pública devem ter os mesmos totais do preview, ao centavo")
+    void cenariosFazendaPublicaDevemCoincidirComPreview() {
+        CalculoRequest base = CalculoRequest.builder()
+            .tipoCalculo(TipoCalculo.FAZENDA_PUBLICA)
+            .valorPrincipal(new BigDecimal("48213.77"))
+            .dataInicial(LocalDate.of(2003, 5, 1))
+            .dataFinal(LocalDate.of(2021, 11, 30))
+            .multaPercentual(new BigDecimal("2"))
+            .honorariosPercentual(new BigDecimal("10"))
+            .build();
+        List<LocalDate> datasFinais = List.of(LocalDate.of(2009, 6, 30), LocalDate.of(2021, 11, 30),
+            LocalDate.of(2023, 3, 15), LocalDate.of(2024, 12, 31));
+
+        CenariosResponse response = sequencial.calcularCenarios(CenariosRequest.builder()
+            .calculo(base)
+            .datasFinais(datasFinais)
+            .build());
+
+        assertEquals(datasFinais.size(), response.getCenarios().size());
+        for (CenariosResponse.CenarioResponse cenario : response.getCenarios()) {
+            assertMesmosTotais(sequencial.preview(base.toBuilder().dataFinal(cenario.getDataFinal()).build()),
+                cenario);
+        }
+    }
+
+    private void assertMesmosTotais(ResultadoCalculoResponse esperado, CenariosResponse.CenarioResponse cenario) {
+        assertEquals(esperado.getValorCorrigido(), cenario.getValorCorrigido());
+        assertEquals(esperado.getValorJuros(), cenario.getValorJuros());
+        assertEquals(esperado.getValorMulta(), cenario.getValorMulta());
+        assertEquals(esperado.getValorHonorarios(), cenario.getValorHonorarios());
+        assertEquals(esperado.getValorTotal(), cenario.getValorTotal());
+        assertEquals(esperado.getFatorCorrecao(), cenario.getFatorCorrecao());
+    }
+
+    private CalculoRequest criarRequest(int quantidadeParcelas) {
+        List<CalculoRequest.ParcelaRequest> parcelas = new ArrayList<>();
+        LocalDate vencimento = LocalDate.of(2001, 1, 10);
+        for (int i = 0; i < quantidadeParcelas; i++) {
+            parcelas.add(CalculoRequest.ParcelaRequest.builder()
+                .descricao("Parcela " + (i + 1))
+                .valorOriginal(new BigDecimal("1234.56").add(new BigDecimal(i % 97)))
+                .dataVencimento(vencimento.plusMonths(i % 280))
+                .tabelaIndiceId(i % 3 == 0 ? 2L : null)
+                .build());
+        }
+
+        return CalculoRequest.builder()
+            .valorPrincipal(new BigDecimal("100000.00"))
+            .dataInicial(LocalDate.of(2001, 1, 1))
+            .dataFinal(LocalDate.of(2024, 6, 30))
+            .tabelaIndiceId(1L)
+            .tipoJuros(TipoJuros.SIMPLES)
+            .taxaJuros(new BigDecimal("1.0"))
+            .periodicidadeJuros(PeriodicidadeJuros.MENSAL)
+            .jurosSobreCorrigido(true)
+            .multaPercentual(new BigDecimal("2"))
+            .honorariosPercentual(new BigDecimal("10"))
+            .parcelas(parcelas)
+            .build();
+    }
+
+    private List<ValorIndice> gerarSerie(Long indiceId) {
+        List<ValorIndice> valores = new ArrayList<>();
+        BigDecimal acumulado = new BigDecimal("1000.00000000");
+        BigDecimal fator = indiceId == 1L ? new BigDecimal("1.0041") : new BigDecimal("1.0037");
+        for (LocalDate competencia = LocalDate.of(1995, 1, 1); !competencia.isAfter(LocalDate.of(2024, 12, 1));
+             competencia = competencia.plusMonths(1)) {
+            valores.add(ValorIndice.builder().competencia(competencia).valor(acumulado).build());
+            acumulado = acumulado.multiply(fator).setScale(8, RoundingMode.HALF_UP);
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,180 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.entity.Calculo;
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.calculosjuridicos.entity.ResultadoCalculoHistorico;
+import com.calculosjuridicos.entity.StatusCalculo;
+import com.calculosjuridicos.entity.TipoCalculo;
+import com.calculosjuridicos.exception.ResourceNotFoundException;
+import com.calculosjuridicos.repository.CalculoRepository;
+import com.calculosjuridicos.repository.ResultadoCalculoHistoricoRepository;
+import com.calculosjuridicos.repository.ResultadoCalculoRepository;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalculoServiceVersaoTest {
+
+    @Mock
+    private CalculoRepository calculoRepository;
+
+    @Mock
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    @Mock
+    private ResultadoCalculoRepository resultadoCalculoRepository;
+
+    @Mock
+    private ResultadoCalculoHistoricoRepository resultadoCalculoHistoricoRepository;
+
+    @Mock
+    private CorrecaoMonetariaService correcaoService;
+
+    @Mock
+    private IndiceSeriesStore indiceSeriesStore;
+
+    @Mock
+    private FazendaPublicaCalculoService fazendaPublicaService;
+
+    @Mock
+    private TabelaIndiceRegistry tabelaIndiceRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CalculoService calculoService;
+
+    @BeforeEach
+    void setUp() {
+        calculoService = new CalculoService(calculoRepository, tabelaIndiceRepository, resultadoCalculoRepository,
+            resultadoCalculoHistoricoRepository, correcaoService, indiceSeriesStore, new JurosService(),
+            fazendaPublicaService, tabelaIndiceRegistry, new ResultadoPreviewCache(0, Duration.ZERO),
+            new DetalhamentoService(new ObjectMapper()), eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Primeira execução deve criar o resultado na versão 1, sem arquivar")
+    void primeiraExecucaoDeveCriarVersaoUm() {
+        Calculo calculo = criarCalculo();
+        when(calculoRepository.findByIdParaAtualizacao(7L)).thenReturn(Optional.of(calculo));
+        when(fazendaPublicaService.calcular(any(CalculoRequest.class))).thenReturn(criarResponse("1500.00"));
+
+        calculoService.executar(7L);
+
+        ResultadoCalculo resultado = calculo.getResultado();
+        assertNotNull(resultado);
+        assertSame(calculo, resultado.getCalculo());
+        assertEquals(1, resultado.getVersao());
+        assertEquals(new BigDecimal("1500.00"), resultado.getValorTotal());
+        assertNotNull(resultado.getDetalhamentoCompacto());
+        assertEquals(StatusCalculo.CALCULADO, calculo.getStatus());
+        verify(resultadoCalculoRepository, never()).arquivarVersao(any());
+        verify(eventPublisher).publishEvent(any(CalculoAlteradoEvent.class));
+    }
+
+    @Test
+    @DisplayName("Nova execução deve arquivar a versão atual e atualizar o resultado no lugar")
+    void novaExecucaoDeveArquivarEIncrementarVersao() {
+        Calculo calculo = criarCalculo();
+        LocalDateTime calculadoEm = LocalDateTime.of(2024, 1, 10, 9, 30);
+        ResultadoCalculo atual = ResultadoCalculo.builder()
+            .id(9L)
+            .calculo(calculo)
+            .versao(3)
+            .valorCorrigido(new BigDecimal("900.00"))
+            .valorJuros(BigDecimal.ZERO)
+            .valorMulta(BigDecimal.ZERO)
+            .valorHonorarios(BigDecimal.ZERO)
+            .valorTotal(new BigDecimal("900.00"))
+            .dataCalculo(calculadoEm)
+            .build();
+        calculo.setResultado(atual);
+        when(calculoRepository.findByIdParaAtualizacao(7L)).thenReturn(Optional.of(calculo));
+        when(fazendaPublicaService.calcular(any(CalculoRequest.class))).thenReturn(criarResponse("1500.00"));
+
+        calculoService.executar(7L);
+
+        verify(resultadoCalculoRepository).arquivarVersao(9L);
+        assertSame(atual, calculo.getResultado());
+        assertEquals(9L, atual.getId());
+        assertEquals(4, atual.getVersao());
+        assertTrue(atual.getDataCalculo().isAfter(calculadoEm));
+        assertEquals(new BigDecimal("1000.00"), atual.getValorCorrigido());
+        assertEquals(new BigDecimal("1500.00"), atual.getValorTotal());
+    }
+
+    @Test
+    @DisplayName("Execução de cálculo inexistente deve lançar ResourceNotFoundException")
+    void executarCalculoInexistente() {
+        when(calculoRepository.findByIdParaAtualizacao(7L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> calculoService.executar(7L));
+        verify(resultadoCalculoRepository, never()).arquivarVersao(any());
+    }
+
+    @Test
+    @DisplayName("Histórico deve listar as versões arquivadas do cálculo")
+    void listarHistoricoResultados() {
+        List<ResultadoCalculoHistorico> historico = List.of(
+            ResultadoCalculoHistorico.builder().id(2L).calculoId(7L).versao(2).build(),
+            ResultadoCalculoHistorico.builder().id(1L).calculoId(7L).versao(1).build());
+        when(calculoRepository.existsById(7L)).thenReturn(true);
+        when(resultadoCalculoHistoricoRepository.findByCalculoIdOrderByVersaoDesc(7L)).thenReturn(historico);
+
+        assertEquals(historico, calculoService.listarHistoricoResultados(7L));
+    }
+
+    @Test
+    @DisplayName("Histórico de cálculo inexistente deve lançar ResourceNotFoundException")
+    void listarHistoricoDeCalculoInexistente() {
+        when(calculoRepository.existsById(7L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> calculoService.listarHistoricoResultados(7L));
+        verify(resultadoCalculoHistoricoRepository, never()).findByCalculoIdOrderByVersaoDesc(any());
+    }
+
+    private Calculo criarCalculo() {
+        return Calculo.builder()
+            .id(7L)
+            .titulo("Execução contra a Fazenda")
+            .tipoCalculo(TipoCalculo.FAZENDA_PUBLICA)
+            .valorPrincipal(new BigDecimal("1000.00"))
+            .dataInicial(LocalDate.of(2020, 1, 1))
+            .dataFinal(LocalDate.of(2024, 6, 30))
+            .build();
+    }
+
+    private ResultadoCalculoResponse criarResponse(String total) {
+        return ResultadoCalculoResponse.builder()
+            .valorOriginal(new BigDecimal("1000.00"))
+            .valorCorrigido(new BigDecimal("1000.00"))
+            .valorJuros(new BigDecimal("500.00"))
+            .valorMulta(BigDecimal.ZERO)
+            .valorHonorarios(BigDecimal.ZERO)
+            .valorTotal(new BigDecimal(total))
+            .detalhamento(List.of())
+            .build();
+    }
+}
@@ -8,17 +8,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,13 +32,15 @@ class CorrecaoMonetariaServiceTest {
     @Mock
     private ValorIndiceRepository valorIndiceRepository;
 
-    @InjectMocks
     private CorrecaoMonetariaService correcaoService;
 
     private TabelaIndice tabelaIndice;
 
     @BeforeEach
     void setUp() {
+        IndiceSeriesStore seriesStore = new IndiceSeriesStore(valorIndiceRepository, mock(PlatformTransactionManager.class));
+        correcaoService = new CorrecaoMonetariaService(seriesStore);
+
         tabelaIndice = TabelaIndice.builder()
             .id(1L)
             .nome("IPCA_E")
@@ -64,13 +71,8 @@ class CorrecaoMonetariaServiceTest {
             .valor(new BigDecimal("125.00000000"))
             .build();
 
-        when(valorIndiceRepository.findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(
-            eq(1L), eq(LocalDate.of(2019, 12, 1))))
-            .thenReturn(Optional.of(indiceInicial));
-
-        when(valorIndiceRepository.findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(
-            eq(1L), eq(LocalDate.of(2024, 1, 1))))
-            .thenReturn(Optional.of(indiceFinal));
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenReturn(List.of(indiceInicial, indiceFinal));
 
         // Act
         BigDecimal resultado = correcaoService.calcular(valorOriginal, dataInicial, dataFinal, 1L);
@@ -121,9 +123,8 @@ class CorrecaoMonetariaServiceTest {
     @Test
     @DisplayName("Deve lançar exceção quando índice inicial não encontrado")
     void deveLancarExcecaoQuandoIndiceInicialNaoEncontrado() {
-        when(valorIndiceRepository.findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(
-            any(), any()))
-            .thenReturn(Optional.empty());
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(any(), any(), any()))
+            .thenReturn(List.of());
 
         assertThrows(BusinessException.class, () ->
             correcaoService.calcular(
@@ -142,17 +143,17 @@ class CorrecaoMonetariaServiceTest {
         BigDecimal valorOriginal = new BigDecimal("1000.00");
 
         ValorIndice indiceInicial = ValorIndice.builder()
+            .competencia(LocalDate.of(2019, 12, 1))
             .valor(new BigDecimal("4532.52000000"))
             .build();
 
         ValorIndice indiceFinal = ValorIndice.builder()
+            .competencia(LocalDate.of(2024, 1, 1))
             .valor(new BigDecimal("5678.25000000"))
             .build();
 
-        when(valorIndiceRepository.findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(
-            eq(1L), any()))
-            .thenReturn(Optional.of(indiceInicial))
-            .thenReturn(Optional.of(indiceFinal));
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenReturn(List.of(indiceInicial, indiceFinal));
 
         // Act
         BigDecimal resultado = correcaoService.calcular(
@@ -173,17 +174,17 @@ class CorrecaoMonetariaServiceTest {
     void deveCalcularFatorCorrecaoCorretamente() {
         // Arrange
         ValorIndice indiceInicial = ValorIndice.builder()
+            .competencia(LocalDate.of(2019, 12, 1))
             .valor(new BigDecimal("100.00000000"))
             .build();
 
         ValorIndice indiceFinal = ValorIndice.builder()
+            .competencia(LocalDate.of(2024, 1, 1))
             .valor(new BigDecimal("150.00000000"))
             .build();
 
-        when(valorIndiceRepository.findFirstByTabelaIndiceIdAndCompetenciaLessThanEqualOrderByCompetenciaDesc(
-            eq(1L), any()))
-            .thenReturn(Optional.of(indiceInicial))
-            .thenReturn(Optional.of(indiceFinal));
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenReturn(List.of(indiceInicial, indiceFinal));
 
         // Act
         BigDecimal fator = correcaoService.calcularFatorCorrecao(
@@ -195,4 +196,76 @@ class CorrecaoMonetariaServiceTest {
         // Assert - Fator = 150/100 = 1.5
         assertEquals(0, fator.compareTo(new BigDecimal("1.5")));
     }
+
+    @Test
+    @DisplayName("Deve carregar a série do banco uma única vez para várias parcelas")
+    void deveCarregarSerieUmaUnicaVezParaVariasParcelas() {
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenReturn(List.of(
+                ValorIndice.builder().competencia(LocalDate.of(2019, 12, 1)).valor(new BigDecimal("100.00000000")).build(),
+                ValorIndice.builder().competencia(LocalDate.of(2022, 6, 1)).valor(new BigDecimal("110.00000000")).build(),
+                ValorIndice.builder().competencia(LocalDate.of(2024, 1, 1)).valor(new BigDecimal("125.00000000")).build()
+            ));
+
+        for (int i = 0; i < 500; i++) {
+            correcaoService.calcular(new BigDecimal("1000.00"), LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1), 1L);
+            correcaoService.calcularFatorCorrecao(LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1), 1L);
+        }
+
+        // Competência sem valor próprio usa o último valor anterior (06/2022)
+        assertEquals(new BigDecimal("1100.00"), correcaoService.calcular(
+            new BigDecimal("1000.00"), LocalDate.of(2020, 1, 1), LocalDate.of(2023, 3, 10), 1L));
+
+        verify(valorIndiceRepository, times(1)).findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Correção em lote deve coincidir com o cálculo parcela a parcela")
+    void correcaoEmLoteDeveCoincidirComCalculoIndividual() {
+        List<ValorIndice> serie = new ArrayList<>();
+        BigDecimal acumulado = new BigDecimal("1000.00000000");
+        for (LocalDate competencia = LocalDate.of(2000, 1, 1); competencia.isBefore(LocalDate.of(2024, 7, 1));
+             competencia = competencia.plusMonths(1)) {
+            // Lacuna proposital em 2015 para exercitar o "último valor anterior"
+            if (competencia.getYear() != 2015) {
+                serie.add(ValorIndice.builder().competencia(competencia).valor(acumulado).build());
+            }
+            acumulado = acumulado.multiply(new BigDecimal("1.00431")).setScale(8, RoundingMode.HALF_UP);
+        }
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any())).thenReturn(serie);
+
+        LocalDate dataFinal = LocalDate.of(2024, 6, 30);
+        List<LocalDate> vencimentos = new ArrayList<>();
+        for (LocalDate vencimento = LocalDate.of(2000, 2, 5); vencimento.isBefore(dataFinal);
+             vencimento = vencimento.plusMonths(1)) {
+            vencimentos.add(vencimento);
+        }
+
+        CorrecaoMonetariaService.LoteCorrecao lote = correcaoService.prepararLote(1L, vencimentos, dataFinal);
+
+        BigDecimal valor = new BigDecimal("3517.43");
+        for (LocalDate vencimento : vencimentos) {
+            assertEquals(correcaoService.calcular(valor, vencimento, dataFinal, 1L), lote.corrigir(valor, vencimento));
+            assertEquals(correcaoService.calcularFatorCorrecao(vencimento, dataFinal, 1L), lote.fator(vencimento));
+        }
+        assertEquals(BigDecimal.ZERO, lote.corrigir(BigDecimal.ZERO, vencimentos.get(0)));
+    }
+
+    @Test
+    @DisplayName("Correção em lote deve lançar exceção quando índice inicial não encontrado")
+    void correcaoEmLoteDeveLancarExcecaoQuandoIndiceInicialNaoEncontrado() {
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenReturn(List.of(
+                ValorIndice.builder().competencia(LocalDate.of(2019, 12, 1)).valor(new BigDecimal("100.00000000")).build(),
+                ValorIndice.builder().competencia(LocalDate.of(2024, 1, 1)).valor(new BigDecimal("125.00000000")).build()
+            ));
+
+        CorrecaoMonetariaService.LoteCorrecao lote = correcaoService.prepararLote(1L,
+            List.of(LocalDate.of(2018, 5, 1), LocalDate.of(2020, 1, 1)), LocalDate.of(2024, 1, 1));
+
+        assertEquals(new BigDecimal("12500.00"), lote.corrigir(new BigDecimal("10000.00"), LocalDate.of(2020, 1, 1)));
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+            lote.corrigir(new BigDecimal("10000.00"), LocalDate.of(2018, 5, 1)));
+        assertEquals("Índice não encontrado para a competência: 2018-04-01", ex.getMessage());
+    }
 }
@@ -0,0 +1,31 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCalculoTest {
+
+    @Test
+    @DisplayName("Deve recuperar a posição codificada no cursor")
+    void deveCodificarEDecodificar() {
+        CursorCalculo cursor = new CursorCalculo(LocalDateTime.of(2024, 3, 15, 9, 30, 12), 987654L);
+
+        String texto = cursor.codificar();
+
+        assertTrue(texto.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, CursorCalculo.decodificar(texto));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor adulterado com BusinessException")
+    void deveRejeitarCursorInvalido() {
+        assertThrows(BusinessException.class, () -> CursorCalculo.decodificar("não é base64"));
+        assertThrows(BusinessException.class, () -> CursorCalculo.decodificar("MjAyNC0wMy0xNQ"));
+        assertThrows(BusinessException.class, () -> CursorCalculo.decodificar("eHx5"));
+    }
+}
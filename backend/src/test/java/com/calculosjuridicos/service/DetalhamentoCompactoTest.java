@@ -0,0 +1,109 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse.DetalhamentoMensalResponse;
+import com.calculosjuridicos.entity.ResultadoCalculo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetalhamentoCompactoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve reproduzir exatamente o detalhamento de 40 anos e ocupar bem menos que o JSON")
+    void deveReproduzirDetalhamentoLongo() throws Exception {
+        List<DetalhamentoMensalResponse> original = gerarDetalhamento(480);
+
+        byte[] dados = DetalhamentoCompacto.de(original).codificar();
+        DetalhamentoCompacto lido = DetalhamentoCompacto.decodificar(dados);
+
+        assertEquals(480, lido.tamanho());
+        assertEquals("01 - 1985", lido.competencia(0));
+        assertEquals("12 - 2024", lido.competencia(479));
+        assertEquals(original, lido.paraLista());
+
+        String json = objectMapper.writeValueAsString(original);
+        assertEquals(json, objectMapper.writeValueAsString(lido.paraLista()));
+        assertTrue(dados.length * 5 < json.getBytes(StandardCharsets.UTF_8).length,
+            "compacto: " + dados.length + " bytes, JSON: " + json.length() + " bytes");
+    }
+
+    @Test
+    @DisplayName("Deve preservar nulos, escalas variáveis, lacunas, competências fora do padrão e valores grandes")
+    void devePreservarCasosIrregulares() {
+        List<DetalhamentoMensalResponse> original = new ArrayList<>(gerarDetalhamento(6));
+        original.get(1).setNomeIndice(null);
+        original.get(2).setIndice(new BigDecimal("1234.5"));
+        original.get(3).setJurosParcial(null);
+        original.get(4).setSubtotalParcial(new BigDecimal("123456789012345678901234.56"));
+        original.get(5).setCompetencia("03 - 1986");
+
+        DetalhamentoCompacto lido = DetalhamentoCompacto.decodificar(DetalhamentoCompacto.de(original).codificar());
+        assertEquals(original, lido.paraLista());
+
+        original.get(5).setCompetencia("Mar/1986");
+        lido = DetalhamentoCompacto.decodificar(DetalhamentoCompacto.de(original).codificar());
+        assertEquals(original, lido.paraLista());
+
+        assertEquals(List.of(), DetalhamentoCompacto.decodificar(DetalhamentoCompacto.de(List.of()).codificar()).paraLista());
+    }
+
+    @Test
+    @DisplayName("Deve ler resultados antigos em JSON e gravar os novos no formato compacto")
+    void deveLerJsonLegadoEGravarCompacto() throws Exception {
+        DetalhamentoService service = new DetalhamentoService(objectMapper);
+        List<DetalhamentoMensalResponse> original = gerarDetalhamento(24);
+
+        ResultadoCalculo legado = ResultadoCalculo.builder()
+            .detalhamentoJson(objectMapper.writeValueAsString(original))
+            .build();
+        assertTrue(service.possuiDetalhamento(legado));
+        assertEquals(original, service.ler(legado).paraLista());
+
+        service.gravar(legado, service.lerJson(legado));
+        assertNull(legado.getDetalhamentoJson());
+        assertNotNull(legado.getDetalhamentoCompacto());
+        assertEquals(original, service.ler(legado).paraLista());
+        assertEquals(objectMapper.writeValueAsString(original), service.comoJson(legado));
+    }
+
+    private List<DetalhamentoMensalResponse> gerarDetalhamento(int meses) {
+        List<DetalhamentoMensalResponse> linhas = new ArrayList<>();
+        BigDecimal valorOriginal = new BigDecimal("15000.00");
+        BigDecimal indiceBase = new BigDecimal("100.00000000");
+        BigDecimal indice = indiceBase;
+        BigDecimal anterior = null;
+        for (int i = 0; i < meses; i++) {
+            int mes = i % 12 + 1;
+            int ano = 1985 + i / 12;
+            indice = indice.multiply(new BigDecimal("1.0043")).setScale(8, RoundingMode.HALF_UP);
+            BigDecimal fator = indice.divide(indiceBase, 6, RoundingMode.HALF_UP);
+            BigDecimal corrigido = valorOriginal.multiply(fator).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal juros = corrigido.multiply(new BigDecimal("0.01")).multiply(new BigDecimal(i))
+                .setScale(2, RoundingMode.HALF_UP);
+            linhas.add(DetalhamentoMensalResponse.builder()
+                .competencia(String.format("%02d - %d", mes, ano))
+                .nomeIndice(ano < 1992 ? "INPC" : "IPCA-E")
+                .indice(indice)
+                .fatorAcumulado(fator)
+                .variacaoPercentual(anterior == null ? null
+                    : indice.subtract(anterior).divide(anterior, 6, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100")).setScale(4, RoundingMode.HALF_UP))
+                .valorCorrigidoParcial(corrigido)
+                .jurosParcial(juros)
+                .subtotalParcial(corrigido.add(juros))
+                .build());
+            anterior = indice;
+        }
+        return linhas;
+    }
+}
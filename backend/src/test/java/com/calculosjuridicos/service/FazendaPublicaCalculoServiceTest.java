@@ -14,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,41 +41,37 @@ class FazendaPublicaCalculoServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new FazendaPublicaCalculoService(correcaoService, tabelaIndiceRepository);
+        service = new FazendaPublicaCalculoService(correcaoService, new TabelaIndiceRegistry(tabelaIndiceRepository));
 
-        when(tabelaIndiceRepository.findByNome(TabelaIndice.INPC))
-            .thenReturn(Optional.of(TabelaIndice.builder().id(1L).nome(TabelaIndice.INPC).build()));
-        when(tabelaIndiceRepository.findByNome(TabelaIndice.IPCA_E))
-            .thenReturn(Optional.of(TabelaIndice.builder().id(2L).nome(TabelaIndice.IPCA_E).build()));
-        when(tabelaIndiceRepository.findByNome(TabelaIndice.SELIC))
-            .thenReturn(Optional.of(TabelaIndice.builder().id(3L).nome(TabelaIndice.SELIC).build()));
+        when(tabelaIndiceRepository.findAll()).thenReturn(List.of(
+            TabelaIndice.builder().id(1L).nome(TabelaIndice.INPC).build(),
+            TabelaIndice.builder().id(2L).nome(TabelaIndice.IPCA_E).build(),
+            TabelaIndice.builder().id(3L).nome(TabelaIndice.SELIC).build()));
 
         when(correcaoService.obterIndicesNoPeriodo(anyLong(), any(LocalDate.class), any(LocalDate.class)))
             .thenAnswer(invocation -> {
                 Long indiceId = invocation.getArgument(0);
                 LocalDate inicio = invocation.getArgument(1);
                 LocalDate fim = invocation.getArgument(2);
-                if (!inicio.equals(fim)) {
-                    return List.of();
-                }
 
-                BigDecimal valor = mockValorIndice(indiceId, inicio);
-                if (valor == null) {
-                    return List.of();
+                List<ValorIndice> valores = new ArrayList<>();
+                for (LocalDate competencia = inicio.withDayOfMonth(1); !competencia.isAfter(fim);
+                     competencia = competencia.plusMonths(1)) {
+                    BigDecimal valor = mockValorIndice(indiceId, competencia);
+                    if (valor != null) {
+                        valores.add(ValorIndice.builder()
+                            .competencia(competencia)
+                            .valor(valor)
+                            .build());
+                    }
                 }
-
-                return List.of(ValorIndice.builder()
-                    .competencia(inicio)
-                    .valor(valor)
-                    .build());
+                return valores;
             });
     }
 
     @Test
     @DisplayName("Deve carregar subtotal do mês anterior na entrada da SELIC unificada em 12/2021")
     void deveCarregarSubtotalAnteriorNaEntradaDaSelicUnificada() {
-        when(correcaoService.calcular(any(), any(), any(), anyLong())).thenReturn(null);
-
         ResultadoCalculoResponse resultado = service.calcular(criarRequestTransicao());
 
         ResultadoCalculoResponse.DetalhamentoMensalResponse novembro2021 = resultado.getDetalhamento().stream()
@@ -95,8 +92,6 @@ class FazendaPublicaCalculoServiceTest {
     @Test
     @DisplayName("Deve manter continuidade na transição para EC 136 usando índice do mês anterior da mesma série")
     void deveManterContinuidadeNaTransicaoDeIndiceComGap() {
-        when(correcaoService.calcular(any(), any(), any(), anyLong())).thenReturn(null);
-
         ResultadoCalculoResponse resultado = service.calcular(criarRequestTransicao());
 
         ResultadoCalculoResponse.DetalhamentoMensalResponse outubro2025 = resultado.getDetalhamento().stream()
@@ -108,18 +103,19 @@ class FazendaPublicaCalculoServiceTest {
         assertEquals(0, outubro2025.getValorCorrigidoParcial().compareTo(new BigDecimal("1012.73")));
         assertEquals(0, outubro2025.getVariacaoPercentual().compareTo(new BigDecimal("0.7692")));
 
-        verify(correcaoService, atLeastOnce()).obterIndicesNoPeriodo(
+        verify(correcaoService, times(1)).obterIndicesNoPeriodo(
             eq(2L),
-            eq(LocalDate.of(2025, 9, 1)),
-            eq(LocalDate.of(2025, 9, 1))
+            eq(LocalDate.of(2021, 11, 1)),
+            eq(LocalDate.of(2025, 10, 31))
         );
     }
 
     @Test
     @DisplayName("Deve exibir nome de índice IPCA + 2% quando teto da SELIC for aplicado")
     void deveExibirNomeIpcaMaisDoisQuandoTetoAplicado() {
-        when(correcaoService.calcular(any(), any(), any(), eq(3L)))
-            .thenReturn(new BigDecimal("900.00"));
+        // SELIC acumulada desde a data inicial: 1000 × 200 / 222,22222222 = 900,00
+        when(correcaoService.obterIndiceAte(eq(3L), any()))
+            .thenReturn(Optional.of(new BigDecimal("222.22222222")));
 
         ResultadoCalculoResponse resultado = service.calcular(criarRequestTransicao());
 
@@ -171,4 +167,14 @@ class FazendaPublicaCalculoServiceTest {
 
         return null;
     }
+
+    @Test
+    @DisplayName("Deve buscar cada série uma única vez independentemente da duração do período")
+    void deveBuscarCadaSerieUmaUnicaVez() {
+        CalculoRequest request = criarRequestTransicao();
+        request.setDataInicial(LocalDate.of(1984, 1, 1));
+        service.calcular(request);
+
+        verify(correcaoService, times(3)).obterIndicesNoPeriodo(anyLong(), any(LocalDate.class), any(LocalDate.class));
+    }
 }
@@ -0,0 +1,195 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse.DetalhamentoMensalResponse;
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Regressão do teto SELIC no regime RPV/Precatório: o valor acumulado mês a mês
+ * deve coincidir com o recálculo completo da SELIC desde a data inicial.
+ */
+@ExtendWith(MockitoExtension.class)
+class FazendaPublicaTetoSelicTest {
+
+    private static final DateTimeFormatter COMPETENCIA_FORMAT = DateTimeFormatter.ofPattern("MM - yyyy");
+    private static final LocalDate INICIO_SERIES = LocalDate.of(1980, 1, 1);
+    private static final LocalDate FIM_SERIES = LocalDate.of(2026, 12, 1);
+    private static final long INPC_ID = 1L;
+    private static final long IPCAE_ID = 2L;
+    private static final long SELIC_ID = 3L;
+
+    @Mock
+    private ValorIndiceRepository valorIndiceRepository;
+
+    @Mock
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    private CorrecaoMonetariaService correcaoService;
+    private FazendaPublicaCalculoService service;
+
+    @BeforeEach
+    void setUp() {
+        IndiceSeriesStore seriesStore = new IndiceSeriesStore(valorIndiceRepository, mock(PlatformTransactionManager.class));
+        correcaoService = new CorrecaoMonetariaService(seriesStore);
+        service = new FazendaPublicaCalculoService(correcaoService, new TabelaIndiceRegistry(tabelaIndiceRepository));
+
+        when(tabelaIndiceRepository.findAll()).thenReturn(List.of(
+            TabelaIndice.builder().id(INPC_ID).nome(TabelaIndice.INPC).build(),
+            TabelaIndice.builder().id(IPCAE_ID).nome(TabelaIndice.IPCA_E).build(),
+            TabelaIndice.builder().id(SELIC_ID).nome(TabelaIndice.SELIC).build()));
+
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(anyLong(), any(), any()))
+            .thenAnswer(invocation -> {
+                Long indiceId = invocation.getArgument(0);
+                LocalDate inicio = invocation.getArgument(1);
+                LocalDate fim = invocation.getArgument(2);
+                return gerarSerie(indiceId).stream()
+                    .filter(v -> !v.getCompetencia().isBefore(inicio) && !v.getCompetencia().isAfter(fim))
+                    .toList();
+            });
+    }
+
+    @Test
+    @DisplayName("Teto SELIC acumulado deve coincidir com o recálculo mensal em RPV longo")
+    void tetoSelicAcumuladoDeveCoincidirComRecalculoMensal() {
+        CalculoRequest request = criarRequestRpv(LocalDate.of(1994, 3, 10), LocalDate.of(2026, 6, 30),
+            LocalDate.of(2008, 5, 20));
+
+        int mesesLimitados = verificarTetoSelic(request);
+
+        assertTrue(mesesLimitados > 0, "o cenário deve exercitar meses limitados à SELIC");
+    }
+
+    @Test
+    @DisplayName("Teto SELIC deve coincidir com o recálculo mensal quando a emissão ocorre no início do período")
+    void tetoSelicDeveCoincidirComEmissaoNoInicioDoPeriodo() {
+        CalculoRequest request = criarRequestRpv(LocalDate.of(1986, 7, 1), LocalDate.of(2026, 11, 30),
+            LocalDate.of(1986, 7, 1));
+
+        verificarTetoSelic(request);
+    }
+
+    @Test
+    @DisplayName("Totais por data final, de um único memorial, devem coincidir com o cálculo de cada data")
+    void totaisPorDataFinalDevemCoincidirComCalculoDeCadaData() {
+        CalculoRequest request = criarRequestRpv(LocalDate.of(1994, 3, 10), LocalDate.of(2026, 6, 30),
+            LocalDate.of(2008, 5, 20)).toBuilder()
+            .multaPercentual(new BigDecimal("2"))
+            .honorariosPercentual(new BigDecimal("10"))
+            .build();
+        // Antes e depois da emissão, fora de ordem e no mês inicial
+        List<LocalDate> datasFinais = List.of(LocalDate.of(2026, 6, 30), LocalDate.of(2001, 1, 15),
+            LocalDate.of(2008, 5, 31), LocalDate.of(1994, 3, 31), LocalDate.of(2019, 10, 1));
+
+        List<ResultadoCalculoResponse> resultados = service.calcularPorDatasFinais(request, datasFinais);
+
+        assertEquals(datasFinais.size(), resultados.size());
+        for (int i = 0; i < datasFinais.size(); i++) {
+            ResultadoCalculoResponse esperado = service.calcular(request.toBuilder().dataFinal(datasFinais.get(i)).build());
+            ResultadoCalculoResponse resultado = resultados.get(i);
+            assertEquals(esperado.getValorCorrigido(), resultado.getValorCorrigido());
+            assertEquals(esperado.getValorJuros(), resultado.getValorJuros());
+            assertEquals(esperado.getValorMulta(), resultado.getValorMulta());
+            assertEquals(esperado.getValorHonorarios(), resultado.getValorHonorarios());
+            assertEquals(esperado.getValorTotal(), resultado.getValorTotal());
+            assertEquals(esperado.getFatorCorrecao(), resultado.getFatorCorrecao());
+            assertTrue(resultado.getDetalhamento().isEmpty());
+        }
+    }
+
+    private int verificarTetoSelic(CalculoRequest request) {
+        ResultadoCalculoResponse resultado = service.calcular(request);
+
+        LocalDate marcoEmissao = request.getDataEmissaoRpvPrecatorio().withDayOfMonth(1);
+        int mesesLimitados = 0;
+        int mesesNaoLimitados = 0;
+
+        for (DetalhamentoMensalResponse mes : resultado.getDetalhamento()) {
+            LocalDate competencia = LocalDate.parse("01 - " + mes.getCompetencia(),
+                DateTimeFormatter.ofPattern("dd - MM - yyyy"));
+            if (competencia.isBefore(marcoEmissao)) {
+                continue;
+            }
+
+            // Recálculo completo da SELIC desde a data inicial, como era feito a cada mês
+            BigDecimal totalSelic = correcaoService.calcular(request.getValorPrincipal(),
+                request.getDataInicial(), competencia.plusMonths(1).minusDays(1), SELIC_ID);
+
+            if ("IPCA + 2% (limitado SELIC)".equals(mes.getNomeIndice())) {
+                assertEquals(0, totalSelic.compareTo(mes.getValorCorrigidoParcial()),
+                    "valor limitado divergente em " + competencia.format(COMPETENCIA_FORMAT));
+                assertEquals(0, mes.getJurosParcial().signum());
+                mesesLimitados++;
+            } else {
+                assertEquals("IPCA + 2%", mes.getNomeIndice());
+                assertTrue(mes.getSubtotalParcial().compareTo(totalSelic) <= 0,
+                    "teto não aplicado em " + competencia.format(COMPETENCIA_FORMAT));
+                mesesNaoLimitados++;
+            }
+        }
+
+        assertTrue(mesesLimitados + mesesNaoLimitados > 200, "o cenário deve cobrir um período longo após a emissão");
+        return mesesLimitados;
+    }
+
+    private CalculoRequest criarRequestRpv(LocalDate dataInicial, LocalDate dataFinal, LocalDate dataEmissao) {
+        return CalculoRequest.builder()
+            .valorPrincipal(new BigDecimal("15432.17"))
+            .dataInicial(dataInicial)
+            .dataFinal(dataFinal)
+            .rpvPrecatorio(true)
+            .dataEmissaoRpvPrecatorio(dataEmissao)
+            .multaPercentual(BigDecimal.ZERO)
+            .honorariosPercentual(BigDecimal.ZERO)
+            .build();
+    }
+
+    /**
+     * Série acumulada sintética e determinística, com taxas mensais oscilantes para que
+     * a SELIC ora supere, ora fique abaixo de IPCA + 2% a.a.
+     */
+    private List<ValorIndice> gerarSerie(Long indiceId) {
+        List<ValorIndice> valores = new ArrayList<>();
+        BigDecimal acumulado = new BigDecimal("1000.00000000");
+        int mes = 0;
+        for (LocalDate competencia = INICIO_SERIES; !competencia.isAfter(FIM_SERIES);
+             competencia = competencia.plusMonths(1), mes++) {
+            double taxa = indiceId == SELIC_ID
+                ? 0.55 + 0.5 * Math.sin(mes / 23.0)
+                : 0.45 + 0.3 * Math.cos(mes / 17.0);
+            BigDecimal fator = BigDecimal.ONE.add(BigDecimal.valueOf(taxa)
+                .divide(new BigDecimal("100"), 8, RoundingMode.HALF_UP));
+            acumulado = acumulado.multiply(fator).setScale(8, RoundingMode.HALF_UP);
+            valores.add(ValorIndice.builder()
+                .competencia(competencia)
+                .valor(acumulado)
+                .build());
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,91 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.response.EstatisticasCacheResponse;
+import com.calculosjuridicos.entity.TabelaIndice;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceCacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private CacheRegionStatistics regiaoConsultas;
+
+    private IndiceCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        service = new IndiceCacheService(entityManagerFactory);
+    }
+
+    @Test
+    @DisplayName("Atualização de índices deve descartar a tabela em cache")
+    void deveInvalidarCacheAoAtualizarIndices() {
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        service.onIndicesAtualizados(new IndicesAtualizadosEvent(3L));
+
+        verify(cache).evictEntityData(TabelaIndice.class, 3L);
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("Estatísticas devem listar todas as regiões, inclusive as ainda não criadas")
+    void deveMontarEstatisticasPorRegiao() {
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(40L);
+        when(statistics.getQueryCacheHitCount()).thenReturn(7L);
+        when(statistics.getDomainDataRegionStatistics(TabelaIndice.REGIAO_CACHE)).thenReturn(null);
+        when(statistics.getQueryRegionStatistics(TabelaIndice.REGIAO_CACHE_CONSULTAS)).thenReturn(regiaoConsultas);
+        when(regiaoConsultas.getHitCount()).thenReturn(7L);
+        when(regiaoConsultas.getMissCount()).thenReturn(2L);
+        when(regiaoConsultas.getPutCount()).thenReturn(12L);
+        when(regiaoConsultas.getElementCountInMemory()).thenReturn(CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN);
+
+        EstatisticasCacheResponse response = service.estatisticas();
+
+        assertTrue(response.isEstatisticasHabilitadas());
+        assertEquals(40L, response.getAcertos());
+        assertEquals(7L, response.getConsultasAcertos());
+        assertEquals(2, response.getRegioes().size());
+
+        EstatisticasCacheResponse.RegiaoCache tabelas = response.getRegioes().get(0);
+        assertEquals(TabelaIndice.REGIAO_CACHE, tabelas.getNome());
+        assertNull(tabelas.getAcertos());
+
+        EstatisticasCacheResponse.RegiaoCache consultas = response.getRegioes().get(1);
+        assertEquals(TabelaIndice.REGIAO_CACHE_CONSULTAS, consultas.getNome());
+        assertEquals(7L, consultas.getAcertos());
+        assertEquals(2L, consultas.getFalhas());
+        assertEquals(12L, consultas.getInclusoes());
+        assertNull(consultas.getElementosEmMemoria());
+    }
+}
@@ -0,0 +1,83 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceSeriesStoreTest {
+
+    private static final LocalDate JANEIRO = LocalDate.of(2020, 1, 1);
+
+    @Mock
+    private ValorIndiceRepository valorIndiceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IndiceSeriesStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        store = new IndiceSeriesStore(valorIndiceRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Série deve ser carregada em transação própria no banco principal e mantida em memória")
+    void deveCarregarSerieEmTransacaoPropria() {
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenReturn(List.of(valor(JANEIRO, "1000")));
+
+        assertEquals(new BigDecimal("1000.00000000"), store.buscarValorAte(1L, JANEIRO).orElseThrow());
+        assertEquals(new BigDecimal("1000.00000000"), store.buscarValorAte(1L, JANEIRO.plusMonths(1)).orElseThrow());
+
+        ArgumentCaptor<TransactionDefinition> definicao = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definicao.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definicao.getValue().getPropagationBehavior());
+        assertFalse(definicao.getValue().isReadOnly());
+        verify(valorIndiceRepository, times(1)).findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Série invalidada durante a carga não deve ficar em memória")
+    void naoDeveManterSerieInvalidadaDuranteCarga() {
+        when(valorIndiceRepository.findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any()))
+            .thenAnswer(invocation -> {
+                // Sincronização concluída enquanto a leitura antiga estava em andamento
+                store.onIndicesAtualizados(new IndicesAtualizadosEvent(1L));
+                return List.of(valor(JANEIRO, "1000"));
+            })
+            .thenReturn(List.of(valor(JANEIRO, "1005")));
+
+        assertEquals(new BigDecimal("1000.00000000"), store.buscarValorAte(1L, JANEIRO).orElseThrow());
+        assertEquals(new BigDecimal("1005.00000000"), store.buscarValorAte(1L, JANEIRO).orElseThrow());
+        assertEquals(new BigDecimal("1005.00000000"), store.buscarValorAte(1L, JANEIRO).orElseThrow());
+
+        verify(valorIndiceRepository, times(2)).findByTabelaIndiceIdAndPeriodo(eq(1L), any(), any());
+    }
+
+    private ValorIndice valor(LocalDate competencia, String valor) {
+        return ValorIndice.builder().competencia(competencia).valor(new BigDecimal(valor)).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceServiceTest {
+
+    @Mock
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    @Mock
+    private ValorIndiceRepository valorIndiceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private IndiceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IndiceService(tabelaIndiceRepository, valorIndiceRepository, eventPublisher);
+        ReflectionTestUtils.setField(service, "tamanhoBlocoImportacao", 3);
+    }
+
+    @Test
+    @DisplayName("Importação em blocos deve contar novos, atualizados e erros como a gravação linha a linha")
+    void deveImportarCsvEmBlocos() {
+        String csv = """
+            competencia;valor
+            2020-01;1015
+            02/2020;1025
+            xx;1
+            2020-01;1017
+            2020-03-01;1035
+            2020-04;1045
+            """;
+        when(tabelaIndiceRepository.findById(1L))
+            .thenReturn(Optional.of(TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build()));
+        when(valorIndiceRepository.findCompetenciasByTabelaIndiceIdAndPeriodo(
+                1L, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 1)))
+            .thenReturn(List.of(LocalDate.of(2020, 2, 1)));
+        when(valorIndiceRepository.findCompetenciasByTabelaIndiceIdAndPeriodo(
+                1L, LocalDate.of(2020, 4, 1), LocalDate.of(2020, 4, 1)))
+            .thenReturn(List.of());
+        List<Map<LocalDate, BigDecimal>> blocos = new ArrayList<>();
+        doAnswer(invocation -> blocos.add(new LinkedHashMap<>(invocation.getArgument(1))))
+            .when(valorIndiceRepository).gravarEmLote(eq(1L), anyMap(), eq(ValorIndice.FonteValor.CSV_IMPORT));
+
+        IndiceService.ImportResult result = service.importarCSV(1L,
+            new MockMultipartFile("file", "ipca.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.registrosImportados());
+        assertEquals(2, result.registrosAtualizados());
+        assertEquals(List.of("Linha 4: Formato de data inválido: xx"), result.erros());
+
+        assertEquals(2, blocos.size());
+        assertEquals(Map.of(
+            LocalDate.of(2020, 1, 1), new BigDecimal("1017"),
+            LocalDate.of(2020, 2, 1), new BigDecimal("1025"),
+            LocalDate.of(2020, 3, 1), new BigDecimal("1035")), blocos.get(0));
+        assertEquals(Map.of(LocalDate.of(2020, 4, 1), new BigDecimal("1045")), blocos.get(1));
+        verify(eventPublisher).publishEvent(new IndicesAtualizadosEvent(1L));
+    }
+}
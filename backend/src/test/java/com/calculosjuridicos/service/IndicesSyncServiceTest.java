@@ -0,0 +1,244 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.entity.ValorIndice;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndicesSyncServiceTest {
+
+    /** Respostas do BCB por data inicial consultada (chunks de 5 anos a partir de 01/01/2000). */
+    private static final Map<String, String> RESPOSTAS_BCB = Map.of(
+        "01/01/2000", "[{\"data\":\"01/01/2000\",\"valor\":\"0.5\"},{\"data\":\"01/02/2000\",\"valor\":\"1.0\"}]",
+        "02/01/2005", "[{\"data\":\"01/01/2005\",\"valor\":\"0.2\"}]",
+        "03/01/2010", "[{\"data\":\"01/03/2010\",\"valor\":\"-0.1\"}]");
+
+    @Mock
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    @Mock
+    private ValorIndiceRepository valorIndiceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<IndicesSyncService> servicos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(tabelaIndiceRepository.findById(1L))
+            .thenReturn(Optional.of(TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build()));
+        when(valorIndiceRepository.findMinCompetenciaByTabelaIndiceId(1L)).thenReturn(Optional.empty());
+        when(valorIndiceRepository.findMaxCompetenciaByTabelaIndiceId(1L)).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        servicos.forEach(servico -> ReflectionTestUtils.invokeMethod(servico, "encerrarPoolSeries"));
+    }
+
+    @Test
+    @DisplayName("Reconstrução deve preparar a cadeia completa e promovê-la em transação própria")
+    void devePrepararEPromoverReconstrucao() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(tabelaIndiceRepository.findByIdParaAtualizacao(1L))
+            .thenReturn(Optional.of(TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build()));
+        when(valorIndiceRepository.promoverReconstrucao(1L, 4)).thenReturn(4);
+
+        IndicesSyncService.SyncResult result = criarService(null)
+            .sincronizarIncremental(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+
+        assertEquals(4, result.registrosImportados());
+        assertTrue(result.erros().isEmpty());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<LocalDate, BigDecimal>> cadeia = ArgumentCaptor.forClass(Map.class);
+        InOrder ordem = inOrder(transactionManager, tabelaIndiceRepository, valorIndiceRepository);
+        ordem.verify(transactionManager).getTransaction(any());
+        ordem.verify(tabelaIndiceRepository).findByIdParaAtualizacao(1L);
+        ordem.verify(valorIndiceRepository).prepararReconstrucao(eq(1L), cadeia.capture(), eq(ValorIndice.FonteValor.API_BCB));
+        ordem.verify(valorIndiceRepository).promoverReconstrucao(1L, 4);
+        ordem.verify(transactionManager).commit(any());
+        assertEquals(List.of(LocalDate.of(2000, 1, 1), LocalDate.of(2000, 2, 1),
+            LocalDate.of(2005, 1, 1), LocalDate.of(2010, 3, 1)), List.copyOf(cadeia.getValue().keySet()));
+        assertEquals(new BigDecimal("1005.00000000"), cadeia.getValue().get(LocalDate.of(2000, 1, 1)));
+        assertEquals(new BigDecimal("1015.05000000"), cadeia.getValue().get(LocalDate.of(2000, 2, 1)));
+        assertEquals(new BigDecimal("1017.08010000"), cadeia.getValue().get(LocalDate.of(2005, 1, 1)));
+
+        verify(eventPublisher).publishEvent(new IndicesAtualizadosEvent(1L));
+        verify(valorIndiceRepository, never()).deleteByTabelaIndiceIdAndCompetenciaBetween(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Reconstrução com período não obtido do BCB deve manter a série atual")
+    void deveManterSerieQuandoBcbFalha() {
+        IndicesSyncService.SyncResult result = criarService("02/01/2005")
+            .sincronizarIncremental(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+
+        assertEquals(0, result.registrosImportados());
+        assertEquals(List.of("Erro no período 2005-01-02 a 2010-01-02"), result.erros());
+        verify(valorIndiceRepository, never()).prepararReconstrucao(anyLong(), anyMap(), any());
+        verify(valorIndiceRepository, never()).promoverReconstrucao(anyLong(), anyInt());
+        verifyNoInteractions(transactionManager, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Promoção recusada deve desfazer a transação e manter a série atual")
+    void deveDesfazerPromocaoRecusada() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(tabelaIndiceRepository.findByIdParaAtualizacao(1L))
+            .thenReturn(Optional.of(TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build()));
+        when(valorIndiceRepository.promoverReconstrucao(1L, 4))
+            .thenThrow(new JdbcUpdateAffectedIncorrectNumberOfRowsException("INSERT INTO valor_indice", 4, 0));
+
+        IndicesSyncService service = criarService(null);
+        assertThrows(JdbcUpdateAffectedIncorrectNumberOfRowsException.class,
+            () -> service.sincronizarIncremental(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30)));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Falha em uma série não deve impedir a sincronização das demais")
+    void deveIsolarFalhaPorSerie() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(tabelaIndiceRepository.findByIdParaAtualizacao(1L))
+            .thenReturn(Optional.of(TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build()));
+        when(valorIndiceRepository.promoverReconstrucao(1L, 4)).thenReturn(4);
+        when(tabelaIndiceRepository.findAll()).thenReturn(List.of(
+            TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build(),
+            TabelaIndice.builder().id(2L).nome(TabelaIndice.INPC).build(),
+            TabelaIndice.builder().id(3L).nome("TABELA_MANUAL").build()));
+        when(tabelaIndiceRepository.findById(2L))
+            .thenReturn(Optional.of(TabelaIndice.builder().id(2L).nome(TabelaIndice.INPC).build()));
+        when(valorIndiceRepository.findMinCompetenciaByTabelaIndiceId(2L))
+            .thenThrow(new IllegalStateException("conexão recusada"));
+
+        Map<String, IndicesSyncService.SyncResult> resultados = criarService(null)
+            .sincronizarTodosIncremental(LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+
+        assertEquals(List.of(TabelaIndice.IPCA_E, TabelaIndice.INPC), List.copyOf(resultados.keySet()));
+        assertEquals(4, resultados.get(TabelaIndice.IPCA_E).registrosImportados());
+        assertTrue(resultados.get(TabelaIndice.IPCA_E).erros().isEmpty());
+        assertEquals(List.of("Erro: conexão recusada"), resultados.get(TabelaIndice.INPC).erros());
+        verify(eventPublisher).publishEvent(new IndicesAtualizadosEvent(1L));
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Séries devem ser sincronizadas no pool nomeado do serviço, reutilizado entre execuções")
+    void deveSincronizarNoPoolDoServico() {
+        when(tabelaIndiceRepository.findAll()).thenReturn(List.of(
+            TabelaIndice.builder().id(1L).nome(TabelaIndice.IPCA_E).build()));
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(valorIndiceRepository.findMaxCompetenciaByTabelaIndiceId(1L)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            throw new IllegalStateException("conexão recusada");
+        });
+
+        IndicesSyncService service = criarService(null);
+        service.sincronizarTodosIncremental(LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+        service.sincronizarTodosIncremental(LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+
+        assertEquals(2, threads.size());
+        assertTrue(threads.get(0).startsWith("indices-sync-"), threads.get(0));
+        ExecutorService pool = (ExecutorService) ReflectionTestUtils.getField(service, "poolSeries");
+        ReflectionTestUtils.invokeMethod(service, "encerrarPoolSeries");
+        assertTrue(pool.isShutdown());
+    }
+
+    @Test
+    @DisplayName("Sincronização de série já em andamento deve ser ignorada")
+    void deveIgnorarSincronizacaoSimultaneaDaMesmaSerie() {
+        IndicesSyncService service = criarService("01/01/2000");
+        List<IndicesSyncService.SyncResult> simultaneas = new ArrayList<>();
+        when(valorIndiceRepository.findMinCompetenciaByTabelaIndiceId(1L)).thenAnswer(invocation -> {
+            simultaneas.add(service.sincronizarIncremental(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30)));
+            return Optional.empty();
+        });
+
+        service.sincronizarIncremental(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+
+        assertEquals(1, simultaneas.size());
+        assertEquals(List.of("Sincronização do índice IPCA_E já em andamento"), simultaneas.get(0).erros());
+        verify(valorIndiceRepository).findMinCompetenciaByTabelaIndiceId(1L);
+        // Encerrada a primeira, a série pode ser sincronizada de novo
+        service.sincronizarIncremental(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2010, 6, 30));
+        assertEquals(2, simultaneas.size());
+    }
+
+    /**
+     * Serviço cujo WebClient responde às consultas ao BCB conforme {@link #RESPOSTAS_BCB};
+     * a consulta com data inicial {@code dataInicialComFalha} responde com erro 500.
+     */
+    private IndicesSyncService criarService(String dataInicialComFalha) {
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            String dataInicial = UriComponentsBuilder.fromUri(request.url()).build()
+                .getQueryParams().getFirst("dataInicial");
+            if (dataInicial.equals(dataInicialComFalha)) {
+                return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(RESPOSTAS_BCB.get(dataInicial))
+                .build());
+        });
+
+        IndicesSyncService service = new IndicesSyncService(tabelaIndiceRepository, valorIndiceRepository,
+            webClientBuilder, eventPublisher, transactionManager);
+        ReflectionTestUtils.setField(service, "bcbBaseUrl", "http://bcb.local");
+        ReflectionTestUtils.setField(service, "timeout", 5000);
+        ReflectionTestUtils.setField(service, "seriesSimultaneas", 2);
+        ReflectionTestUtils.setField(service, "periodosSimultaneos", 3);
+        servicos.add(service);
+        return service;
+    }
+}
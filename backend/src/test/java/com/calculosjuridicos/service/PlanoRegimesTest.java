@@ -0,0 +1,71 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.service.PlanoRegimes.Regime;
+import com.calculosjuridicos.service.PlanoRegimes.Segmento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlanoRegimesTest {
+
+    @Test
+    @DisplayName("Deve dividir o período nos marcos legislativos quando não há RPV")
+    void deveDividirPeriodoNosMarcosLegislativos() {
+        PlanoRegimes plano = PlanoRegimes.compilar(LocalDate.of(1990, 3, 15), LocalDate.of(2024, 6, 30),
+            false, null);
+
+        List<Segmento> segmentos = plano.getSegmentos();
+        assertEquals(4, segmentos.size());
+        assertEquals(new Segmento(Regime.INPC, LocalDate.of(1990, 3, 1), LocalDate.of(1991, 12, 1)), segmentos.get(0));
+        assertEquals(new Segmento(Regime.IPCA_E, LocalDate.of(1992, 1, 1), LocalDate.of(2009, 6, 1)), segmentos.get(1));
+        assertEquals(new Segmento(Regime.IPCA_E_POUPANCA, LocalDate.of(2009, 7, 1), LocalDate.of(2021, 11, 1)),
+            segmentos.get(2));
+        assertEquals(new Segmento(Regime.SELIC, LocalDate.of(2021, 12, 1), LocalDate.of(2024, 6, 1)), segmentos.get(3));
+        assertNull(plano.getMarcoEmissao());
+
+        long meses = segmentos.stream().mapToLong(Segmento::meses).sum();
+        assertEquals(412, meses);
+    }
+
+    @Test
+    @DisplayName("Deve usar SELIC até a emissão e IPCA + 2% a partir dela quando há RPV")
+    void deveDividirPeriodoNaEmissaoDoRpv() {
+        PlanoRegimes plano = PlanoRegimes.compilar(LocalDate.of(2000, 1, 10), LocalDate.of(2025, 12, 31),
+            true, LocalDate.of(2023, 8, 20));
+
+        assertEquals(List.of(
+            new Segmento(Regime.SELIC, LocalDate.of(2000, 1, 1), LocalDate.of(2023, 7, 1)),
+            new Segmento(Regime.IPCA_MAIS_2_AA, LocalDate.of(2023, 8, 1), LocalDate.of(2025, 12, 1))
+        ), plano.getSegmentos());
+        assertEquals(LocalDate.of(2023, 8, 1), plano.getMarcoEmissao());
+        assertEquals(1, plano.mesesJuros(Regime.IPCA_MAIS_2_AA, LocalDate.of(2023, 8, 1)));
+        assertEquals(24, plano.mesesJuros(Regime.SELIC, LocalDate.of(2001, 12, 1)));
+    }
+
+    @Test
+    @DisplayName("Deve gerar um único segmento quando o período está dentro de um regime")
+    void deveGerarSegmentoUnicoDentroDeUmRegime() {
+        PlanoRegimes plano = PlanoRegimes.compilar(LocalDate.of(2010, 5, 5), LocalDate.of(2010, 5, 20),
+            false, null);
+
+        assertEquals(List.of(new Segmento(Regime.IPCA_E_POUPANCA, LocalDate.of(2010, 5, 1), LocalDate.of(2010, 5, 1))),
+            plano.getSegmentos());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar a data de emissão quando o cálculo não é de RPV")
+    void deveIgnorarEmissaoSemRpv() {
+        PlanoRegimes plano = PlanoRegimes.compilar(LocalDate.of(2021, 1, 1), LocalDate.of(2022, 3, 31),
+            false, LocalDate.of(2021, 6, 1));
+
+        assertEquals(List.of(
+            new Segmento(Regime.IPCA_E_POUPANCA, LocalDate.of(2021, 1, 1), LocalDate.of(2021, 11, 1)),
+            new Segmento(Regime.SELIC, LocalDate.of(2021, 12, 1), LocalDate.of(2022, 3, 1))
+        ), plano.getSegmentos());
+    }
+}
@@ -0,0 +1,138 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.repository.ValorIndiceRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PreviewLoteServiceTest {
+
+    private static final String ITEM = "{\"valorPrincipal\": %s, \"dataInicial\": \"2020-01-01\", \"dataFinal\": \"2024-01-01\"}";
+
+    @Mock
+    private CalculoService calculoService;
+
+    @Mock
+    private ValorIndiceRepository valorIndiceRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private PreviewLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        IndiceSeriesStore seriesStore = new IndiceSeriesStore(valorIndiceRepository, mock(PlatformTransactionManager.class));
+        service = new PreviewLoteService(calculoService, seriesStore,
+            Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve processar NDJSON e emitir uma linha por item, inclusive para itens com erro")
+    void deveProcessarNdjsonComErrosPorItem() throws Exception {
+        when(calculoService.previewSemCache(any())).thenAnswer(invocation -> {
+            CalculoRequest request = invocation.getArgument(0);
+            if (request.getValorPrincipal().compareTo(new BigDecimal("666")) == 0) {
+                throw new BusinessException("Data inicial deve ser anterior à data final");
+            }
+            return ResultadoCalculoResponse.builder().valorTotal(request.getValorPrincipal()).build();
+        });
+
+        StringBuilder entrada = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            entrada.append(String.format(ITEM, i == 4 ? "666" : String.valueOf(i * 100))).append('\n');
+        }
+
+        List<JsonNode> linhas = processar(entrada.toString());
+
+        assertEquals(10, linhas.size());
+        for (int i = 0; i < 10; i++) {
+            JsonNode linha = linhas.get(i);
+            assertEquals(i, linha.get("indice").asInt());
+            if (i == 3) {
+                assertFalse(linha.has("resultado"));
+                assertEquals(400, linha.get("erro").get("status").asInt());
+                assertEquals("Data inicial deve ser anterior à data final", linha.get("erro").get("message").asText());
+            } else {
+                assertFalse(linha.has("erro"));
+                assertEquals((i + 1) * 100, linha.get("resultado").get("valorTotal").asInt());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aceitar array JSON e reportar erros de validação sem calcular o item")
+    void deveProcessarArrayComErroDeValidacao() throws Exception {
+        when(calculoService.previewSemCache(any()))
+            .thenReturn(ResultadoCalculoResponse.builder().valorTotal(BigDecimal.TEN).build());
+
+        String entrada = "[" + String.format(ITEM, "10") + ", " + String.format(ITEM, "-5") + "]";
+
+        List<JsonNode> linhas = processar(entrada);
+
+        assertEquals(2, linhas.size());
+        assertTrue(linhas.get(0).has("resultado"));
+        JsonNode erro = linhas.get(1).get("erro");
+        assertEquals(400, erro.get("status").asInt());
+        assertEquals("Valor principal deve ser maior que zero",
+            erro.get("validationErrors").get("valorPrincipal").asText());
+    }
+
+    @Test
+    @DisplayName("Deve emitir erro e encerrar o lote ao encontrar JSON malformado")
+    void deveEncerrarLoteComJsonMalformado() throws Exception {
+        when(calculoService.previewSemCache(any()))
+            .thenReturn(ResultadoCalculoResponse.builder().valorTotal(BigDecimal.TEN).build());
+
+        String entrada = String.format(ITEM, "10") + "\n{\"valorPrincipal\": }\n" + String.format(ITEM, "20") + "\n";
+
+        List<JsonNode> linhas = processar(entrada);
+
+        assertEquals(2, linhas.size());
+        assertTrue(linhas.get(0).has("resultado"));
+        assertEquals(1, linhas.get(1).get("indice").asInt());
+        assertTrue(linhas.get(1).get("erro").get("message").asText().startsWith("JSON inválido"));
+    }
+
+    private List<JsonNode> processar(String entrada) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.processar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), saida);
+
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            linhas.add(objectMapper.readTree(linha));
+        }
+        // A saída segue a ordem de conclusão
+        linhas.sort(Comparator.comparingInt(linha -> linha.get("indice").asInt()));
+        return linhas;
+    }
+}
@@ -0,0 +1,160 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelatorioCacheTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final AtomicInteger geracoes = new AtomicInteger();
+
+    @Test
+    @DisplayName("Relatório da mesma versão deve ser gerado uma única vez e servido do disco")
+    void deveServirRelatorioDoCache() throws IOException {
+        RelatorioCache cache = new RelatorioCache(diretorio, DataSize.ofMegabytes(1));
+        RelatorioCache.Chave chave = new RelatorioCache.Chave(7L, "pdf", "completo", 2);
+
+        assertEquals("conteudo-1", escrever(cache, chave, "conteudo"));
+        assertEquals("conteudo-1", escrever(cache, chave, "conteudo"));
+        assertEquals(1, geracoes.get());
+
+        // Nova execução do cálculo: outra versão do resultado, outro relatório
+        assertEquals("conteudo-2", escrever(cache, new RelatorioCache.Chave(7L, "pdf", "completo", 3), "conteudo"));
+        assertEquals("\"7-2-completo-pdf\"", chave.etag());
+
+        RelatorioCache.Estatisticas estatisticas = cache.estatisticas();
+        assertEquals(1, estatisticas.acertos());
+        assertEquals(2, estatisticas.falhas());
+        assertEquals(2, estatisticas.entradas());
+    }
+
+    @Test
+    @DisplayName("Espaço em disco excedido deve remover os relatórios usados há mais tempo")
+    void deveRemoverMenosRecentesAoExcederTamanho() throws IOException {
+        RelatorioCache cache = new RelatorioCache(diretorio, DataSize.ofBytes(250));
+        String conteudo = "x".repeat(98);
+        RelatorioCache.Chave primeiro = new RelatorioCache.Chave(1L, "pdf", "completo", 1);
+        RelatorioCache.Chave segundo = new RelatorioCache.Chave(2L, "pdf", "completo", 1);
+        RelatorioCache.Chave terceiro = new RelatorioCache.Chave(3L, "pdf", "completo", 1);
+
+        escrever(cache, primeiro, conteudo);
+        escrever(cache, segundo, conteudo);
+        escrever(cache, primeiro, conteudo);
+        escrever(cache, terceiro, conteudo);
+
+        assertEquals(3, geracoes.get());
+        assertEquals(2, cache.estatisticas().entradas());
+        assertEquals(2, arquivosNoDiretorio());
+
+        escrever(cache, primeiro, conteudo);
+        assertEquals(3, geracoes.get());
+        escrever(cache, segundo, conteudo);
+        assertEquals(4, geracoes.get());
+    }
+
+    @Test
+    @DisplayName("Reexecução ou exclusão do cálculo deve remover todos os seus relatórios")
+    void deveInvalidarRelatoriosDoCalculo() throws IOException {
+        RelatorioCache cache = new RelatorioCache(diretorio, DataSize.ofMegabytes(1));
+        escrever(cache, new RelatorioCache.Chave(1L, "pdf", "completo", 1), "a");
+        escrever(cache, new RelatorioCache.Chave(1L, "xlsx", "resumido", 1), "b");
+        escrever(cache, new RelatorioCache.Chave(2L, "pdf", "completo", 1), "c");
+
+        cache.onCalculoAlterado(new CalculoAlteradoEvent(1L));
+
+        assertEquals(1, cache.estatisticas().entradas());
+        assertEquals(1, arquivosNoDiretorio());
+        assertTrue(cache.estatisticas().bytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Relatório fora do cache deve chegar à saída durante a geração")
+    void deveEnviarRelatorioEnquantoGera() throws IOException {
+        RelatorioCache cache = new RelatorioCache(diretorio, DataSize.ofMegabytes(1));
+        RelatorioCache.Chave chave = new RelatorioCache.Chave(1L, "pdf", "completo", 1);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        cache.escrever(chave, arquivo -> {
+            arquivo.write("inicio".getBytes(StandardCharsets.UTF_8));
+            assertEquals("inicio", saida.toString(StandardCharsets.UTF_8));
+            assertEquals(0, cache.estatisticas().entradas());
+            arquivo.write("-fim".getBytes(StandardCharsets.UTF_8));
+        }, saida);
+
+        assertEquals("inicio-fim", saida.toString(StandardCharsets.UTF_8));
+        assertEquals(1, cache.estatisticas().entradas());
+        assertEquals("inicio-fim", escrever(cache, chave, "outro"));
+        assertEquals(0, geracoes.get());
+    }
+
+    @Test
+    @DisplayName("Falha na geração não deve deixar arquivos nem entradas no cache")
+    void deveDescartarGeracaoComFalha() throws IOException {
+        RelatorioCache cache = new RelatorioCache(diretorio, DataSize.ofMegabytes(1));
+        RelatorioCache.Chave chave = new RelatorioCache.Chave(1L, "pdf", "completo", 1);
+
+        assertThrows(BusinessException.class, () -> cache.escrever(chave, saida -> {
+            saida.write("parcial".getBytes(StandardCharsets.UTF_8));
+            throw new BusinessException("Erro ao gerar relatório PDF");
+        }, new ByteArrayOutputStream()));
+
+        assertEquals(0, cache.estatisticas().entradas());
+        assertEquals(0, arquivosNoDiretorio());
+    }
+
+    @Test
+    @DisplayName("Arquivos de execuções anteriores devem ser removidos na inicialização")
+    void deveLimparDiretorioNaInicializacao() throws IOException {
+        Files.writeString(diretorio.resolve("calculo_1_v1_completo.pdf"), "antigo");
+        Files.writeString(diretorio.resolve("calculo_12_v3_resumido.xlsx"), "antigo");
+        Files.writeString(diretorio.resolve("gerando-4711.tmp"), "incompleto");
+
+        new RelatorioCache(diretorio, DataSize.ofMegabytes(1));
+
+        assertEquals(0, arquivosNoDiretorio());
+    }
+
+    @Test
+    @DisplayName("Inicialização não deve remover arquivos que não pertencem ao cache")
+    void deveManterArquivosAlheiosNaInicializacao() throws IOException {
+        Files.writeString(diretorio.resolve("calculo_1_v1_completo.pdf"), "antigo");
+        Files.writeString(diretorio.resolve("leiame.txt"), "alheio");
+        Files.writeString(diretorio.resolve("calculo_1.pdf"), "alheio");
+        Files.createDirectories(diretorio.resolve("calculo_2_v1_completo.pdf"));
+
+        new RelatorioCache(diretorio, DataSize.ofMegabytes(1));
+
+        assertFalse(Files.exists(diretorio.resolve("calculo_1_v1_completo.pdf")));
+        assertTrue(Files.exists(diretorio.resolve("leiame.txt")));
+        assertTrue(Files.exists(diretorio.resolve("calculo_1.pdf")));
+        assertTrue(Files.isDirectory(diretorio.resolve("calculo_2_v1_completo.pdf")));
+    }
+
+    private String escrever(RelatorioCache cache, RelatorioCache.Chave chave, String conteudo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        cache.escrever(chave, arquivo -> arquivo.write(
+            (conteudo + "-" + geracoes.incrementAndGet()).getBytes(StandardCharsets.UTF_8)), saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private long arquivosNoDiretorio() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.count();
+        }
+    }
+}
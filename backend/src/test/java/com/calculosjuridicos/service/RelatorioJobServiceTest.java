@@ -0,0 +1,214 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RelatorioJobServiceTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Mock
+    private RelatorioService relatorioService;
+
+    private RelatorioJobService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new RelatorioJobService(relatorioService, diretorio, 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Job deve gerar o relatório em segundo plano e permitir o download sem gerar de novo")
+    void deveGerarRelatorioEmSegundoPlano() throws Exception {
+        when(relatorioService.versaoRelatorio(1L)).thenReturn(2);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("XLSX".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(relatorioService).gerar(eq(1L), eq(FormatoRelatorio.XLSX), eq("completo"), any());
+
+        RelatorioJobService.Situacao criado = service.submeter(1L, FormatoRelatorio.XLSX, "completo");
+        RelatorioJobService.Situacao concluido = aguardarFim(1L, criado.jobId());
+
+        assertEquals(RelatorioJobService.Status.CONCLUIDO, concluido.status());
+        assertNotNull(concluido.concluidoEm());
+        assertEquals(FormatoRelatorio.XLSX, service.concluido(1L, criado.jobId()).formato());
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.escrever(1L, criado.jobId(), saida);
+        assertEquals("XLSX", saida.toString(StandardCharsets.UTF_8));
+        verify(relatorioService, times(1)).gerar(eq(1L), eq(FormatoRelatorio.XLSX), eq("completo"), any());
+    }
+
+    @Test
+    @DisplayName("Cada job deve baixar o próprio arquivo, mesmo com outros jobs do mesmo relatório")
+    void deveManterArquivoPorJob() throws Exception {
+        when(relatorioService.versaoRelatorio(1L)).thenReturn(1);
+        AtomicInteger geracoes = new AtomicInteger();
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3)
+                .write(("PDF-" + geracoes.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(relatorioService).gerar(eq(1L), eq(FormatoRelatorio.PDF), eq("completo"), any());
+
+        RelatorioJobService.Situacao primeiro = service.submeter(1L, FormatoRelatorio.PDF, "completo");
+        aguardarFim(1L, primeiro.jobId());
+        RelatorioJobService.Situacao segundo = service.submeter(1L, FormatoRelatorio.PDF, "completo");
+        aguardarFim(1L, segundo.jobId());
+
+        assertEquals("PDF-1", baixar(1L, primeiro.jobId()));
+        assertEquals("PDF-2", baixar(1L, segundo.jobId()));
+        assertEquals("PDF-1", baixar(1L, primeiro.jobId()));
+        assertEquals(2, geracoes.get());
+        assertEquals(2, arquivosNoDiretorio());
+    }
+
+    @Test
+    @DisplayName("Jobs expirados devem ser descartados com seus arquivos")
+    void deveExcluirArquivoDeJobExpirado() throws Exception {
+        service.encerrar();
+        service = new RelatorioJobService(relatorioService, diretorio, 1, 1, Duration.ZERO);
+        when(relatorioService.versaoRelatorio(1L)).thenReturn(1);
+
+        RelatorioJobService.Situacao criado = service.submeter(1L, FormatoRelatorio.PDF, "completo");
+        aguardarFim(1L, criado.jobId());
+        assertEquals(1, arquivosNoDiretorio());
+
+        Thread.sleep(5);
+        service.removerExpirados();
+
+        assertEquals(0, arquivosNoDiretorio());
+        assertThrows(ResourceNotFoundException.class, () -> service.situacao(1L, criado.jobId()));
+    }
+
+    @Test
+    @DisplayName("Arquivos de jobs de execuções anteriores devem ser removidos na inicialização")
+    void deveLimparArquivosDeJobsNaInicializacao() throws Exception {
+        service.encerrar();
+        Files.writeString(diretorio.resolve("job-antigo.pdf"), "antigo");
+        Files.writeString(diretorio.resolve("leiame.txt"), "alheio");
+
+        service = new RelatorioJobService(relatorioService, diretorio, 1, 1, Duration.ofHours(1));
+
+        assertFalse(Files.exists(diretorio.resolve("job-antigo.pdf")));
+        assertTrue(Files.exists(diretorio.resolve("leiame.txt")));
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia, novos jobs devem ser recusados com 503")
+    void deveRecusarJobComFilaCheia() throws Exception {
+        when(relatorioService.versaoRelatorio(1L)).thenReturn(1);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            iniciado.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(relatorioService).gerar(eq(1L), any(), any(), any());
+
+        RelatorioJobService.Situacao emExecucao = service.submeter(1L, FormatoRelatorio.PDF, "completo");
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+        RelatorioJobService.Situacao naFila = service.submeter(1L, FormatoRelatorio.DOCX, "completo");
+
+        BusinessException ex = assertThrows(BusinessException.class,
+            () -> service.submeter(1L, FormatoRelatorio.XLSX, "completo"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+
+        assertEquals(RelatorioJobService.Status.PROCESSANDO, service.situacao(1L, emExecucao.jobId()).status());
+        assertEquals(RelatorioJobService.Status.PENDENTE, service.situacao(1L, naFila.jobId()).status());
+        BusinessException pendente = assertThrows(BusinessException.class,
+            () -> service.concluido(1L, naFila.jobId()));
+        assertEquals(HttpStatus.CONFLICT, pendente.getStatus());
+
+        liberar.countDown();
+        assertEquals(RelatorioJobService.Status.CONCLUIDO, aguardarFim(1L, naFila.jobId()).status());
+    }
+
+    @Test
+    @DisplayName("Falha na geração deve ser registrada no job")
+    void deveRegistrarFalhaDoJob() throws Exception {
+        when(relatorioService.versaoRelatorio(1L)).thenReturn(1);
+        doThrow(new BusinessException("Erro ao gerar relatório PDF"))
+            .when(relatorioService).gerar(eq(1L), any(), any(), any());
+
+        RelatorioJobService.Situacao criado = service.submeter(1L, FormatoRelatorio.PDF, "resumo");
+        RelatorioJobService.Situacao situacao = aguardarFim(1L, criado.jobId());
+
+        assertEquals(RelatorioJobService.Status.ERRO, situacao.status());
+        assertEquals("Erro ao gerar relatório PDF", situacao.erro());
+        assertEquals("resumido", situacao.nivel());
+        assertEquals(0, arquivosNoDiretorio());
+        assertEquals(HttpStatus.CONFLICT,
+            assertThrows(BusinessException.class, () -> service.concluido(1L, criado.jobId())).getStatus());
+    }
+
+    @Test
+    @DisplayName("Job deve ser encontrado apenas pelo cálculo que o criou")
+    void deveRejeitarJobDeOutroCalculo() throws Exception {
+        when(relatorioService.versaoRelatorio(1L)).thenReturn(1);
+
+        RelatorioJobService.Situacao criado = service.submeter(1L, FormatoRelatorio.PDF, "completo");
+        aguardarFim(1L, criado.jobId());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.situacao(2L, criado.jobId()));
+        assertThrows(ResourceNotFoundException.class, () -> service.situacao(1L, "inexistente"));
+    }
+
+    private String baixar(Long calculoId, String jobId) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.escrever(calculoId, jobId, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private long arquivosNoDiretorio() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.count();
+        }
+    }
+
+    private RelatorioJobService.Situacao aguardarFim(Long calculoId, String jobId) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RelatorioJobService.Situacao situacao = service.situacao(calculoId, jobId);
+        while (situacao.concluidoEm() == null && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            situacao = service.situacao(calculoId, jobId);
+        }
+        return situacao;
+    }
+}
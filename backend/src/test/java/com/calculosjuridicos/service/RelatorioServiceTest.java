@@ -0,0 +1,164 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import com.calculosjuridicos.entity.TipoCalculo;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.exception.ResourceNotFoundException;
+import com.calculosjuridicos.repository.CalculoRepository;
+import com.calculosjuridicos.repository.ResultadoCalculoRepository;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RelatorioServiceTest {
+
+    @Mock
+    private CalculoRepository calculoRepository;
+
+    @Mock
+    private ResultadoCalculoRepository resultadoCalculoRepository;
+
+    @Mock
+    private DetalhamentoService detalhamentoService;
+
+    private RelatorioService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RelatorioService(calculoRepository, resultadoCalculoRepository, detalhamentoService);
+        ReflectionTestUtils.setField(service, "linhasEmMemoriaExcel", 10);
+    }
+
+    @Test
+    @DisplayName("Excel do preview deve conter toda a evolução mensal mesmo com poucas linhas em memória")
+    void deveGerarExcelPreviewEmStreaming() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.gerarExcelPreview(request(), resultadoComEvolucao(432), saida);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(saida.toByteArray()))) {
+            assertEquals(List.of("Fundamentação Legal", "Resumo", "Evolução Mensal"),
+                List.of(workbook.getSheetName(0), workbook.getSheetName(1), workbook.getSheetName(2)));
+
+            Sheet evolucao = workbook.getSheet("Evolução Mensal");
+            assertEquals("Competência", evolucao.getRow(0).getCell(0).getStringCellValue());
+            Row primeira = evolucao.getRow(1);
+            assertEquals("01/1990", primeira.getCell(0).getStringCellValue());
+            Row ultima = evolucao.getRow(432);
+            assertEquals("12/2025", ultima.getCell(0).getStringCellValue());
+            assertEquals(1441.0, ultima.getCell(5).getNumericCellValue());
+
+            Row total = evolucao.getRow(evolucao.getLastRowNum());
+            assertEquals("TOTAL GERAL", total.getCell(4).getStringCellValue());
+            assertEquals(1441.0, total.getCell(5).getNumericCellValue());
+            // Larguras ajustadas a partir de todas as linhas, inclusive as já descarregadas
+            assertTrue(evolucao.getColumnWidth(0) > evolucao.getDefaultColumnWidth() * 256);
+        }
+    }
+
+    @Test
+    @DisplayName("PDF do preview deve paginar a evolução mensal em blocos sem fechar a saída")
+    void deveGerarPdfPreviewEmBlocos() throws Exception {
+        ReflectionTestUtils.setField(service, "linhasPorBlocoPdf", 20);
+        SaidaMonitorada saida = new SaidaMonitorada();
+
+        service.gerarPdfPreview(request(), resultadoComEvolucao(432), saida);
+
+        assertFalse(saida.fechada);
+        PdfReader reader = new PdfReader(saida.toByteArray());
+        try {
+            assertTrue(reader.getNumberOfPages() > 5);
+            PdfTextExtractor extrator = new PdfTextExtractor(reader);
+            StringBuilder texto = new StringBuilder();
+            for (int pagina = 1; pagina <= reader.getNumberOfPages(); pagina++) {
+                texto.append(extrator.getTextFromPage(pagina)).append('\n');
+            }
+            // Todas as competências aparecem uma única vez, mesmo com a tabela gravada em blocos
+            assertEquals(432, texto.toString().split("IPCA_E", -1).length - 1);
+            assertTrue(texto.toString().contains("01/1990"));
+            assertTrue(texto.toString().contains("12/2025"));
+            assertTrue(extrator.getTextFromPage(reader.getNumberOfPages()).contains("TOTAL GERAL"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Versão do relatório deve rejeitar cálculo inexistente ou não executado")
+    void deveObterVersaoAntesDoStreaming() {
+        when(resultadoCalculoRepository.findVersaoByCalculoId(1L)).thenReturn(Optional.empty());
+        when(resultadoCalculoRepository.findVersaoByCalculoId(2L)).thenReturn(Optional.empty());
+        when(resultadoCalculoRepository.findVersaoByCalculoId(3L)).thenReturn(Optional.of(4));
+        when(calculoRepository.existsById(1L)).thenReturn(false);
+        when(calculoRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.versaoRelatorio(1L));
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.versaoRelatorio(2L));
+        assertEquals("Cálculo ainda não foi executado", ex.getMessage());
+        assertEquals(4, service.versaoRelatorio(3L));
+    }
+
+    private CalculoRequest request() {
+        return CalculoRequest.builder()
+            .tipoCalculo(TipoCalculo.FAZENDA_PUBLICA)
+            .titulo("Memorial")
+            .valorPrincipal(new BigDecimal("1000.00"))
+            .dataInicial(LocalDate.of(1990, 1, 1))
+            .dataFinal(LocalDate.of(2025, 12, 31))
+            .build();
+    }
+
+    /** Resultado com {@code meses} competências mensais a partir de 01/1990. */
+    private ResultadoCalculoResponse resultadoComEvolucao(int meses) {
+        List<ResultadoCalculoResponse.DetalhamentoMensalResponse> detalhamento = new ArrayList<>();
+        for (int i = 0; i < meses; i++) {
+            LocalDate competencia = LocalDate.of(1990, 1, 1).plusMonths(i);
+            detalhamento.add(ResultadoCalculoResponse.DetalhamentoMensalResponse.builder()
+                .competencia(String.format("%02d/%d", competencia.getMonthValue(), competencia.getYear()))
+                .nomeIndice("IPCA_E")
+                .variacaoPercentual(new BigDecimal("0.50"))
+                .valorCorrigidoParcial(BigDecimal.valueOf(1000 + i))
+                .jurosParcial(BigDecimal.TEN)
+                .subtotalParcial(BigDecimal.valueOf(1010 + i))
+                .build());
+        }
+        return ResultadoCalculoResponse.builder()
+            .valorCorrigido(new BigDecimal("1431.00"))
+            .valorJuros(new BigDecimal("10.00"))
+            .valorMulta(BigDecimal.ZERO)
+            .valorHonorarios(BigDecimal.ZERO)
+            .valorTotal(new BigDecimal("1441.00"))
+            .detalhamento(detalhamento)
+            .build();
+    }
+
+    private static class SaidaMonitorada extends ByteArrayOutputStream {
+        private boolean fechada;
+
+        @Override
+        public void close() {
+            fechada = true;
+        }
+    }
+}
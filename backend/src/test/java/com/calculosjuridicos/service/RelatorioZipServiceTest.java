@@ -0,0 +1,170 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.FiltroCalculoRequest;
+import com.calculosjuridicos.dto.request.RelatorioZipRequest;
+import com.calculosjuridicos.dto.response.CalculoResumoResponse;
+import com.calculosjuridicos.dto.response.PaginaCursorResponse;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RelatorioZipServiceTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Mock
+    private RelatorioService relatorioService;
+
+    @Mock
+    private CalculoService calculoService;
+
+    private RelatorioZipService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new RelatorioZipService(relatorioService, calculoService, diretorio, 2, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("ZIP deve trazer um relatório por cálculo, na ordem pedida, e listar as falhas em erros.txt")
+    void deveGerarZipNaOrdemDosIds() throws Exception {
+        doAnswer(invocation -> {
+            Long calculoId = invocation.getArgument(0);
+            OutputStream arquivo = invocation.getArgument(3);
+            arquivo.write(("PDF " + calculoId).getBytes(StandardCharsets.UTF_8));
+            if (calculoId == 2L) {
+                throw new ResourceNotFoundException("Cálculo", "id", 2L);
+            }
+            return null;
+        }).when(relatorioService).gerar(anyLong(), eq(FormatoRelatorio.PDF), eq("completo"), any());
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.escrever(List.of(3L, 2L, 1L, 4L), FormatoRelatorio.PDF, "completo", saida);
+
+        Map<String, String> entradas = lerZip(saida.toByteArray());
+        assertEquals(List.of("calculo_3.pdf", "calculo_1.pdf", "calculo_4.pdf", "erros.txt"),
+            List.copyOf(entradas.keySet()));
+        assertEquals("PDF 3", entradas.get("calculo_3.pdf"));
+        assertEquals("PDF 4", entradas.get("calculo_4.pdf"));
+        assertTrue(entradas.get("erros.txt").startsWith("calculo_2: Cálculo não encontrado"),
+            entradas.get("erros.txt"));
+        assertEquals(0, arquivosNoDiretorio());
+    }
+
+    @Test
+    @DisplayName("Relatórios devem ser gerados em paralelo em arquivos próprios, excluídos após entrar no ZIP")
+    void deveGerarRelatoriosEmParaleloEmArquivosProprios() throws Exception {
+        CountDownLatch emGeracao = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            emGeracao.countDown();
+            // Só termina quando o outro relatório também estiver em geração
+            assertTrue(emGeracao.await(5, TimeUnit.SECONDS), "relatórios gerados em sequência");
+            invocation.<OutputStream>getArgument(3).write("XLSX".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(relatorioService).gerar(anyLong(), eq(FormatoRelatorio.XLSX), eq("resumido"), any());
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.escrever(List.of(1L, 2L), FormatoRelatorio.XLSX, "resumido", saida);
+
+        Map<String, String> entradas = lerZip(saida.toByteArray());
+        assertEquals(List.of("calculo_1.xlsx", "calculo_2.xlsx"), List.copyOf(entradas.keySet()),
+            entradas.get("erros.txt"));
+        assertEquals(0, arquivosNoDiretorio());
+    }
+
+    @Test
+    @DisplayName("Ids repetidos devem ser exportados uma única vez, na ordem informada")
+    void deveRemoverIdsRepetidos() {
+        RelatorioZipRequest request = RelatorioZipRequest.builder().ids(List.of(5L, 1L, 5L)).build();
+
+        assertEquals(List.of(5L, 1L), service.resolverIds(request));
+        verifyNoInteractions(calculoService);
+    }
+
+    @Test
+    @DisplayName("Filtro deve percorrer todas as páginas da listagem")
+    void deveResolverIdsPeloFiltro() {
+        FiltroCalculoRequest filtro = new FiltroCalculoRequest();
+        when(calculoService.listarPorCursor(eq(filtro), isNull(), eq(100))).thenReturn(pagina("c1", true, 7L, 8L));
+        when(calculoService.listarPorCursor(filtro, "c1", 100)).thenReturn(pagina(null, false, 9L));
+
+        List<Long> ids = service.resolverIds(RelatorioZipRequest.builder().filtro(filtro).build());
+
+        assertEquals(List.of(7L, 8L, 9L), ids);
+    }
+
+    @Test
+    @DisplayName("Exportação sem cálculos ou acima do limite deve ser recusada")
+    void deveRecusarExportacaoInvalida() {
+        assertThrows(BusinessException.class, () -> service.resolverIds(new RelatorioZipRequest()));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+            () -> service.resolverIds(RelatorioZipRequest.builder().ids(List.of(1L, 2L, 3L, 4L)).build()));
+        assertEquals("A exportação é limitada a 3 cálculos por arquivo", ex.getMessage());
+    }
+
+    private PaginaCursorResponse<CalculoResumoResponse> pagina(String proximoCursor, boolean temMais, Long... ids) {
+        return PaginaCursorResponse.<CalculoResumoResponse>builder()
+            .itens(Arrays.stream(ids).map(id -> CalculoResumoResponse.builder().id(id).build()).toList())
+            .proximoCursor(proximoCursor)
+            .temMais(temMais)
+            .build();
+    }
+
+    private long arquivosNoDiretorio() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.count();
+        }
+    }
+
+    private Map<String, String> lerZip(byte[] conteudo) throws IOException {
+        Map<String, String> entradas = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(conteudo))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                entradas.put(entrada.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entradas;
+    }
+}
@@ -0,0 +1,132 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.dto.request.CalculoRequest;
+import com.calculosjuridicos.dto.response.ResultadoCalculoResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.event.TransactionalApplicationListenerMethodAdapter;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultadoPreviewCacheTest {
+
+    @Test
+    @DisplayName("Deve reutilizar o resultado para requisições equivalentes e contar acertos e falhas")
+    void deveReutilizarResultadoParaRequisicoesEquivalentes() {
+        ResultadoPreviewCache cache = new ResultadoPreviewCache(10, Duration.ofMinutes(10));
+        AtomicInteger calculos = new AtomicInteger();
+        Supplier<ResultadoCalculoResponse> calculo = contar(calculos);
+
+        ResultadoCalculoResponse primeiro = cache.obter(criarRequest("Primeiro"), calculo);
+        // O título não influencia o resultado
+        ResultadoCalculoResponse segundo = cache.obter(criarRequest("Outro título"), calculo);
+
+        assertSame(primeiro, segundo);
+        assertEquals(1, calculos.get());
+        assertEquals(1, cache.estatisticas().acertos());
+        assertEquals(1, cache.estatisticas().falhas());
+    }
+
+    @Test
+    @DisplayName("Deve diferenciar requisições com parâmetros ou escala diferentes")
+    void deveDiferenciarRequisicoesDiferentes() {
+        CalculoRequest base = criarRequest(null);
+        CalculoRequest outraTaxa = criarRequest(null);
+        outraTaxa.setTaxaJuros(new BigDecimal("0.5"));
+        CalculoRequest outraEscala = criarRequest(null);
+        outraEscala.setValorPrincipal(new BigDecimal("1000"));
+        CalculoRequest outraParcela = criarRequest(null);
+        outraParcela.getParcelas().get(1).setDataVencimento(LocalDate.of(2020, 3, 10));
+
+        String hash = ResultadoPreviewCache.hashCanonico(base);
+        assertNotEquals(hash, ResultadoPreviewCache.hashCanonico(outraTaxa));
+        assertNotEquals(hash, ResultadoPreviewCache.hashCanonico(outraEscala));
+        assertNotEquals(hash, ResultadoPreviewCache.hashCanonico(outraParcela));
+    }
+
+    @Test
+    @DisplayName("Deve recalcular após atualização de índices")
+    void deveRecalcularAposAtualizacaoDeIndices() {
+        ResultadoPreviewCache cache = new ResultadoPreviewCache(10, Duration.ofMinutes(10));
+        AtomicInteger calculos = new AtomicInteger();
+
+        cache.obter(criarRequest(null), contar(calculos));
+        cache.onIndicesAtualizados(new IndicesAtualizadosEvent(1L));
+        cache.obter(criarRequest(null), contar(calculos));
+
+        assertEquals(2, calculos.get());
+        assertEquals(1, cache.estatisticas().versaoIndices());
+    }
+
+    @Test
+    @DisplayName("Cache de preview deve ser invalidado depois da série em memória")
+    void deveInvalidarDepoisDaSerieEmMemoria() throws NoSuchMethodException {
+        assertTrue(ordemOuvinte(IndiceCacheService.class) < ordemOuvinte(IndiceSeriesStore.class));
+        assertTrue(ordemOuvinte(IndiceSeriesStore.class) < ordemOuvinte(ResultadoPreviewCache.class));
+    }
+
+    @Test
+    @DisplayName("Deve remover a entrada menos usada ao exceder o limite e expirar pelo TTL")
+    void deveRemoverEntradaMenosUsadaEExpirar() {
+        ResultadoPreviewCache cache = new ResultadoPreviewCache(2, Duration.ofMinutes(10));
+        AtomicInteger calculos = new AtomicInteger();
+        CalculoRequest a = criarRequest(null);
+        CalculoRequest b = criarRequest(null);
+        b.setMultaPercentual(new BigDecimal("2"));
+        CalculoRequest c = criarRequest(null);
+        c.setMultaPercentual(new BigDecimal("3"));
+
+        cache.obter(a, contar(calculos));
+        cache.obter(b, contar(calculos));
+        cache.obter(a, contar(calculos));
+        cache.obter(c, contar(calculos)); // remove b
+        cache.obter(a, contar(calculos));
+        cache.obter(b, contar(calculos));
+
+        assertEquals(4, calculos.get());
+        assertEquals(2, cache.estatisticas().entradas());
+
+        ResultadoPreviewCache expirado = new ResultadoPreviewCache(2, Duration.ZERO.minusNanos(1));
+        expirado.obter(a, contar(calculos));
+        expirado.obter(a, contar(calculos));
+        assertEquals(6, calculos.get());
+    }
+
+    private Supplier<ResultadoCalculoResponse> contar(AtomicInteger calculos) {
+        return () -> {
+            calculos.incrementAndGet();
+            return ResultadoCalculoResponse.builder().valorTotal(new BigDecimal("1234.56")).build();
+        };
+    }
+
+    private CalculoRequest criarRequest(String titulo) {
+        return CalculoRequest.builder()
+            .titulo(titulo)
+            .valorPrincipal(new BigDecimal("1000.00"))
+            .dataInicial(LocalDate.of(2020, 1, 1))
+            .dataFinal(LocalDate.of(2024, 1, 1))
+            .tabelaIndiceId(1L)
+            .taxaJuros(new BigDecimal("1.0"))
+            .parcelas(new ArrayList<>(List.of(
+                CalculoRequest.ParcelaRequest.builder().descricao("A").valorOriginal(new BigDecimal("500.00"))
+                    .dataVencimento(LocalDate.of(2020, 1, 10)).build(),
+                CalculoRequest.ParcelaRequest.builder().descricao("B").valorOriginal(new BigDecimal("500.00"))
+                    .dataVencimento(LocalDate.of(2020, 2, 10)).build())))
+            .build();
+    }
+
+    /** Ordem em que o Spring executa o ouvinte de {@link IndicesAtualizadosEvent} da classe. */
+    private int ordemOuvinte(Class<?> classe) throws NoSuchMethodException {
+        Method metodo = classe.getMethod("onIndicesAtualizados", IndicesAtualizadosEvent.class);
+        return new TransactionalApplicationListenerMethodAdapter(classe.getSimpleName(), classe, metodo).getOrder();
+    }
+}
@@ -0,0 +1,66 @@
+package com.calculosjuridicos.service;
+
+import com.calculosjuridicos.entity.TabelaIndice;
+import com.calculosjuridicos.exception.BusinessException;
+import com.calculosjuridicos.repository.TabelaIndiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TabelaIndiceRegistryTest {
+
+    @Mock
+    private TabelaIndiceRepository tabelaIndiceRepository;
+
+    private TabelaIndiceRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TabelaIndiceRegistry(tabelaIndiceRepository);
+    }
+
+    @Test
+    @DisplayName("Deve resolver id, nome e série BCB sem consultar o banco a cada busca")
+    void deveResolverMetadadosComUmaUnicaConsulta() {
+        when(tabelaIndiceRepository.findAll()).thenReturn(List.of(
+            TabelaIndice.builder().id(1L).nome(TabelaIndice.INPC).build(),
+            TabelaIndice.builder().id(3L).nome(TabelaIndice.SELIC).build(),
+            TabelaIndice.builder().id(9L).nome("MANUAL_X").build()));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(3L, registry.obterId(TabelaIndice.SELIC));
+            assertEquals(TabelaIndice.INPC, registry.obterNome(1L));
+        }
+
+        assertEquals("4390", registry.buscarPorId(3L).orElseThrow().serieBcb());
+        assertNull(registry.buscarPorNome("MANUAL_X").orElseThrow().serieBcb());
+        assertNull(registry.obterNome(42L));
+        verify(tabelaIndiceRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para índice não cadastrado e refletir tabelas novas após recarregar")
+    void deveRefletirTabelasNovasAposRecarregar() {
+        when(tabelaIndiceRepository.findAll())
+            .thenReturn(List.of())
+            .thenReturn(List.of(TabelaIndice.builder().id(2L).nome(TabelaIndice.IPCA_E).build()));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> registry.obterId(TabelaIndice.IPCA_E));
+        assertTrue(ex.getMessage().contains("IPCA_E"));
+
+        registry.recarregar();
+
+        assertEquals(2L, registry.obterId(TabelaIndice.IPCA_E));
+    }
+}
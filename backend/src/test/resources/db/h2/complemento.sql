@@ -0,0 +1,28 @@
+-- Tabelas cuja definicao nas migracoes difere das entidades: recriadas conforme o MySQL.
+
+-- V10: o detalhamento arquivado e a data de arquivamento nao sao mapeados pela entidade
+DROP TABLE IF EXISTS resultado_calculo_historico;
+CREATE TABLE resultado_calculo_historico (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    calculo_id BIGINT NOT NULL,
+    versao INT NOT NULL,
+    valor_corrigido DECIMAL(18,2) NOT NULL,
+    valor_juros DECIMAL(18,2) NOT NULL,
+    valor_multa DECIMAL(18,2) NOT NULL,
+    valor_honorarios DECIMAL(18,2) NOT NULL,
+    valor_total DECIMAL(18,2) NOT NULL,
+    data_calculo DATETIME,
+    detalhamento_json LONGTEXT,
+    detalhamento_compacto MEDIUMBLOB,
+    data_arquivamento DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_historico_calculo_versao (calculo_id, versao)
+);
+
+-- V11: area de preparacao das reconstrucoes completas, sem entidade
+CREATE TABLE IF NOT EXISTS valor_indice_reconstrucao (
+    tabela_indice_id BIGINT NOT NULL,
+    competencia DATE NOT NULL,
+    valor DECIMAL(18,8) NOT NULL,
+    fonte VARCHAR(20) DEFAULT 'MANUAL',
+    PRIMARY KEY (tabela_indice_id, competencia)
+);